@@ -0,0 +1,186 @@
+package com.safari.safarims.assets;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Build-time pass over the packaged {@code static} directory, run by the {@code asset-pipeline}
+ * execution in {@code prepare-package} (after tests, before the jar is built):
+ *
+ * <ol>
+ *   <li>minifies css/ and js/ and writes each as {@code assets/<name>.<hash>.<ext>}, so its URL
+ *       changes whenever its content does and it can be cached as immutable;</li>
+ *   <li>points every HTML reference to those fingerprinted URLs and minifies the page;</li>
+ *   <li>writes {@code .gz} and {@code .br} variants of every text asset next to it, which
+ *       EncodedResourceResolver serves by Accept-Encoding.</li>
+ * </ol>
+ *
+ * The minifiers are deliberately conservative (comments and indentation only, line breaks kept) so
+ * they need no JavaScript parser. Without this pass, e.g. under spring-boot:run, the sources are
+ * served as they are.
+ */
+public final class AssetPipeline {
+
+    private static final Set<String> COMPRESSIBLE = Set.of("html", "css", "js", "svg", "json", "txt", "xml");
+    private static final int MIN_COMPRESS_BYTES = 256;
+    private static final Pattern ASSET_REFERENCE = Pattern.compile("(href|src)=\"([^\"]+\\.(?:css|js))\"");
+
+    private final Path root;
+
+    private AssetPipeline(Path root) {
+        this.root = root;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path root = Path.of(args.length > 0 ? args[0] : "target/classes/static");
+        if (!Files.isDirectory(root)) {
+            System.out.println("[assets] " + root + " does not exist, nothing to do");
+            return;
+        }
+        new AssetPipeline(root).run();
+    }
+
+    private void run() throws Exception {
+        Path assets = root.resolve("assets");
+        deleteRecursively(assets);
+        Files.createDirectories(assets);
+
+        Map<String, String> fingerprinted = new TreeMap<>();
+        for (Path source : files(root, path -> !path.startsWith(assets) && (extension(path).equals("css") || extension(path).equals("js")))) {
+            String content = Files.readString(source);
+            String minified = extension(source).equals("css") ? Minifiers.css(content) : Minifiers.js(content);
+            byte[] bytes = minified.getBytes(StandardCharsets.UTF_8);
+            String name = source.getFileName().toString();
+            int dot = name.lastIndexOf('.');
+            String hashedName = name.substring(0, dot) + "." + hash(bytes) + name.substring(dot);
+            Files.write(assets.resolve(hashedName), bytes);
+            fingerprinted.put(relative(source), "/assets/" + hashedName);
+        }
+
+        long htmlBefore = 0;
+        long htmlAfter = 0;
+        for (Path page : files(root, path -> extension(path).equals("html"))) {
+            String html = Files.readString(page);
+            String rewritten = Minifiers.html(rewriteReferences(page, html, fingerprinted));
+            Files.writeString(page, rewritten);
+            htmlBefore += html.length();
+            htmlAfter += rewritten.length();
+        }
+
+        long raw = 0;
+        long gzip = 0;
+        long brotli = 0;
+        Brotli4jLoader.ensureAvailability();
+        Encoder.Parameters brotliParameters = new Encoder.Parameters().setQuality(11);
+        for (Path file : files(root, path -> COMPRESSIBLE.contains(extension(path)))) {
+            byte[] content = Files.readAllBytes(file);
+            if (content.length < MIN_COMPRESS_BYTES) {
+                continue;
+            }
+            raw += content.length;
+            gzip += writeIfSmaller(file, ".gz", content, gzip(content));
+            brotli += writeIfSmaller(file, ".br", content, Encoder.compress(content, brotliParameters));
+        }
+
+        System.out.printf("[assets] fingerprinted %s%n", fingerprinted);
+        System.out.printf("[assets] html %,d -> %,d chars; compressible %,d bytes -> gzip %,d, brotli %,d%n",
+            htmlBefore, htmlAfter, raw, gzip, brotli);
+    }
+
+    // href="../css/main.css" in dashboards/x.html resolves to css/main.css, then to its fingerprinted URL
+    private String rewriteReferences(Path page, String html, Map<String, String> fingerprinted) {
+        Matcher matcher = ASSET_REFERENCE.matcher(html);
+        StringBuilder out = new StringBuilder(html.length());
+        while (matcher.find()) {
+            String target = matcher.group(2);
+            String replacement = matcher.group();
+            if (!target.contains("://") && !target.startsWith("//")) {
+                Path resolved = target.startsWith("/")
+                    ? root.resolve(target.substring(1))
+                    : page.getParent().resolve(target);
+                String url = fingerprinted.get(relative(resolved.normalize()));
+                if (url != null) {
+                    replacement = matcher.group(1) + "=\"" + url + "\"";
+                }
+            }
+            matcher.appendReplacement(out, Matcher.quoteReplacement(replacement));
+        }
+        matcher.appendTail(out);
+        return out.toString();
+    }
+
+    private static long writeIfSmaller(Path file, String suffix, byte[] original, byte[] compressed) throws IOException {
+        Path variant = file.resolveSibling(file.getFileName() + suffix);
+        if (compressed.length >= original.length) {
+            Files.deleteIfExists(variant);
+            return original.length;
+        }
+        Files.write(variant, compressed);
+        return compressed.length;
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 3);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(content);
+        }
+        return out.toByteArray();
+    }
+
+    private static String hash(byte[] content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content)).substring(0, 10);
+    }
+
+    private String relative(Path path) {
+        return root.relativize(path).toString().replace('\\', '/');
+    }
+
+    private static String extension(Path path) {
+        String name = path.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot < 0 ? "" : name.substring(dot + 1).toLowerCase(Locale.ROOT);
+    }
+
+    private static List<Path> files(Path root, java.util.function.Predicate<Path> filter) throws IOException {
+        try (Stream<Path> walk = Files.walk(root)) {
+            return walk.filter(Files::isRegularFile).filter(filter).sorted().toList();
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        List<Path> paths = new ArrayList<>();
+        try (Stream<Path> walk = Files.walk(directory)) {
+            walk.sorted(Comparator.reverseOrder()).forEach(paths::add);
+        }
+        for (Path path : paths) {
+            Files.delete(path);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.safari.safarims.assets;
+
+import java.util.Set;
+
+/**
+ * Lexer-level minifiers for the asset pipeline. They only remove comments and layout whitespace and
+ * never touch the inside of string, template or regex literals, so they cannot change behaviour the
+ * way a renaming minifier could. JavaScript keeps its line breaks because automatic semicolon
+ * insertion depends on them.
+ */
+final class Minifiers {
+
+    private static final String REGEX_AFTER = "(,=:[!&|?{};+-*%<>~^";
+    private static final Set<String> REGEX_AFTER_KEYWORDS = Set.of(
+        "return", "typeof", "instanceof", "in", "of", "new", "delete", "void", "throw", "case", "do", "else", "yield", "await");
+    private static final String CSS_TIGHT = "{};:,>";
+    private static final String CSS_TIGHT_BEFORE = "{};,>)";
+
+    private Minifiers() {
+    }
+
+    static String css(String source) {
+        StringBuilder out = new StringBuilder(source.length());
+        int n = source.length();
+        int i = 0;
+        while (i < n) {
+            char c = source.charAt(i);
+            if (c == '/' && i + 1 < n && source.charAt(i + 1) == '*') {
+                int end = source.indexOf("*/", i + 2);
+                i = end < 0 ? n : end + 2;
+                continue;
+            }
+            if (c == '"' || c == '\'') {
+                i = copyQuoted(source, i, out);
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                while (i < n && Character.isWhitespace(source.charAt(i))) {
+                    i++;
+                }
+                boolean tightBefore = out.isEmpty() || CSS_TIGHT.indexOf(out.charAt(out.length() - 1)) >= 0;
+                boolean tightAfter = i >= n || CSS_TIGHT_BEFORE.indexOf(source.charAt(i)) >= 0
+                    || (source.startsWith("/*", i));
+                if (!tightBefore && !tightAfter) {
+                    out.append(' ');
+                }
+                continue;
+            }
+            if (c == '}' && !out.isEmpty() && out.charAt(out.length() - 1) == ';') {
+                out.setLength(out.length() - 1);
+            }
+            out.append(c);
+            i++;
+        }
+        return out.toString();
+    }
+
+    static String js(String source) {
+        StringBuilder out = new StringBuilder(source.length());
+        int n = source.length();
+        int i = 0;
+        while (i < n) {
+            char c = source.charAt(i);
+            char next = i + 1 < n ? source.charAt(i + 1) : '\0';
+            if (c == '/' && next == '/') {
+                while (i < n && source.charAt(i) != '\n') {
+                    i++;
+                }
+                continue;
+            }
+            if (c == '/' && next == '*') {
+                int end = source.indexOf("*/", i + 2);
+                i = end < 0 ? n : end + 2;
+                out.append(' ');
+                continue;
+            }
+            if (c == '"' || c == '\'' || c == '`') {
+                i = copyQuoted(source, i, out);
+                continue;
+            }
+            if (c == '/' && regexAllowed(out)) {
+                i = copyRegex(source, i, out);
+                continue;
+            }
+            if (c == '\n' || c == '\r') {
+                trimTrailing(out);
+                if (!out.isEmpty() && out.charAt(out.length() - 1) != '\n') {
+                    out.append('\n');
+                }
+                while (i < n && Character.isWhitespace(source.charAt(i))) {
+                    i++;
+                }
+                continue;
+            }
+            if (c == ' ' || c == '\t') {
+                while (i < n && (source.charAt(i) == ' ' || source.charAt(i) == '\t')) {
+                    i++;
+                }
+                if (!out.isEmpty() && out.charAt(out.length() - 1) != '\n' && out.charAt(out.length() - 1) != ' ') {
+                    out.append(' ');
+                }
+                continue;
+            }
+            out.append(c);
+            i++;
+        }
+        trimEnd(out);
+        return out.toString();
+    }
+
+    /** Drops comments and indentation; {@code pre} and {@code textarea} are kept verbatim, inline script and style are minified. */
+    static String html(String source) {
+        StringBuilder out = new StringBuilder(source.length());
+        int n = source.length();
+        int i = 0;
+        while (i < n) {
+            char c = source.charAt(i);
+            if (c == '<') {
+                if (source.startsWith("<!--", i) && !source.startsWith("<!--[if", i)) {
+                    int end = source.indexOf("-->", i + 4);
+                    i = end < 0 ? n : end + 3;
+                    continue;
+                }
+                String element = rawElement(source, i);
+                if (element != null) {
+                    int openEnd = source.indexOf('>', i);
+                    int close = indexOfIgnoreCase(source, "</" + element, openEnd);
+                    if (openEnd < 0 || close < 0) {
+                        out.append(source, i, n);
+                        return out.toString();
+                    }
+                    String openTag = source.substring(i, openEnd + 1);
+                    String body = source.substring(openEnd + 1, close);
+                    out.append(openTag);
+                    switch (element) {
+                        case "script" -> out.append(isInlineJavaScript(openTag) ? js(body) : body);
+                        case "style" -> out.append(css(body));
+                        default -> out.append(body);
+                    }
+                    i = close;
+                    continue;
+                }
+            }
+            if (c == '\n' || c == '\r') {
+                trimTrailing(out);
+                if (!out.isEmpty() && out.charAt(out.length() - 1) != '\n') {
+                    out.append('\n');
+                }
+                while (i < n && Character.isWhitespace(source.charAt(i))) {
+                    i++;
+                }
+                continue;
+            }
+            out.append(c);
+            i++;
+        }
+        trimEnd(out);
+        return out.append('\n').toString();
+    }
+
+    private static String rawElement(String source, int at) {
+        for (String element : new String[] {"script", "style", "pre", "textarea"}) {
+            int end = at + 1 + element.length();
+            if (source.regionMatches(true, at + 1, element, 0, element.length())
+                && end < source.length() && (source.charAt(end) == '>' || Character.isWhitespace(source.charAt(end)))) {
+                return element;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isInlineJavaScript(String openTag) {
+        String tag = openTag.toLowerCase();
+        if (tag.contains(" src=")) {
+            return false;
+        }
+        int type = tag.indexOf("type=");
+        return type < 0 || tag.startsWith("\"text/javascript\"", type + 5) || tag.startsWith("\"module\"", type + 5);
+    }
+
+    private static boolean regexAllowed(StringBuilder out) {
+        int end = out.length() - 1;
+        while (end >= 0 && Character.isWhitespace(out.charAt(end))) {
+            end--;
+        }
+        if (end < 0) {
+            return true;
+        }
+        char last = out.charAt(end);
+        if (REGEX_AFTER.indexOf(last) >= 0) {
+            return true;
+        }
+        if (!Character.isJavaIdentifierPart(last)) {
+            return false;
+        }
+        int start = end;
+        while (start > 0 && Character.isJavaIdentifierPart(out.charAt(start - 1))) {
+            start--;
+        }
+        return REGEX_AFTER_KEYWORDS.contains(out.substring(start, end + 1));
+    }
+
+    private static int copyQuoted(String source, int start, StringBuilder out) {
+        char quote = source.charAt(start);
+        int i = start + 1;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            i++;
+            if (c == quote) {
+                break;
+            }
+        }
+        i = Math.min(i, source.length());
+        out.append(source, start, i);
+        return i;
+    }
+
+    private static int copyRegex(String source, int start, StringBuilder out) {
+        int i = start + 1;
+        boolean inClass = false;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == '\n') {
+                break;
+            }
+            i++;
+            if (c == '[') {
+                inClass = true;
+            } else if (c == ']') {
+                inClass = false;
+            } else if (c == '/' && !inClass) {
+                break;
+            }
+        }
+        i = Math.min(i, source.length());
+        out.append(source, start, i);
+        return i;
+    }
+
+    private static int indexOfIgnoreCase(String source, String needle, int from) {
+        for (int i = Math.max(from, 0); i <= source.length() - needle.length(); i++) {
+            if (source.regionMatches(true, i, needle, 0, needle.length())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void trimEnd(StringBuilder out) {
+        int length = out.length();
+        while (length > 0 && Character.isWhitespace(out.charAt(length - 1))) {
+            length--;
+        }
+        out.setLength(length);
+    }
+
+    private static void trimTrailing(StringBuilder out) {
+        int length = out.length();
+        while (length > 0 && (out.charAt(length - 1) == ' ' || out.charAt(length - 1) == '\t')) {
+            length--;
+        }
+        out.setLength(length);
+    }
+}
@@ -0,0 +1,11 @@
+package com.safari.safarims.common.enums;
+
+/** What the audit pipeline does with a new event when its buffer is full. */
+public enum AuditOverflowPolicy {
+    /** Discard the new event. The request thread never waits. */
+    DROP_NEWEST,
+    /** Discard the oldest buffered event to make room. The request thread never waits. */
+    DROP_OLDEST,
+    /** Wait up to the configured timeout for room, then discard the new event. */
+    BLOCK
+}
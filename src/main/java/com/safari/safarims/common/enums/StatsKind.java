@@ -0,0 +1,6 @@
+package com.safari.safarims.common.enums;
+
+public enum StatsKind {
+    BOOKING,
+    PAYMENT
+}
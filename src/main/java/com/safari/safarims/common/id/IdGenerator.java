@@ -0,0 +1,101 @@
+package com.safari.safarims.common.id;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Time-ordered 64-bit ids: 41 bits of milliseconds since 2024-01-01 UTC, 10 bits of node id and a
+ * 12-bit per-millisecond sequence, so ids from one node never repeat and ids from different nodes
+ * never collide. New ids sort after earlier ones, which keeps inserts into unique indexes on the
+ * right-hand edge instead of scattering them across pages.
+ *
+ * The clock and sequence live in one AtomicLong advanced by CAS, so there is no lock. When a
+ * millisecond's 4096 sequence numbers run out, or the wall clock steps backwards, the generator
+ * borrows from the next millisecond rather than waiting.
+ */
+@Component
+@Slf4j
+public class IdGenerator {
+
+    static final long EPOCH_MILLIS = 1_704_067_200_000L; // 2024-01-01T00:00:00Z
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    // Crockford base32: no I, L, O or U, so references survive being read out over the phone
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int ENCODED_LENGTH = 13;
+
+    private final long node;
+    private final boolean nodeConfigured;
+    private final LongSupplier clock;
+    private final AtomicLong lastTick = new AtomicLong(); // (millis since epoch << SEQUENCE_BITS) | sequence
+
+    @Autowired
+    public IdGenerator(@Value("${app.ids.node-id:-1}") int nodeId) {
+        this(resolveNodeId(nodeId), nodeId >= 0, System::currentTimeMillis);
+    }
+
+    IdGenerator(int nodeId, LongSupplier clock) {
+        this(nodeId, true, clock);
+    }
+
+    private IdGenerator(int nodeId, boolean nodeConfigured, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("app.ids.node-id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.node = nodeId;
+        this.nodeConfigured = nodeConfigured;
+        this.clock = clock;
+    }
+
+    public long nextId() {
+        long floor = (clock.getAsLong() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long tick = lastTick.updateAndGet(last -> Math.max(floor, last + 1));
+        return ((tick >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS))
+            | (node << SEQUENCE_BITS)
+            | (tick & ((1L << SEQUENCE_BITS) - 1));
+    }
+
+    /** False when the node id was derived from the host name, which two nodes may share. */
+    public boolean isNodeConfigured() {
+        return nodeConfigured;
+    }
+
+    /** A fixed-width, uppercase reference such as {@code TXN-0J5Z7Q3M8K2RA}; sorts in issue order. */
+    public String nextReference(String prefix) {
+        long id = nextId();
+        char[] chars = new char[prefix.length() + ENCODED_LENGTH];
+        prefix.getChars(0, prefix.length(), chars, 0);
+        for (int i = chars.length - 1; i >= prefix.length(); i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    // Unset means single-node or a dev box; a host-derived id is fine there but not guaranteed unique,
+    // so JobCoordinator refuses to start a second node without it.
+    private static int resolveNodeId(int configured) {
+        if (configured >= 0) {
+            return configured;
+        }
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = String.valueOf(ProcessHandle.current().pid());
+        }
+        int derived = (host.hashCode() & Integer.MAX_VALUE) % (MAX_NODE_ID + 1);
+        log.warn("app.ids.node-id not set, using {} derived from {}; it must be set when running several nodes",
+            derived, host);
+        return derived;
+    }
+}
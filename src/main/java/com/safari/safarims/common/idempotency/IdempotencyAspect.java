@@ -0,0 +1,101 @@
+package com.safari.safarims.common.idempotency;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safari.safarims.service.IdempotencyService;
+import com.safari.safarims.service.IdempotencyService.StoredResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Implements {@link Idempotent}. Runs inside method security, so a rejected caller never touches
+ * the store. Keys are scoped to the authenticated user and the endpoint; the request fingerprint
+ * is a hash of the method arguments as JSON.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class IdempotencyAspect {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
+
+    @Around("@annotation(com.safari.safarims.common.idempotency.Idempotent)")
+    public Object idempotent(ProceedingJoinPoint joinPoint) throws Throwable {
+        String key = idempotencyKey();
+        if (key == null) {
+            return joinPoint.proceed();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        String scope = caller() + ':' + method.getDeclaringClass().getSimpleName() + '.' + method.getName();
+        byte[] requestHash = IdempotencyService.hash(objectMapper.writeValueAsBytes(joinPoint.getArgs()));
+
+        AtomicReference<ResponseEntity<?>> original = new AtomicReference<>();
+        StoredResponse stored = idempotencyService.execute(scope, key, requestHash, () -> {
+            ResponseEntity<?> response = proceed(joinPoint);
+            original.set(response);
+            String body = response.hasBody() ? objectMapper.writeValueAsString(response.getBody()) : null;
+            return new StoredResponse(response.getStatusCode().value(), body);
+        });
+
+        if (original.get() != null) {
+            return original.get();
+        }
+        if (stored == IdempotencyService.IN_PROGRESS || stored == IdempotencyService.KEY_REUSED) {
+            return ResponseEntity.status(stored.status()).build();
+        }
+        ResponseEntity.BodyBuilder replay = ResponseEntity.status(stored.status()).header(REPLAYED_HEADER, "true");
+        if (stored.body() == null) {
+            return replay.build();
+        }
+        JavaType bodyType = objectMapper.getTypeFactory()
+            .constructType(ResolvableType.forMethodReturnType(method).getGeneric(0).getType());
+        return replay.body(objectMapper.readValue(stored.body(), bodyType));
+    }
+
+    private static ResponseEntity<?> proceed(ProceedingJoinPoint joinPoint) throws Exception {
+        try {
+            return (ResponseEntity<?>) joinPoint.proceed();
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    private static String idempotencyKey() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return null;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        String key = request.getHeader(HEADER);
+        return key == null || key.isBlank() ? null : key.trim();
+    }
+
+    private static String caller() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "anonymous";
+    }
+}
@@ -0,0 +1,23 @@
+package com.safari.safarims.common.idempotency;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Honours an {@code Idempotency-Key} request header on a controller method returning
+ * {@code ResponseEntity}. The first request with a key runs; repeats from the same caller get the
+ * stored response back (marked {@code Idempotent-Replayed: true}) without running anything, and
+ * repeats that arrive while it is still running wait for it. Requests without the header are
+ * untouched.
+ *
+ * Reusing a key with a different request body answers 422; a repeat that cannot wait for a
+ * still-running original answers 409.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Idempotent {
+}
@@ -0,0 +1,27 @@
+package com.safari.safarims.common.retry;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Re-runs a transactional service method, in a fresh transaction, when it loses an optimistic-lock
+ * race ({@code @Version} mismatch). The method must be safe to repeat: it re-reads everything it
+ * decides on, so a retry sees the winner's committed state.
+ *
+ * Only the outermost call retries. When invoked inside an already running transaction the conflict
+ * is passed on, since that transaction is rolled back anyway and only its owner can start over.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+
+    /** Total attempts, including the first. */
+    int maxAttempts() default 3;
+
+    /** Base delay before the first retry; doubled per retry, with jitter. */
+    long backoffMs() default 25;
+}
@@ -0,0 +1,76 @@
+package com.safari.safarims.common.retry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.hibernate.StaleStateException;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Implements {@link RetryOnConflict}. Ordered just outside the transaction interceptor so every
+ * attempt gets its own transaction and a conflict detected at commit is still caught here.
+ *
+ * Metrics, tagged by {@code Class.method}: {@code optimistic.lock.calls}, {@code optimistic.lock.conflicts}
+ * (every losing attempt) and {@code optimistic.lock.exhausted} (calls that failed after the last attempt).
+ * The conflict rate is conflicts / calls.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@RequiredArgsConstructor
+@Slf4j
+public class RetryOnConflictAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("@annotation(retryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint, RetryOnConflict retryOnConflict) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        String method = joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName();
+        meterRegistry.counter("optimistic.lock.calls", "method", method).increment();
+
+        int maxAttempts = Math.max(1, retryOnConflict.maxAttempts());
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (RuntimeException e) {
+                if (!isConflict(e)) {
+                    throw e;
+                }
+                meterRegistry.counter("optimistic.lock.conflicts", "method", method).increment();
+                if (attempt >= maxAttempts) {
+                    meterRegistry.counter("optimistic.lock.exhausted", "method", method).increment();
+                    log.warn("{} lost {} optimistic-lock races, giving up", method, attempt);
+                    throw e;
+                }
+                long delay = retryOnConflict.backoffMs() << (attempt - 1);
+                Thread.sleep(ThreadLocalRandom.current().nextLong(delay / 2, delay + delay / 2 + 1));
+                log.debug("{} hit a version conflict, retrying (attempt {})", method, attempt + 1);
+            }
+        }
+    }
+
+    private static boolean isConflict(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OptimisticLockingFailureException
+                || cause instanceof OptimisticLockException
+                || cause instanceof StaleStateException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,31 @@
+package com.safari.safarims.config;
+
+import com.safari.safarims.common.enums.UserRole;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Escalation tiers for bookings waiting in FORWARDED_TO_CREW, in order. Tier {@code i} fires once a
+ * booking at escalation level {@code i} has not changed for {@code after}, notifying {@code role}.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.escalation")
+public class EscalationProperties {
+
+    private List<Tier> tiers = new ArrayList<>();
+
+    // Booking ids listed in one digest before it falls back to "and N more"
+    private int digestMaxListed = 20;
+
+    @Data
+    public static class Tier {
+        private Duration after;
+        private UserRole role;
+    }
+}
@@ -0,0 +1,35 @@
+package com.safari.safarims.config;
+
+import com.safari.safarims.listener.AuditEventListener;
+import com.safari.safarims.listener.DailyStatsEventListener;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@RequiredArgsConstructor
+public class HibernateListenerConfig {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final DailyStatsEventListener dailyStatsEventListener;
+    private final AuditEventListener auditEventListener;
+
+    @PostConstruct
+    public void registerListeners() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry()
+            .getService(EventListenerRegistry.class);
+
+        registry.appendListeners(EventType.POST_INSERT, dailyStatsEventListener);
+        registry.appendListeners(EventType.POST_UPDATE, dailyStatsEventListener);
+        registry.appendListeners(EventType.POST_DELETE, dailyStatsEventListener);
+
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, auditEventListener);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, auditEventListener);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, auditEventListener);
+    }
+}
@@ -0,0 +1,39 @@
+package com.safari.safarims.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sliding-window retention for the monthly-partitioned notifications and outbound_emails tables.
+ * Months older than {@code hotMonths} are switched out to the archive tables, and archive months
+ * older than {@code archiveMonths} are truncated. {@code notificationTypes} can delete individual
+ * notification types earlier than that, from both the hot and the archive table.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.retention")
+public class RetentionProperties {
+
+    private int hotMonths = 6;
+
+    private int archiveMonths = 24;
+
+    // Empty partitions kept ready ahead of the current month
+    private int futureMonths = 3;
+
+    private int deleteBatchSize = 5000;
+
+    private Map<String, Duration> notificationTypes = new LinkedHashMap<>();
+
+    /** First instant still kept in the hot tables; hot queries bound created_at by it. */
+    public LocalDateTime hotWindowStart(LocalDate today) {
+        return today.withDayOfMonth(1).minusMonths(hotMonths).atStartOfDay();
+    }
+}
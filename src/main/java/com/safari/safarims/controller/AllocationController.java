@@ -3,14 +3,20 @@ package com.safari.safarims.controller;
 import com.safari.safarims.dto.allocation.AllocationRequest;
 import com.safari.safarims.dto.allocation.AllocationResponse;
 import com.safari.safarims.service.AllocationService;
+import com.safari.safarims.common.enums.ExportFormat;
+import com.safari.safarims.service.ExportService;
+import com.safari.safarims.common.idempotency.Idempotent;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -22,10 +28,12 @@ import java.util.List;
 public class AllocationController {
 
     private final AllocationService allocationService;
+    private final ExportService exportService;
 
     @PostMapping
     @Operation(summary = "Create allocation", description = "Allocate driver, guide, and jeep to a booking")
     @PreAuthorize("hasRole('TOUR_CREW_MANAGER') or hasRole('ADMIN')")
+    @Idempotent
     public ResponseEntity<AllocationResponse> createAllocation(@Valid @RequestBody AllocationRequest request) {
         try {
             AllocationResponse allocation = allocationService.createAllocation(request);
@@ -114,4 +122,14 @@ public class AllocationController {
         List<AllocationResponse> allocations = allocationService.getAllocationsByJeep(jeepId);
         return ResponseEntity.ok(allocations);
     }
+
+    @GetMapping("/export")
+    @Operation(summary = "Export allocations", description = "Stream all allocations as NDJSON or CSV (Staff only)")
+    @PreAuthorize("hasRole('TOUR_CREW_MANAGER') or hasRole('BOOKING_OFFICER') or hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportAllocations(@RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(format.getContentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"allocations." + format.getExtension() + "\"")
+            .body(exportService.exportAllocations(format));
+    }
 }
@@ -4,14 +4,20 @@ import com.safari.safarims.dto.booking.BookingRequest;
 import com.safari.safarims.dto.booking.BookingResponse;
 import com.safari.safarims.common.enums.BookingStatus;
 import com.safari.safarims.service.BookingService;
+import com.safari.safarims.common.enums.ExportFormat;
+import com.safari.safarims.service.ExportService;
+import com.safari.safarims.common.idempotency.Idempotent;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -23,10 +29,12 @@ import java.util.List;
 public class BookingController {
 
     private final BookingService bookingService;
+    private final ExportService exportService;
 
     @PostMapping
     @Operation(summary = "Create booking", description = "Create a new booking request (Tourist only)")
     @PreAuthorize("hasRole('TOURIST')")
+    @Idempotent
     public ResponseEntity<BookingResponse> createBooking(@Valid @RequestBody BookingRequest request) {
         try {
             BookingResponse booking = bookingService.createBooking(request);
@@ -138,4 +146,14 @@ public class BookingController {
             return ResponseEntity.badRequest().build();
         }
     }
+
+    @GetMapping("/export")
+    @Operation(summary = "Export bookings", description = "Stream all bookings as NDJSON or CSV (Staff only)")
+    @PreAuthorize("hasRole('BOOKING_OFFICER') or hasRole('TOUR_CREW_MANAGER') or hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportBookings(@RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(format.getContentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"bookings." + format.getExtension() + "\"")
+            .body(exportService.exportBookings(format));
+    }
 }
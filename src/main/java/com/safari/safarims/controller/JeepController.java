@@ -2,17 +2,21 @@ package com.safari.safarims.controller;
 
 import com.safari.safarims.dto.jeep.JeepRequest;
 import com.safari.safarims.dto.jeep.JeepResponse;
+import com.safari.safarims.dto.jeep.MaintenancePlanResponse;
 import com.safari.safarims.common.enums.JeepStatus;
 import com.safari.safarims.service.JeepService;
+import com.safari.safarims.service.MaintenancePlannerService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -23,6 +27,7 @@ import java.util.List;
 public class JeepController {
 
     private final JeepService jeepService;
+    private final MaintenancePlannerService maintenancePlannerService;
 
     @GetMapping
     @Operation(summary = "Get all jeeps", description = "Retrieve all jeeps in the system")
@@ -40,6 +45,22 @@ public class JeepController {
         return ResponseEntity.ok(jeeps);
     }
 
+    @GetMapping("/availability")
+    @Operation(summary = "Get jeeps free for a date range",
+        description = "Jeeps with at least the given capacity that have no allocation or maintenance on any day of the range")
+    @PreAuthorize("hasRole('TOUR_CREW_MANAGER') or hasRole('BOOKING_OFFICER') or hasRole('ADMIN')")
+    public ResponseEntity<List<JeepResponse>> getAvailability(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "1") int minCapacity) {
+        try {
+            return ResponseEntity.ok(jeepService.getAvailableJeeps(from, to, minCapacity));
+        } catch (Exception e) {
+            log.error("Error checking jeep availability {} to {}: {}", from, to, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get jeep by ID", description = "Retrieve specific jeep details")
     public ResponseEntity<JeepResponse> getJeepById(@PathVariable Long id) {
@@ -125,4 +146,28 @@ public class JeepController {
         List<JeepResponse> jeeps = jeepService.getJeepsByDriver(driverId);
         return ResponseEntity.ok(jeeps);
     }
+
+    @PostMapping("/{id}/mileage")
+    @Operation(summary = "Record mileage", description = "Record an odometer reading and re-plan the jeep's next service")
+    @PreAuthorize("hasRole('DRIVER') or hasRole('MAINTENANCE_OFFICER') or hasRole('ADMIN')")
+    public ResponseEntity<MaintenancePlanResponse> recordMileage(@PathVariable Long id, @RequestParam double mileage) {
+        try {
+            return ResponseEntity.ok(maintenancePlannerService.recordMileage(id, mileage));
+        } catch (Exception e) {
+            log.error("Error recording mileage for jeep {}: {}", id, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/{id}/maintenance-plan")
+    @Operation(summary = "Re-plan service", description = "Recompute the jeep's next service window")
+    @PreAuthorize("hasRole('MAINTENANCE_OFFICER') or hasRole('ADMIN')")
+    public ResponseEntity<MaintenancePlanResponse> planMaintenance(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(maintenancePlannerService.planJeep(id));
+        } catch (Exception e) {
+            log.error("Error planning maintenance for jeep {}: {}", id, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
 }
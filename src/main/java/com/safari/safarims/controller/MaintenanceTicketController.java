@@ -1,8 +1,10 @@
 package com.safari.safarims.controller;
 
+import com.safari.safarims.dto.ticket.DispatchStateResponse;
 import com.safari.safarims.dto.ticket.MaintenanceTicketRequest;
 import com.safari.safarims.dto.ticket.MaintenanceTicketResponse;
 import com.safari.safarims.common.enums.TicketStatus;
+import com.safari.safarims.service.MaintenanceDispatchService;
 import com.safari.safarims.service.MaintenanceTicketService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -23,6 +25,7 @@ import java.util.List;
 public class MaintenanceTicketController {
 
     private final MaintenanceTicketService ticketService;
+    private final MaintenanceDispatchService dispatchService;
 
     @PostMapping
     @Operation(summary = "Create maintenance ticket", description = "File a new maintenance ticket for a vehicle")
@@ -116,4 +119,23 @@ public class MaintenanceTicketController {
             return ResponseEntity.badRequest().build();
         }
     }
+
+    @PostMapping("/dispatch")
+    @Operation(summary = "Auto-dispatch tickets", description = "Assign queued tickets to the least-loaded mechanic with a matching skill")
+    @PreAuthorize("hasRole('MAINTENANCE_OFFICER') or hasRole('ADMIN')")
+    public ResponseEntity<List<MaintenanceTicketResponse>> dispatchTickets(@RequestParam(defaultValue = "50") int max) {
+        try {
+            return ResponseEntity.ok(dispatchService.dispatchPending(max));
+        } catch (Exception e) {
+            log.error("Error dispatching tickets: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/dispatch-state")
+    @Operation(summary = "Dispatch queue state", description = "Queued tickets in dispatch order and current mechanic loads")
+    @PreAuthorize("hasRole('MAINTENANCE_OFFICER') or hasRole('ADMIN')")
+    public ResponseEntity<DispatchStateResponse> getDispatchState() {
+        return ResponseEntity.ok(dispatchService.getState());
+    }
 }
@@ -0,0 +1,62 @@
+package com.safari.safarims.controller;
+
+import com.safari.safarims.dto.notification.NotificationPageResponse;
+import com.safari.safarims.service.NotificationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/notifications")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Notifications", description = "Current user's notification inbox")
+public class NotificationController {
+
+    private final NotificationService notificationService;
+
+    @GetMapping
+    @Operation(summary = "Get inbox page", description = "Newest notifications first; pass nextCursor back as cursor for the next page")
+    public ResponseEntity<NotificationPageResponse> getInbox(@RequestParam(required = false) String cursor,
+                                                             @RequestParam(defaultValue = "20") int size,
+                                                             @RequestParam(defaultValue = "false") boolean unreadOnly) {
+        try {
+            Long userId = notificationService.currentUserId();
+            return ResponseEntity.ok(notificationService.getInbox(userId, cursor, size, unreadOnly));
+        } catch (Exception e) {
+            log.error("Error fetching notifications: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/unread-count")
+    @Operation(summary = "Get unread count", description = "Number of unread notifications for the current user")
+    public ResponseEntity<Map<String, Long>> getUnreadCount() {
+        Long userId = notificationService.currentUserId();
+        return ResponseEntity.ok(Map.of("unread", notificationService.getUnreadCount(userId)));
+    }
+
+    @PostMapping("/{id}/read")
+    @Operation(summary = "Mark as read", description = "Mark one of the current user's notifications as read")
+    public ResponseEntity<Void> markAsRead(@PathVariable Long id) {
+        try {
+            notificationService.markAsRead(id, notificationService.currentUserId());
+            return ResponseEntity.ok().build();
+        } catch (Exception e) {
+            log.error("Error marking notification {} as read: {}", id, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/read-all")
+    @Operation(summary = "Mark all as read", description = "Mark every unread notification of the current user as read")
+    public ResponseEntity<Map<String, Integer>> markAllAsRead() {
+        int updated = notificationService.markAllAsRead(notificationService.currentUserId());
+        return ResponseEntity.ok(Map.of("updated", updated));
+    }
+}
@@ -1,15 +1,26 @@
 package com.safari.safarims.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.safari.safarims.dto.payment.PaymentRequest;
 import com.safari.safarims.dto.payment.PaymentResponse;
+import com.safari.safarims.dto.payment.PaymentWebhookRequest;
+import com.safari.safarims.gateway.GatewayResult;
+import com.safari.safarims.service.PaymentFinalizationService;
 import com.safari.safarims.service.PaymentService;
+import com.safari.safarims.common.enums.ExportFormat;
+import com.safari.safarims.service.ExportService;
+import com.safari.safarims.common.idempotency.Idempotent;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -21,22 +32,47 @@ import java.util.List;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final ExportService exportService;
+    private final PaymentFinalizationService paymentFinalizationService;
+    private final ObjectMapper objectMapper;
+
+    private static final String SIGNATURE_HEADER = "X-Gateway-Signature";
 
     @PostMapping("/{bookingId}/pay")
-    @Operation(summary = "Process payment", description = "Process payment for a booking (mock implementation)")
+    @Operation(summary = "Process payment", description = "Submit payment for a booking; returns 202 with a PENDING payment that the gateway finalizes asynchronously")
     @PreAuthorize("hasRole('TOURIST') or hasRole('ADMIN')")
+    @Idempotent
     public ResponseEntity<PaymentResponse> processPayment(@PathVariable Long bookingId,
                                                          @RequestBody PaymentRequest request) {
         try {
             request.setBookingId(bookingId);
             PaymentResponse payment = paymentService.processPayment(request);
-            return ResponseEntity.ok(payment);
+            return ResponseEntity.accepted().body(payment);
         } catch (Exception e) {
             log.error("Error processing payment for booking {}: {}", bookingId, e.getMessage());
             return ResponseEntity.badRequest().build();
         }
     }
 
+    @PostMapping("/webhook")
+    @Operation(summary = "Payment gateway webhook", description = "Gateway callback that finalizes a pending payment (HMAC-SHA256 signed)")
+    public ResponseEntity<Void> gatewayWebhook(@RequestHeader(name = SIGNATURE_HEADER, required = false) String signature,
+                                               @RequestBody String payload) {
+        if (!paymentFinalizationService.verifySignature(payload, signature)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        try {
+            PaymentWebhookRequest callback = objectMapper.readValue(payload, PaymentWebhookRequest.class);
+            paymentFinalizationService.finalizePayment(callback.getTxRef(), callback.isApproved()
+                ? GatewayResult.approved(callback.getReference())
+                : GatewayResult.declined(callback.getReference(), callback.getReason()));
+            return ResponseEntity.ok().build();
+        } catch (Exception e) {
+            log.error("Error handling payment webhook: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get payment by ID", description = "Retrieve specific payment details")
     public ResponseEntity<PaymentResponse> getPaymentById(@PathVariable Long id) {
@@ -75,4 +111,14 @@ public class PaymentController {
         List<PaymentResponse> payments = paymentService.getPendingPayments();
         return ResponseEntity.ok(payments);
     }
+
+    @GetMapping("/export")
+    @Operation(summary = "Export payments", description = "Stream all payments as NDJSON or CSV (Booking Officer/Admin)")
+    @PreAuthorize("hasRole('BOOKING_OFFICER') or hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportPayments(@RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(format.getContentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"payments." + format.getExtension() + "\"")
+            .body(exportService.exportPayments(format));
+    }
 }
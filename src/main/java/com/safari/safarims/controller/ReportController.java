@@ -0,0 +1,69 @@
+package com.safari.safarims.controller;
+
+import com.safari.safarims.dto.report.BackfillResponse;
+import com.safari.safarims.dto.report.StatsReportResponse;
+import com.safari.safarims.service.DailyStatsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/v1/reports")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Reports", description = "Booking and payment statistics")
+public class ReportController {
+
+    private final DailyStatsService dailyStatsService;
+
+    @GetMapping("/day")
+    @Operation(summary = "Daily stats", description = "Bookings and payments per package and status created on a day")
+    @PreAuthorize("hasRole('BOOKING_OFFICER') or hasRole('ADMIN')")
+    public ResponseEntity<StatsReportResponse> getDay(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(dailyStatsService.getDay(date));
+    }
+
+    @GetMapping("/week")
+    @Operation(summary = "Weekly stats", description = "Stats for the Monday-to-Sunday week containing the date")
+    @PreAuthorize("hasRole('BOOKING_OFFICER') or hasRole('ADMIN')")
+    public ResponseEntity<StatsReportResponse> getWeek(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(dailyStatsService.getWeek(date));
+    }
+
+    @GetMapping("/season")
+    @Operation(summary = "Season stats", description = "Stats for an inclusive date range")
+    @PreAuthorize("hasRole('BOOKING_OFFICER') or hasRole('ADMIN')")
+    public ResponseEntity<StatsReportResponse> getSeason(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(dailyStatsService.getRange(from, to));
+        } catch (Exception e) {
+            log.error("Error building season report {}..{}: {}", from, to, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/backfill")
+    @Operation(summary = "Rebuild stats", description = "Recompute daily stats from bookings and payments (Admin only)")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BackfillResponse> backfill(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(dailyStatsService.backfill(from, to));
+        } catch (Exception e) {
+            log.error("Error backfilling daily stats: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.safari.safarims.controller;
+
+import com.safari.safarims.dto.tourist.PreferredLanguagesRequest;
+import com.safari.safarims.service.TouristService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/tourists")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Tourists", description = "Tourist profile endpoints")
+public class TouristController {
+
+    private final TouristService touristService;
+
+    @GetMapping("/me/preferred-languages")
+    @Operation(summary = "Get preferred languages", description = "ISO codes of the current tourist's languages, first choice first")
+    @PreAuthorize("hasRole('TOURIST')")
+    public ResponseEntity<List<String>> getPreferredLanguages() {
+        try {
+            return ResponseEntity.ok(touristService.getPreferredLanguages());
+        } catch (Exception e) {
+            log.error("Error fetching preferred languages: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PutMapping("/me/preferred-languages")
+    @Operation(summary = "Rank preferred languages", description = "Replace the current tourist's languages; emails use the first one available")
+    @PreAuthorize("hasRole('TOURIST')")
+    public ResponseEntity<List<String>> updatePreferredLanguages(@Valid @RequestBody PreferredLanguagesRequest request) {
+        try {
+            return ResponseEntity.ok(touristService.updatePreferredLanguages(request.getLanguages()));
+        } catch (Exception e) {
+            log.error("Error updating preferred languages: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
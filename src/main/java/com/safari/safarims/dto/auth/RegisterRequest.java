@@ -6,6 +6,8 @@ import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
 
+import java.util.List;
+
 @Data
 public class RegisterRequest {
 
@@ -29,4 +31,8 @@ public class RegisterRequest {
 
     @Size(max = 20, message = "Phone number cannot exceed 20 characters")
     private String phone;
+
+    // Optional ISO codes, first choice first; emails go out in the first one with templates
+    @Size(max = 10, message = "At most 10 preferred languages")
+    private List<@NotBlank String> preferredLanguages;
 }
@@ -14,6 +14,7 @@ import java.time.LocalTime;
 public class BookingResponse {
 
     private Long id;
+    private String reference;
     private Long touristId;
     private String touristName;
     private Long packageId;
@@ -0,0 +1,40 @@
+package com.safari.safarims.dto.booking;
+
+import com.safari.safarims.common.enums.BookingStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Flat JPQL projection of a booking with its tourist and package columns, used by list endpoints
+ * so they never materialise Booking, Tourist or TourPackage entities.
+ */
+@Getter
+@AllArgsConstructor
+public class BookingRow {
+
+    private Long id;
+    private String reference;
+    private Long touristId;
+    private String touristName;
+    private Long packageId;
+    private String packageName;
+    private Integer packageDays;
+    private Integer packageMaxPeople;
+    private LocalDate requestedDate;
+    private LocalTime requestedTime;
+    private BookingStatus status;
+    private Integer editWindowSeconds;
+    private Integer paymentWindowSeconds;
+    private Integer version;
+    private BigDecimal totalAmount;
+    private String notes;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private String createdBy;
+    private String updatedBy;
+}
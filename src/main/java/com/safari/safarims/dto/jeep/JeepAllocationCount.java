@@ -0,0 +1,12 @@
+package com.safari.safarims.dto.jeep;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class JeepAllocationCount {
+
+    private Long jeepId;
+    private Long activeCount;
+}
@@ -0,0 +1,18 @@
+package com.safari.safarims.dto.jeep;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * An active allocation seen from the jeep's side: the tour start date and the package length.
+ */
+@Getter
+@AllArgsConstructor
+public class JeepBookingSpan {
+
+    private Long jeepId;
+    private LocalDate startDate;
+    private Integer days;
+}
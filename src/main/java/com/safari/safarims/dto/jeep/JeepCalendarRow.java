@@ -0,0 +1,20 @@
+package com.safari.safarims.dto.jeep;
+
+import com.safari.safarims.common.enums.JeepStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * The jeep columns the fleet calendar needs, selected without loading the default driver.
+ */
+@Getter
+@AllArgsConstructor
+public class JeepCalendarRow {
+
+    private Long id;
+    private Integer capacity;
+    private JeepStatus status;
+    private LocalDateTime nextMaintenance;
+}
@@ -15,6 +15,9 @@ public class JeepResponse {
     private String model;
     private Integer capacity;
     private JeepStatus status;
+    private Double currentMileage;
+    private LocalDateTime lastMaintenance;
+    private LocalDateTime nextMaintenance;
 
     private Long defaultDriverId;
     private String defaultDriverName;
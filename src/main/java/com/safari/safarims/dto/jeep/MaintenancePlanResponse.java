@@ -0,0 +1,22 @@
+package com.safari.safarims.dto.jeep;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+public class MaintenancePlanResponse {
+
+    private Long jeepId;
+    private String plateNo;
+
+    private double kmPerDay;
+    private int recentTickets;
+    private LocalDate dueDate;
+
+    private LocalDate scheduledDate;
+    private long bookingsOnScheduledDate;
+    private int servicesOnScheduledDate;
+}
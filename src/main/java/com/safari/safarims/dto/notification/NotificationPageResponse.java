@@ -0,0 +1,17 @@
+package com.safari.safarims.dto.notification;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class NotificationPageResponse {
+
+    private List<NotificationRow> items;
+
+    // Pass back as ?cursor= for the next (older) page; null on the last page
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,21 @@
+package com.safari.safarims.dto.notification;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Inbox entry selected straight from notifications, without the recipient User.
+ */
+@Getter
+@AllArgsConstructor
+public class NotificationRow {
+
+    private Long id;
+    private String type;
+    private String title;
+    private String body;
+    private LocalDateTime readAt;
+    private LocalDateTime createdAt;
+}
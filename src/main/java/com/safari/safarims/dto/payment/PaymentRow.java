@@ -0,0 +1,29 @@
+package com.safari.safarims.dto.payment;
+
+import com.safari.safarims.common.enums.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Flat JPQL projection of a payment with its booking's tourist and package names.
+ */
+@Getter
+@AllArgsConstructor
+public class PaymentRow {
+
+    private Long id;
+    private Long bookingId;
+    private String touristName;
+    private String packageName;
+    private BigDecimal amount;
+    private PaymentStatus status;
+    private String method;
+    private String txRef;
+    private LocalDateTime paidAt;
+    private LocalDateTime expiresAt;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
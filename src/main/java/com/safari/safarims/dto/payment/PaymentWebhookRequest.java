@@ -0,0 +1,13 @@
+package com.safari.safarims.dto.payment;
+
+import lombok.Data;
+
+/** Gateway callback body: the outcome of the charge identified by txRef. */
+@Data
+public class PaymentWebhookRequest {
+
+    private String txRef;
+    private boolean approved;
+    private String reference;
+    private String reason;
+}
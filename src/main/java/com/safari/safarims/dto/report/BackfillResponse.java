@@ -0,0 +1,17 @@
+package com.safari.safarims.dto.report;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+public class BackfillResponse {
+
+    private LocalDate from;
+    private LocalDate to;
+    private int chunks;
+    private int failedChunks;
+    private long elapsedMillis;
+}
@@ -0,0 +1,14 @@
+package com.safari.safarims.dto.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+@Getter
+@AllArgsConstructor
+public class DateCount {
+
+    private LocalDate date;
+    private Long count;
+}
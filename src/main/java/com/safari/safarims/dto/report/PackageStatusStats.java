@@ -0,0 +1,23 @@
+package com.safari.safarims.dto.report;
+
+import com.safari.safarims.common.enums.StatsKind;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PackageStatusStats {
+
+    private Long packageId;
+    private String packageName;
+    private StatsKind kind;
+    private String status;
+    private long count;
+    private BigDecimal amount;
+}
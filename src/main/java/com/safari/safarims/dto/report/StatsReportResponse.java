@@ -0,0 +1,16 @@
+package com.safari.safarims.dto.report;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+public class StatsReportResponse {
+
+    private LocalDate from;
+    private LocalDate to;
+    private List<PackageStatusStats> rows;
+}
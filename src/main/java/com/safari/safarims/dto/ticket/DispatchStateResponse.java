@@ -0,0 +1,26 @@
+package com.safari.safarims.dto.ticket;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Set;
+
+@Data
+@Builder
+public class DispatchStateResponse {
+
+    // Unassigned open tickets in dispatch order
+    private List<Long> queuedTicketIds;
+    private List<MechanicLoad> mechanics;
+
+    @Data
+    @Builder
+    public static class MechanicLoad {
+        private Long mechanicId;
+        private String fullName;
+        private Set<String> skills;
+        private boolean available;
+        private int openTickets;
+    }
+}
@@ -0,0 +1,17 @@
+package com.safari.safarims.dto.tourist;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class PreferredLanguagesRequest {
+
+    // ISO codes, first choice first
+    @NotNull(message = "Languages are required")
+    @Size(max = 10, message = "At most 10 preferred languages")
+    private List<@NotBlank String> languages;
+}
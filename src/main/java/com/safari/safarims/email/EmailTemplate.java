@@ -0,0 +1,42 @@
+package com.safari.safarims.email;
+
+import java.util.List;
+
+/**
+ * The emails the system sends. Each declares the variables its resource files may reference, in
+ * the order {@link EmailTemplateEngine#render} takes their values.
+ */
+public enum EmailTemplate {
+
+    OTP("otp", "OTP_TEMPLATE", "purpose", "otp"),
+    BOOKING_CONFIRMATION("booking-confirmation", "BOOKING_CONFIRMATION",
+        "bookingId", "reference", "packageName", "date", "time", "amount"),
+    PAYMENT_REMINDER("payment-reminder", "PAYMENT_REMINDER", "bookingId", "amount"),
+    PAYMENT_EXPIRY("payment-expiry", "PAYMENT_EXPIRY", "bookingId"),
+    /** Several messages to one recipient, merged; {@code items} is their plain text. */
+    DIGEST("digest", "DIGEST", "count", "items");
+
+    private final String resourceName;
+    private final String recordedName;
+    private final List<String> variables;
+
+    EmailTemplate(String resourceName, String recordedName, String... variables) {
+        this.resourceName = resourceName;
+        this.recordedName = recordedName;
+        this.variables = List.of(variables);
+    }
+
+    /** Base name of the files under {@code classpath:email/}, e.g. {@code otp.en.tmpl}. */
+    public String resourceName() {
+        return resourceName;
+    }
+
+    /** Value stored in outbound_emails.template_name. */
+    public String recordedName() {
+        return recordedName;
+    }
+
+    public List<String> variables() {
+        return variables;
+    }
+}
@@ -0,0 +1,171 @@
+package com.safari.safarims.email;
+
+import com.safari.safarims.entity.Language;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Localized email templates, compiled once at startup into {@link RenderPlan}s.
+ *
+ * Each template lives in {@code classpath:email/<name>.<lang>.tmpl} with {@code ## subject},
+ * {@code ## text} and {@code ## html} sections; the html section is placed into
+ * {@code email/layout.html} when it is compiled. A template without a translation for the
+ * requested language falls back to the default language, which every template must have.
+ * Rendering reuses one StringBuilder per thread, so a burst of reminders allocates little beyond
+ * the three result strings.
+ */
+@Component
+@Slf4j
+public class EmailTemplateEngine {
+
+    private static final int MAX_POOLED_CAPACITY = 64 * 1024;
+
+    private record Compiled(RenderPlan subject, RenderPlan text, RenderPlan html) {
+    }
+
+    private final String defaultLanguage;
+    private final List<String> languages;
+    private final Map<EmailTemplate, Map<String, Compiled>> plans = new EnumMap<>(EmailTemplate.class);
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(2048));
+
+    @Autowired
+    public EmailTemplateEngine(@Value("${app.email.languages:en,es,fr,de}") List<String> languages,
+                               @Value("${app.email.default-language:en}") String defaultLanguage) {
+        this.defaultLanguage = defaultLanguage;
+        this.languages = languages.stream().map(String::trim).map(String::toLowerCase).toList();
+
+        String layout = load("email/layout.html");
+        int compiled = 0;
+        for (EmailTemplate template : EmailTemplate.values()) {
+            Map<String, Compiled> byLanguage = new HashMap<>();
+            for (String language : this.languages) {
+                String resource = "email/" + template.resourceName() + "." + language + ".tmpl";
+                String source = loadOptional(resource);
+                if (source != null) {
+                    byLanguage.put(language, compile(template, source, layout, language, resource));
+                    compiled++;
+                }
+            }
+            if (!byLanguage.containsKey(defaultLanguage)) {
+                throw new IllegalStateException("Email template " + template.resourceName()
+                    + " has no " + defaultLanguage + " version");
+            }
+            plans.put(template, byLanguage);
+        }
+        log.info("Compiled {} email templates for languages {}", compiled, this.languages);
+    }
+
+    /**
+     * Renders {@code template} in {@code language} (an ISO code, or null for the default).
+     * {@code values} follow {@link EmailTemplate#variables()}.
+     */
+    public RenderedEmail render(EmailTemplate template, String language, String... values) {
+        if (values.length != template.variables().size()) {
+            throw new IllegalArgumentException(template + " takes " + template.variables() + ", got "
+                + values.length + " values");
+        }
+        Map<String, Compiled> byLanguage = plans.get(template);
+        Compiled plan = language == null ? null : byLanguage.get(language);
+        if (plan == null) {
+            plan = byLanguage.get(defaultLanguage);
+        }
+
+        StringBuilder buffer = buffers.get();
+        try {
+            return new RenderedEmail(
+                render(buffer, plan.subject(), values, false),
+                render(buffer, plan.text(), values, false),
+                render(buffer, plan.html(), values, true));
+        } finally {
+            if (buffer.capacity() > MAX_POOLED_CAPACITY) {
+                buffers.remove();
+            }
+        }
+    }
+
+    /**
+     * The first of a tourist's preferred languages, in the tourist's own order, that has templates;
+     * else the default language.
+     */
+    public String languageFor(List<Language> preferred) {
+        if (preferred == null) {
+            return defaultLanguage;
+        }
+        return preferred.stream()
+            .filter(Objects::nonNull)
+            .map(Language::getIsoCode)
+            .filter(Objects::nonNull)
+            .map(String::toLowerCase)
+            .filter(languages::contains)
+            .findFirst()
+            .orElse(defaultLanguage);
+    }
+
+    private static String render(StringBuilder buffer, RenderPlan plan, String[] values, boolean html) {
+        buffer.setLength(0);
+        plan.render(buffer, values, html);
+        return buffer.toString();
+    }
+
+    private static Compiled compile(EmailTemplate template, String source, String layout, String language, String origin) {
+        Map<String, String> sections = sections(source, origin);
+        String html = layout.replace("{{lang}}", language).replace("{{content}}", sections.get("html"));
+        return new Compiled(
+            RenderPlan.compile(sections.get("subject").strip(), template.variables(), origin + " (subject)"),
+            RenderPlan.compile(sections.get("text"), template.variables(), origin + " (text)"),
+            RenderPlan.compile(html, template.variables(), origin + " (html)"));
+    }
+
+    private static Map<String, String> sections(String source, String origin) {
+        Map<String, String> sections = new HashMap<>();
+        String current = null;
+        StringBuilder content = new StringBuilder();
+        for (String line : source.split("\r?\n", -1)) {
+            if (line.startsWith("## ")) {
+                if (current != null) {
+                    sections.put(current, content.toString().strip() + "\n");
+                }
+                current = line.substring(3).trim();
+                content.setLength(0);
+            } else if (current != null) {
+                content.append(line).append('\n');
+            }
+        }
+        if (current != null) {
+            sections.put(current, content.toString().strip() + "\n");
+        }
+        for (String required : List.of("subject", "text", "html")) {
+            if (!sections.containsKey(required)) {
+                throw new IllegalStateException("Missing ## " + required + " section in " + origin);
+            }
+        }
+        return sections;
+    }
+
+    private static String load(String resource) {
+        String source = loadOptional(resource);
+        if (source == null) {
+            throw new IllegalStateException("Missing classpath resource " + resource);
+        }
+        return source;
+    }
+
+    private static String loadOptional(String resource) {
+        try (InputStream in = EmailTemplateEngine.class.getClassLoader().getResourceAsStream(resource)) {
+            return in == null ? null : new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read " + resource, e);
+        }
+    }
+}
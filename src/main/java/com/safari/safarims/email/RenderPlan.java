@@ -0,0 +1,78 @@
+package com.safari.safarims.email;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A template parsed once into alternating literal text and variable slots, so rendering is a
+ * straight sequence of appends with no parsing, formatting or regex work per email.
+ */
+final class RenderPlan {
+
+    private final String[] literals;
+    private final int[] slots; // slots[i] follows literals[i]; -1 after the last literal
+
+    private RenderPlan(String[] literals, int[] slots) {
+        this.literals = literals;
+        this.slots = slots;
+    }
+
+    /** Parses {@code {{name}}} placeholders, resolving each name to its index in {@code variables}. */
+    static RenderPlan compile(String source, List<String> variables, String origin) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        int position = 0;
+        int open;
+        while ((open = source.indexOf("{{", position)) >= 0) {
+            int close = source.indexOf("}}", open + 2);
+            if (close < 0) {
+                throw new IllegalStateException("Unclosed {{ in " + origin);
+            }
+            String name = source.substring(open + 2, close).trim();
+            int slot = variables.indexOf(name);
+            if (slot < 0) {
+                throw new IllegalStateException("Unknown variable {{" + name + "}} in " + origin
+                    + "; expected one of " + variables);
+            }
+            literals.add(source.substring(position, open));
+            slots.add(slot);
+            position = close + 2;
+        }
+        literals.add(source.substring(position));
+        slots.add(-1);
+        return new RenderPlan(literals.toArray(String[]::new), slots.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    void render(StringBuilder out, String[] values, boolean escapeHtml) {
+        for (int i = 0; i < literals.length; i++) {
+            out.append(literals[i]);
+            int slot = slots[i];
+            if (slot < 0) {
+                continue;
+            }
+            String value = values[slot];
+            if (value == null) {
+                continue;
+            }
+            if (escapeHtml) {
+                appendEscaped(out, value);
+            } else {
+                out.append(value);
+            }
+        }
+    }
+
+    private static void appendEscaped(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
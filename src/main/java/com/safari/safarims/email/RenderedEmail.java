@@ -0,0 +1,5 @@
+package com.safari.safarims.email;
+
+/** A rendered email: plain-text and HTML alternatives of the same message. */
+public record RenderedEmail(String subject, String text, String html) {
+}
@@ -0,0 +1,257 @@
+package com.safari.safarims.email;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps a few authenticated SMTP connections open and sends queued messages over them in batches,
+ * so a reminder or expiry wave pays the connect, STARTTLS and AUTH handshake once per connection
+ * instead of once per message ({@link JavaMailSenderImpl#send} opens a fresh one every call).
+ *
+ * Each worker thread owns one connection and drains the shared queue in batches. A connection idle
+ * for longer than {@code validate-after-idle-ms} is checked with NOOP before reuse; one that fails
+ * mid-batch is reopened and the message retried once. Connections are recycled after
+ * {@code max-messages-per-connection} messages, since servers cap that, and closed when idle.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SmtpConnectionPool {
+
+    // taken is claimed once, either by the worker about to send or by a caller giving up, so a message
+    // reported as timed out is never sent afterwards.
+    private record Outgoing(MimeMessage message, CompletableFuture<Void> result, AtomicBoolean taken) {
+    }
+
+    private final JavaMailSenderImpl mailSender;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.email.smtp.connections:4}")
+    private int connections;
+
+    @Value("${app.email.smtp.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.email.smtp.max-messages-per-connection:500}")
+    private int maxMessagesPerConnection;
+
+    @Value("${app.email.smtp.validate-after-idle-ms:5000}")
+    private long validateAfterIdleMs;
+
+    @Value("${app.email.smtp.idle-close-ms:60000}")
+    private long idleCloseMs;
+
+    @Value("${app.email.smtp.send-timeout-ms:30000}")
+    private long sendTimeoutMs;
+
+    @Value("${app.email.smtp.queue-capacity:10000}")
+    private int queueCapacity;
+
+    private BlockingQueue<Outgoing> queue;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    private Counter sent;
+    private Counter failed;
+    private Counter opened;
+    private DistributionSummary batches;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        sent = meterRegistry.counter("smtp.messages", "outcome", "sent");
+        failed = meterRegistry.counter("smtp.messages", "outcome", "failed");
+        opened = meterRegistry.counter("smtp.connections.opened");
+        batches = DistributionSummary.builder("smtp.batch.size").register(meterRegistry);
+        meterRegistry.gauge("smtp.queue", queue, BlockingQueue::size);
+
+        running = true;
+        for (int i = 0; i < connections; i++) {
+            Thread worker = new Thread(this::workLoop, "smtp-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    /**
+     * Sends {@code message} over a pooled connection, blocking until the server accepts or refuses it.
+     * Queueing and sending share one {@code send-timeout-ms} deadline. A message still queued at the
+     * deadline is withdrawn; one already on the wire is waited for, so the outcome reported is the real one.
+     */
+    public void send(MimeMessage message) throws MessagingException {
+        message.saveChanges(); // build the MIME structure on the caller's thread, not the worker's
+        Outgoing outgoing = new Outgoing(message, new CompletableFuture<>(), new AtomicBoolean());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        try {
+            if (!queue.offer(outgoing, deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                throw new MessagingException("SMTP queue is full");
+            }
+            try {
+                outgoing.result().get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (outgoing.taken().compareAndSet(false, true)) {
+                    queue.remove(outgoing);
+                    throw new MessagingException("Timed out after " + sendTimeoutMs + " ms waiting for SMTP");
+                }
+                outgoing.result().get(); // in flight; bounded by the transport's own socket timeouts
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted while sending", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof MessagingException cause) {
+                throw cause;
+            }
+            throw new MessagingException(String.valueOf(e.getCause().getMessage()),
+                e.getCause() instanceof Exception cause ? cause : e);
+        }
+    }
+
+    private void workLoop() {
+        Connection connection = new Connection();
+        List<Outgoing> batch = new ArrayList<>(batchSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                Outgoing first = queue.poll(Math.min(1000, idleCloseMs), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    connection.closeIfIdle();
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                batches.record(batch.size());
+                for (Outgoing outgoing : batch) {
+                    if (outgoing.taken().compareAndSet(false, true)) {
+                        deliver(connection, outgoing);
+                    }
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("SMTP worker error: {}", e.getMessage());
+        } finally {
+            batch.forEach(outgoing -> outgoing.result().completeExceptionally(new MessagingException("SMTP worker stopped")));
+            connection.close();
+        }
+    }
+
+    private void deliver(Connection connection, Outgoing outgoing) {
+        try {
+            try {
+                connection.send(outgoing.message());
+            } catch (SendFailedException refused) {
+                throw refused; // the server refused this message; the connection itself is fine
+            } catch (MessagingException | IllegalStateException broken) {
+                log.warn("SMTP connection failed ({}), reconnecting", broken.getMessage());
+                connection.close();
+                connection.send(outgoing.message());
+            }
+            sent.increment();
+            outgoing.result().complete(null);
+        } catch (Exception e) {
+            connection.closeIfBroken();
+            failed.increment();
+            outgoing.result().completeExceptionally(e);
+        }
+    }
+
+    /** One worker's connection; only touched by that worker thread. */
+    private final class Connection {
+
+        private Transport transport;
+        private long lastUsedNanos;
+        private int messages;
+
+        void send(MimeMessage message) throws MessagingException {
+            Transport ready = ready();
+            ready.sendMessage(message, message.getAllRecipients());
+            messages++;
+            lastUsedNanos = System.nanoTime();
+        }
+
+        private Transport ready() throws MessagingException {
+            if (transport != null && (messages >= maxMessagesPerConnection
+                || (idleMillis() > validateAfterIdleMs && !transport.isConnected()))) {
+                close();
+            }
+            if (transport == null) {
+                Session session = mailSender.getSession();
+                String protocol = mailSender.getProtocol() != null ? mailSender.getProtocol()
+                    : session.getProperty("mail.transport.protocol") != null ? session.getProperty("mail.transport.protocol") : "smtp";
+                Transport fresh = session.getTransport(protocol);
+                // As JavaMailSenderImpl does: blank credentials mean no AUTH
+                fresh.connect(mailSender.getHost(), mailSender.getPort(),
+                    StringUtils.hasLength(mailSender.getUsername()) ? mailSender.getUsername() : null,
+                    StringUtils.hasLength(mailSender.getPassword()) ? mailSender.getPassword() : null);
+                transport = fresh;
+                messages = 0;
+                lastUsedNanos = System.nanoTime();
+                opened.increment();
+            }
+            return transport;
+        }
+
+        void closeIfIdle() {
+            if (transport != null && idleMillis() > idleCloseMs) {
+                close();
+            }
+        }
+
+        void closeIfBroken() {
+            if (transport != null && !transport.isConnected()) {
+                close();
+            }
+        }
+
+        void close() {
+            if (transport == null) {
+                return;
+            }
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.debug("Closing SMTP connection: {}", e.getMessage());
+            }
+            transport = null;
+        }
+
+        private long idleMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastUsedNanos);
+        }
+    }
+}
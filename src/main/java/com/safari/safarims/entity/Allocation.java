@@ -39,6 +39,10 @@ public class Allocation extends BaseEntity {
     @Builder.Default
     private AllocationStatus status = AllocationStatus.ACTIVE;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Integer version;
+
     @Column(name = "notes", length = 500)
     private String notes;
 }
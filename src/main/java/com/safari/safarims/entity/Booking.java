@@ -7,6 +7,7 @@ import lombok.*;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 @Entity
@@ -22,6 +23,10 @@ public class Booking extends BaseEntity {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Human-facing booking reference; time-ordered, see IdGenerator
+    @Column(name = "reference", length = 20)
+    private String reference;
+
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "tourist_id", nullable = false)
     private Tourist tourist;
@@ -49,6 +54,7 @@ public class Booking extends BaseEntity {
     @Builder.Default
     private Integer paymentWindowSeconds = 20;
 
+    @Version
     @Column(name = "version", nullable = false)
     @Builder.Default
     private Integer version = 1;
@@ -58,4 +64,12 @@ public class Booking extends BaseEntity {
 
     @Column(name = "notes", length = 1000)
     private String notes;
+
+    // Escalation tiers already notified while waiting in FORWARDED_TO_CREW; reset on every (re)forward
+    @Column(name = "escalation_level", nullable = false)
+    @Builder.Default
+    private Integer escalationLevel = 0;
+
+    @Column(name = "escalated_at")
+    private LocalDateTime escalatedAt;
 }
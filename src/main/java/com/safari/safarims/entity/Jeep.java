@@ -50,6 +50,13 @@ public class Jeep {
     @Column(name = "next_maintenance")
     private LocalDateTime nextMaintenance;
 
+    @Column(name = "last_service_mileage")
+    private Double lastServiceMileage;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Integer version;
+
     @Column(name = "created_by")
     private String createdBy;
 
@@ -33,6 +33,10 @@ public class Payment extends BaseEntity {
     @Builder.Default
     private PaymentStatus status = PaymentStatus.PENDING;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Integer version;
+
     @Column(name = "method", length = 50)
     @Builder.Default
     private String method = "MOCK_PAYMENT";
@@ -45,4 +49,18 @@ public class Payment extends BaseEntity {
 
     @Column(name = "expires_at")
     private LocalDateTime expiresAt;
+
+    // Set when the reminder job claims this payment; guarantees a single reminder
+    @Column(name = "reminded_at")
+    private LocalDateTime remindedAt;
+
+    // Set when the charge is handed to the gateway; the outcome arrives later via callback or webhook
+    @Column(name = "submitted_at")
+    private LocalDateTime submittedAt;
+
+    @Column(name = "gateway_ref", length = 100)
+    private String gatewayRef;
+
+    @Column(name = "failure_reason", length = 255)
+    private String failureReason;
 }
@@ -7,7 +7,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
-import java.util.Set;
+import java.util.List;
 
 @Entity
 @Table(name = "tourists")
@@ -40,14 +40,15 @@ public class Tourist {
     @Column(name = "dietary_preferences")
     private String dietaryPreferences;
 
-    // New relationship for preferred languages
+    // New relationship for preferred languages, first choice first (written by TouristService)
     @ManyToMany(fetch = FetchType.EAGER)
     @JoinTable(
         name = "tourist_preferred_languages",
         joinColumns = @JoinColumn(name = "tourist_id"),
         inverseJoinColumns = @JoinColumn(name = "language_id")
     )
-    private Set<Language> preferredLanguages;
+    @OrderColumn(name = "priority")
+    private List<Language> preferredLanguages;
 
     @Column(name = "created_at")
     private LocalDateTime createdAt;
@@ -0,0 +1,47 @@
+package com.safari.safarims.event;
+
+import com.safari.safarims.common.enums.TicketSeverity;
+import com.safari.safarims.common.enums.TicketStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * State changes published through {@link DomainEventBus}. Events carry ids and the few values their
+ * consumers need, captured while the entities are still attached, so a consumer never has to touch
+ * a lazy association after the publishing transaction has closed.
+ */
+public sealed interface DomainEvent {
+
+    record BookingRequested(Long bookingId, String touristName) implements DomainEvent {
+    }
+
+    record BookingForwarded(Long bookingId) implements DomainEvent {
+    }
+
+    /** Driver and guide are optional on an allocation, so their user ids may be null. */
+    record AllocationCreated(Long bookingId, Long driverUserId, Long guideUserId) implements DomainEvent {
+    }
+
+    record PaymentSucceeded(Long bookingId, Long touristUserId, String touristEmail, String language,
+                            String reference, String packageName, LocalDate requestedDate,
+                            LocalTime requestedTime, BigDecimal amount) implements DomainEvent {
+    }
+
+    record PaymentFailed(Long bookingId, Long touristUserId) implements DomainEvent {
+    }
+
+    record PaymentExpired(Long bookingId, Long touristUserId, String touristEmail, String language) implements DomainEvent {
+    }
+
+    record TicketFiled(Long ticketId, TicketSeverity severity, String plateNo) implements DomainEvent {
+    }
+
+    record TicketAssigned(Long ticketId, Long mechanicUserId) implements DomainEvent {
+    }
+
+    /** mechanicUserId is null while the ticket is unassigned. */
+    record TicketStatusChanged(Long ticketId, TicketStatus status, Long mechanicUserId) implements DomainEvent {
+    }
+}
@@ -0,0 +1,149 @@
+package com.safari.safarims.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * In-process domain event bus. Services {@link #publish} inside their write transaction; each event
+ * reaches the ring only once that transaction commits, so a rolled-back (or retried) attempt never
+ * notifies anyone. A small fixed pool of worker threads drains the ring in batches and passes each
+ * batch to every {@link DomainEventSubscriber}.
+ *
+ * When the ring is full the committing thread runs the subscribers itself rather than dropping
+ * the events; {@code domain.events{outcome=inline}} counts how often that happens.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DomainEventBus {
+
+    private final List<DomainEventSubscriber> subscribers;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.events.capacity:4096}")
+    private int capacity;
+
+    @Value("${app.events.batch-size:64}")
+    private int batchSize;
+
+    @Value("${app.events.workers:2}")
+    private int workerCount;
+
+    @Value("${app.events.idle-wait-ms:5}")
+    private long idleWaitMs;
+
+    private EventRing<DomainEvent> ring;
+    private TransactionTemplate outsideTransaction;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    private Counter published;
+    private Counter inline;
+    private Counter delivered;
+    private Counter failed;
+
+    @PostConstruct
+    public void start() {
+        ring = new EventRing<>(capacity);
+
+        // afterCommit still has the finished transaction bound; suspend it so subscribers start clean.
+        outsideTransaction = new TransactionTemplate(transactionManager);
+        outsideTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_NOT_SUPPORTED);
+
+        published = meterRegistry.counter("domain.events", "outcome", "published");
+        inline = meterRegistry.counter("domain.events", "outcome", "inline");
+        delivered = meterRegistry.counter("domain.events", "outcome", "delivered");
+        failed = meterRegistry.counter("domain.events", "outcome", "failed");
+        meterRegistry.gauge("domain.events.backlog", ring, EventRing::size);
+
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = new Thread(this::drainLoop, "domain-events-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        log.info("Domain event bus started: {} slots, {} workers, {} subscribers",
+            ring.capacity(), workerCount, subscribers.size());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (Thread worker : workers) {
+            LockSupport.unpark(worker);
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    /** Delivered after the current transaction commits, or straight away when none is active. */
+    public void publish(DomainEvent event) {
+        published.increment();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(event);
+            return;
+        }
+        // Synchronizations follow transaction suspension, so an event published inside a
+        // REQUIRES_NEW block waits for that inner commit, not the outer one.
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(event);
+            }
+        });
+    }
+
+    private void enqueue(DomainEvent event) {
+        if (!ring.offer(event)) {
+            inline.increment();
+            outsideTransaction.executeWithoutResult(status -> deliver(List.of(event)));
+        }
+    }
+
+    private void drainLoop() {
+        List<DomainEvent> batch = new ArrayList<>(batchSize);
+        while (running || ring.size() > 0) {
+            try {
+                if (ring.drainTo(batch, batchSize) == 0) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(idleWaitMs));
+                    continue;
+                }
+                deliver(batch);
+            } catch (Exception e) {
+                log.error("Domain event worker error: {}", e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void deliver(List<DomainEvent> batch) {
+        for (DomainEventSubscriber subscriber : subscribers) {
+            try {
+                subscriber.onEvents(batch);
+                delivered.increment(batch.size());
+            } catch (Exception e) {
+                failed.increment(batch.size());
+                log.error("{} failed on a batch of {} events: {}",
+                    subscriber.getClass().getSimpleName(), batch.size(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.safari.safarims.event;
+
+import java.util.List;
+
+/**
+ * Consumer side of {@link DomainEventBus}. Called off the request thread, after the publishing
+ * transaction committed, with a batch of events in publish order per worker. Implementations
+ * open their own transactions and must not let one bad event fail the rest of the batch.
+ */
+public interface DomainEventSubscriber {
+
+    void onEvents(List<DomainEvent> batch);
+}
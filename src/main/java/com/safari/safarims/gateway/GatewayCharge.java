@@ -0,0 +1,16 @@
+package com.safari.safarims.gateway;
+
+import java.math.BigDecimal;
+
+/**
+ * What the gateway needs to charge a card. Card fields only ever live in memory for the duration
+ * of the call; they are never written to the payments table.
+ */
+public record GatewayCharge(String txRef, BigDecimal amount, String cardNumber, String cardHolderName,
+                            String expiryMonth, String expiryYear, String cvv) {
+
+    @Override
+    public String toString() {
+        return "GatewayCharge[txRef=" + txRef + ", amount=" + amount + "]";
+    }
+}
@@ -0,0 +1,13 @@
+package com.safari.safarims.gateway;
+
+/** Outcome of a gateway call. reference is the provider's id; reason explains a decline or error. */
+public record GatewayResult(boolean approved, String reference, String reason) {
+
+    public static GatewayResult approved(String reference) {
+        return new GatewayResult(true, reference, null);
+    }
+
+    public static GatewayResult declined(String reference, String reason) {
+        return new GatewayResult(false, reference, reason);
+    }
+}
@@ -0,0 +1,27 @@
+package com.safari.safarims.gateway;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Card payment provider SPI. All calls are non-blocking: they return as soon as the request is on
+ * its way, and no caller may hold a database transaction while waiting on the future. A card
+ * decline completes normally with {@link GatewayResult#approved()} false; only transport or
+ * provider failures complete exceptionally.
+ */
+public interface PaymentGateway {
+
+    /** Reserves the charge amount on the card. */
+    CompletableFuture<GatewayResult> authorize(GatewayCharge charge);
+
+    /** Settles an approved authorization, identified by the reference authorize returned. */
+    CompletableFuture<GatewayResult> capture(String authorizationRef, BigDecimal amount);
+
+    /**
+     * Looks up what became of the charge submitted under {@code txRef}, for when the authorize or
+     * capture response never arrived. Completes with the final outcome, or empty when the provider has
+     * no record of the charge. An authorization that was never captured is voided and reported declined.
+     */
+    CompletableFuture<Optional<GatewayResult>> status(String txRef);
+}
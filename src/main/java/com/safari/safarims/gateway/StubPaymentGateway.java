@@ -0,0 +1,145 @@
+package com.safari.safarims.gateway;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Local stand-in for a card provider, for development and load tests. Each call completes after
+ * a configurable latency on a single timer thread, so thousands of in-flight payments cost no
+ * threads and no database connections. Failure injection: decline-rate declines card-less charges
+ * and error-rate loses the response after the stub has acted on the call, so only {@link #status}
+ * tells the caller what happened. Cards keep the old mock rule: an odd last digit declines.
+ */
+@Component
+@ConditionalOnProperty(name = "app.payments.gateway", havingValue = "stub", matchIfMissing = true)
+@Slf4j
+public class StubPaymentGateway implements PaymentGateway {
+
+    @Value("${app.payments.stub.latency-ms:150}")
+    private long latencyMs;
+
+    @Value("${app.payments.stub.latency-jitter-ms:100}")
+    private long latencyJitterMs;
+
+    @Value("${app.payments.stub.decline-rate:0.2}")
+    private double declineRate;
+
+    @Value("${app.payments.stub.error-rate:0.0}")
+    private double errorRate;
+
+    private ScheduledExecutorService timer;
+
+    // Long enough for any reconciliation to ask; keeps a long load test from filling the heap
+    private static final long FORGET_AFTER_MINUTES = 60;
+
+    // What the stub has done, by txRef, so status() can answer after a lost response
+    private final Map<String, GatewayResult> settled = new ConcurrentHashMap<>();
+    // Approved authorizations awaiting capture: authorization reference -> txRef
+    private final Map<String, String> uncaptured = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void start() {
+        timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stub-gateway");
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("Stub payment gateway active: {}ms (+{}ms jitter), decline rate {}, error rate {}",
+            latencyMs, latencyJitterMs, declineRate, errorRate);
+    }
+
+    @PreDestroy
+    public void stop() {
+        timer.shutdownNow();
+    }
+
+    @Override
+    public CompletableFuture<GatewayResult> authorize(GatewayCharge charge) {
+        return respond(() -> {
+            GatewayResult result = decide(charge);
+            if (result.approved()) {
+                uncaptured.put(result.reference(), charge.txRef());
+                timer.schedule(() -> uncaptured.remove(result.reference()), FORGET_AFTER_MINUTES, TimeUnit.MINUTES);
+            } else {
+                settle(charge.txRef(), result);
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public CompletableFuture<GatewayResult> capture(String authorizationRef, BigDecimal amount) {
+        return respond(() -> {
+            GatewayResult result = GatewayResult.approved(authorizationRef.replaceFirst("^AUTH-", "CAP-"));
+            String txRef = uncaptured.remove(authorizationRef);
+            if (txRef != null) {
+                settle(txRef, result);
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Optional<GatewayResult>> status(String txRef) {
+        return respond(() -> {
+            GatewayResult result = settled.get(txRef);
+            if (result == null) {
+                for (Map.Entry<String, String> authorization : uncaptured.entrySet()) {
+                    if (authorization.getValue().equals(txRef) && uncaptured.remove(authorization.getKey(), txRef)) {
+                        result = GatewayResult.declined(authorization.getKey(), "Authorization voided");
+                        settle(txRef, result);
+                    }
+                }
+            }
+            return Optional.ofNullable(result);
+        });
+    }
+
+    private void settle(String txRef, GatewayResult result) {
+        settled.put(txRef, result);
+        timer.schedule(() -> settled.remove(txRef), FORGET_AFTER_MINUTES, TimeUnit.MINUTES);
+    }
+
+    private GatewayResult decide(GatewayCharge charge) {
+        String reference = "AUTH-" + UUID.randomUUID();
+        if (charge.cardNumber() != null && !charge.cardNumber().isEmpty()) {
+            int lastDigit = Character.digit(charge.cardNumber().charAt(charge.cardNumber().length() - 1), 10);
+            return lastDigit >= 0 && lastDigit % 2 == 0
+                ? GatewayResult.approved(reference)
+                : GatewayResult.declined(reference, "Card declined");
+        }
+        return ThreadLocalRandom.current().nextDouble() < declineRate
+            ? GatewayResult.declined(reference, "Insufficient funds")
+            : GatewayResult.approved(reference);
+    }
+
+    private <T> CompletableFuture<T> respond(Supplier<T> outcome) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        long delay = latencyMs + (latencyJitterMs > 0 ? ThreadLocalRandom.current().nextLong(latencyJitterMs + 1) : 0);
+        timer.schedule(() -> {
+            T result = outcome.get(); // the provider acts on the call whether or not the response arrives
+            if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+                future.completeExceptionally(new IllegalStateException("Stub gateway unavailable"));
+            } else {
+                future.complete(result);
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+        return future;
+    }
+}
@@ -0,0 +1,89 @@
+package com.safari.safarims.listener;
+
+import com.safari.safarims.entity.Allocation;
+import com.safari.safarims.entity.Booking;
+import com.safari.safarims.entity.Payment;
+import com.safari.safarims.service.AuditLogWriter;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Captures committed booking, allocation and payment changes for the audit trail. Registered for
+ * Hibernate's post-commit events, so rolled-back writes are never audited, and
+ * {@link #requiresPostCommitHandling} keeps every other entity off the post-commit path entirely.
+ *
+ * Per change the request thread only copies the state arrays and enqueues; diffing and JSON
+ * serialisation happen on the {@link AuditLogWriter} thread.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuditEventListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+    PostCommitDeleteEventListener {
+
+    private static final Set<Class<?>> AUDITED = Set.of(Booking.class, Allocation.class, Payment.class);
+
+    private final AuditLogWriter auditLogWriter;
+
+    @Value("${app.audit.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        enqueue(event.getPersister(), event.getId(), "CREATE", null, event.getState());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        enqueue(event.getPersister(), event.getId(), "UPDATE", event.getOldState(), event.getState());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        enqueue(event.getPersister(), event.getId(), "DELETE", event.getDeletedState(), null);
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return enabled && AUDITED.contains(persister.getMappedClass());
+    }
+
+    private void enqueue(EntityPersister persister, Object id, String action, Object[] before, Object[] after) {
+        if (!requiresPostCommitHandling(persister)) {
+            return;
+        }
+        auditLogWriter.enqueue(new AuditLogWriter.AuditEvent(
+            persister.getMappedClass().getSimpleName(), id, action, persister.getPropertyNames(),
+            before != null ? before.clone() : null, after != null ? after.clone() : null,
+            currentActor(), LocalDateTime.now()));
+    }
+
+    private static String currentActor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+}
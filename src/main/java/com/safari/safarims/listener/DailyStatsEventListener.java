@@ -0,0 +1,134 @@
+package com.safari.safarims.listener;
+
+import com.safari.safarims.common.enums.StatsKind;
+import com.safari.safarims.entity.Booking;
+import com.safari.safarims.entity.Payment;
+import com.safari.safarims.entity.TourPackage;
+import com.safari.safarims.repository.DailyStatsRepository;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Keeps daily_stats in step with booking and payment state. Every insert, status/amount/package
+ * change and delete moves one unit from the old (day, package, status) bucket to the new one, on the
+ * same connection and transaction as the entity write.
+ *
+ * Writes that bypass Hibernate (bulk JPQL/SQL updates) are not seen here; the backfill job
+ * reconciles those.
+ */
+@Component
+@RequiredArgsConstructor
+public class DailyStatsEventListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private final DailyStatsRepository dailyStatsRepository;
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        apply(bucketOf(event.getEntity()), 1);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        Object[] oldState = event.getOldState();
+        if (oldState == null) {
+            // Detached merge without a loaded snapshot; nothing to diff against.
+            return;
+        }
+        Bucket before = bucketOf(event.getEntity(), event.getPersister(), oldState);
+        Bucket after = bucketOf(event.getEntity());
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        apply(before, -1);
+        apply(after, 1);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        apply(bucketOf(event.getEntity(), event.getPersister(), event.getDeletedState()), -1);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void apply(Bucket bucket, int sign) {
+        if (bucket == null || bucket.createdAt() == null) {
+            return;
+        }
+        BigDecimal amount = bucket.amount() != null ? bucket.amount() : BigDecimal.ZERO;
+        dailyStatsRepository.applyDelta(bucket.createdAt().toLocalDate(), bucket.packageId(), bucket.bookingId(),
+            bucket.kind(), bucket.status(), sign, sign < 0 ? amount.negate() : amount);
+    }
+
+    private Bucket bucketOf(Object entity) {
+        if (entity instanceof Booking booking) {
+            return new Bucket(StatsKind.BOOKING, booking.getCreatedAt(), booking.getTourPackage().getId(), null,
+                booking.getStatus().name(), booking.getTotalAmount());
+        }
+        if (entity instanceof Payment payment) {
+            // Only the booking id is read, so a lazy booking proxy is never initialised mid-flush.
+            return new Bucket(StatsKind.PAYMENT, payment.getCreatedAt(), null, payment.getBooking().getId(),
+                payment.getStatus().name(), payment.getAmount());
+        }
+        return null;
+    }
+
+    private Bucket bucketOf(Object entity, EntityPersister persister, Object[] state) {
+        if (entity instanceof Booking booking) {
+            TourPackage tourPackage = (TourPackage) state(persister, state, "tourPackage");
+            return new Bucket(StatsKind.BOOKING, (LocalDateTime) state(persister, state, "createdAt"),
+                tourPackage != null ? tourPackage.getId() : booking.getTourPackage().getId(), null,
+                Objects.toString(state(persister, state, "status"), null),
+                (BigDecimal) state(persister, state, "totalAmount"));
+        }
+        if (entity instanceof Payment payment) {
+            return new Bucket(StatsKind.PAYMENT, (LocalDateTime) state(persister, state, "createdAt"),
+                null, payment.getBooking().getId(),
+                Objects.toString(state(persister, state, "status"), null),
+                (BigDecimal) state(persister, state, "amount"));
+        }
+        return null;
+    }
+
+    private static Object state(EntityPersister persister, Object[] state, String property) {
+        int index = Arrays.asList(persister.getPropertyNames()).indexOf(property);
+        return index >= 0 ? state[index] : null;
+    }
+
+    private record Bucket(StatsKind kind, LocalDateTime createdAt, Long packageId, Long bookingId,
+                          String status, BigDecimal amount) {
+
+        // Buckets are equal when the counters they feed are equal, so amounts compare by value.
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Bucket other
+                && kind == other.kind
+                && Objects.equals(createdAt != null ? createdAt.toLocalDate() : null,
+                                  other.createdAt != null ? other.createdAt.toLocalDate() : null)
+                && Objects.equals(packageId, other.packageId)
+                && Objects.equals(bookingId, other.bookingId)
+                && Objects.equals(status, other.status)
+                && (amount == null ? other.amount == null : other.amount != null && amount.compareTo(other.amount) == 0);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, createdAt != null ? createdAt.toLocalDate() : null, packageId, bookingId, status);
+        }
+    }
+}
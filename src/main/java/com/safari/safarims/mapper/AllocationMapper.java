@@ -0,0 +1,54 @@
+package com.safari.safarims.mapper;
+
+import com.safari.safarims.dto.allocation.AllocationResponse;
+import com.safari.safarims.dto.allocation.AllocationRow;
+import com.safari.safarims.entity.Allocation;
+import com.safari.safarims.entity.Booking;
+import com.safari.safarims.entity.Driver;
+import com.safari.safarims.entity.Guide;
+import com.safari.safarims.entity.Jeep;
+import com.safari.safarims.entity.TourPackage;
+import com.safari.safarims.entity.Tourist;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface AllocationMapper {
+
+    default AllocationResponse toResponse(Allocation allocation) {
+        if (allocation == null) {
+            return null;
+        }
+        Booking booking = allocation.getBooking();
+        return toResponse(allocation, booking, booking.getTourist(), booking.getTourPackage(),
+            allocation.getDriver(), allocation.getGuide(), allocation.getJeep());
+    }
+
+    @Mapping(target = "id", source = "allocation.id")
+    @Mapping(target = "bookingId", source = "booking.id")
+    @Mapping(target = "touristName", source = "tourist.fullName")
+    @Mapping(target = "packageName", source = "tourPackage.name")
+    @Mapping(target = "requestedDate", source = "booking.requestedDate")
+    @Mapping(target = "requestedTime", source = "booking.requestedTime")
+    @Mapping(target = "driverId", source = "driver.id")
+    @Mapping(target = "driverName", source = "driver.fullName")
+    @Mapping(target = "driverPhone", source = "driver.phone")
+    @Mapping(target = "driverLicense", source = "driver.licenseNo")
+    @Mapping(target = "guideId", source = "guide.id")
+    @Mapping(target = "guideName", source = "guide.fullName")
+    @Mapping(target = "guidePhone", source = "guide.phone")
+    @Mapping(target = "jeepId", source = "jeep.id")
+    @Mapping(target = "jeepPlateNo", source = "jeep.plateNo")
+    @Mapping(target = "jeepModel", source = "jeep.model")
+    @Mapping(target = "jeepCapacity", source = "jeep.capacity")
+    @Mapping(target = "status", source = "allocation.status")
+    @Mapping(target = "notes", source = "allocation.notes")
+    @Mapping(target = "createdAt", source = "allocation.createdAt")
+    @Mapping(target = "updatedAt", source = "allocation.updatedAt")
+    @Mapping(target = "createdBy", source = "allocation.createdBy")
+    @Mapping(target = "updatedBy", source = "allocation.updatedBy")
+    AllocationResponse toResponse(Allocation allocation, Booking booking, Tourist tourist, TourPackage tourPackage,
+                                  Driver driver, Guide guide, Jeep jeep);
+
+    AllocationResponse toResponse(AllocationRow row);
+}
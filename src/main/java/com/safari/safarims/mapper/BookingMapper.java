@@ -0,0 +1,67 @@
+package com.safari.safarims.mapper;
+
+import com.safari.safarims.common.enums.BookingStatus;
+import com.safari.safarims.dto.booking.BookingResponse;
+import com.safari.safarims.dto.booking.BookingRow;
+import com.safari.safarims.entity.Booking;
+import com.safari.safarims.entity.TourPackage;
+import com.safari.safarims.entity.Tourist;
+import org.mapstruct.AfterMapping;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+
+import java.time.LocalDateTime;
+
+@Mapper(componentModel = "spring")
+public interface BookingMapper {
+
+    // Each association is dereferenced once here; the generated method null-checks each source once.
+    default BookingResponse toResponse(Booking booking) {
+        if (booking == null) {
+            return null;
+        }
+        return toResponse(booking, booking.getTourist(), booking.getTourPackage());
+    }
+
+    @Mapping(target = "id", source = "booking.id")
+    @Mapping(target = "touristId", source = "tourist.id")
+    @Mapping(target = "touristName", source = "tourist.fullName")
+    @Mapping(target = "packageId", source = "tourPackage.id")
+    @Mapping(target = "packageName", source = "tourPackage.name")
+    @Mapping(target = "packageDays", source = "tourPackage.days")
+    @Mapping(target = "packageMaxPeople", source = "tourPackage.maxPeople")
+    @Mapping(target = "createdAt", source = "booking.createdAt")
+    @Mapping(target = "updatedAt", source = "booking.updatedAt")
+    @Mapping(target = "createdBy", source = "booking.createdBy")
+    @Mapping(target = "updatedBy", source = "booking.updatedBy")
+    @Mapping(target = "canEdit", ignore = true)
+    @Mapping(target = "editWindowExpires", ignore = true)
+    @Mapping(target = "paymentWindowExpires", ignore = true)
+    BookingResponse toResponse(Booking booking, Tourist tourist, TourPackage tourPackage);
+
+    @Mapping(target = "canEdit", ignore = true)
+    @Mapping(target = "editWindowExpires", ignore = true)
+    @Mapping(target = "paymentWindowExpires", ignore = true)
+    BookingResponse toResponse(BookingRow row);
+
+    @AfterMapping
+    default void editWindow(Booking booking, @MappingTarget BookingResponse.BookingResponseBuilder response) {
+        editWindow(booking.getStatus(), booking.getCreatedAt(), booking.getEditWindowSeconds(), response);
+    }
+
+    @AfterMapping
+    default void editWindow(BookingRow row, @MappingTarget BookingResponse.BookingResponseBuilder response) {
+        editWindow(row.getStatus(), row.getCreatedAt(), row.getEditWindowSeconds(), response);
+    }
+
+    private static void editWindow(BookingStatus status, LocalDateTime createdAt, Integer editWindowSeconds,
+                                   BookingResponse.BookingResponseBuilder response) {
+        if (createdAt == null || editWindowSeconds == null) {
+            return;
+        }
+        LocalDateTime expires = createdAt.plusSeconds(editWindowSeconds);
+        response.editWindowExpires(expires);
+        response.canEdit(status == BookingStatus.REQUESTED && LocalDateTime.now().isBefore(expires));
+    }
+}
@@ -0,0 +1,33 @@
+package com.safari.safarims.mapper;
+
+import com.safari.safarims.common.enums.JeepStatus;
+import com.safari.safarims.dto.jeep.JeepResponse;
+import com.safari.safarims.entity.Driver;
+import com.safari.safarims.entity.Jeep;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring", imports = JeepStatus.class)
+public interface JeepMapper {
+
+    default JeepResponse toResponse(Jeep jeep, int activeAllocationsCount) {
+        if (jeep == null) {
+            return null;
+        }
+        return toResponse(jeep, jeep.getDefaultDriver(), activeAllocationsCount);
+    }
+
+    @Mapping(target = "id", source = "jeep.id")
+    @Mapping(target = "status", source = "jeep.status")
+    @Mapping(target = "defaultDriverId", source = "defaultDriver.id")
+    @Mapping(target = "defaultDriverName", source = "defaultDriver.fullName")
+    @Mapping(target = "defaultDriverPhone", source = "defaultDriver.phone")
+    @Mapping(target = "defaultDriverLicense", source = "defaultDriver.licenseNo")
+    @Mapping(target = "createdAt", source = "jeep.createdAt")
+    @Mapping(target = "updatedAt", source = "jeep.updatedAt")
+    @Mapping(target = "createdBy", source = "jeep.createdBy")
+    @Mapping(target = "updatedBy", source = "jeep.updatedBy")
+    @Mapping(target = "isAvailable", expression = "java(jeep.getStatus() == JeepStatus.AVAILABLE)")
+    @Mapping(target = "activeAllocationsCount", source = "activeAllocationsCount")
+    JeepResponse toResponse(Jeep jeep, Driver defaultDriver, int activeAllocationsCount);
+}
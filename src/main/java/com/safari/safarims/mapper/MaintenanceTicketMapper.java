@@ -0,0 +1,38 @@
+package com.safari.safarims.mapper;
+
+import com.safari.safarims.dto.ticket.MaintenanceTicketResponse;
+import com.safari.safarims.entity.Jeep;
+import com.safari.safarims.entity.MaintenanceTicket;
+import com.safari.safarims.entity.Mechanic;
+import com.safari.safarims.entity.User;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface MaintenanceTicketMapper {
+
+    default MaintenanceTicketResponse toResponse(MaintenanceTicket ticket) {
+        if (ticket == null) {
+            return null;
+        }
+        return toResponse(ticket, ticket.getVehicle(), ticket.getFiledByUser(), ticket.getAssigneeMechanic());
+    }
+
+    @Mapping(target = "id", source = "ticket.id")
+    @Mapping(target = "vehicleId", source = "vehicle.id")
+    @Mapping(target = "vehiclePlateNo", source = "vehicle.plateNo")
+    @Mapping(target = "vehicleModel", source = "vehicle.model")
+    @Mapping(target = "filedByUserId", source = "filedByUser.id")
+    @Mapping(target = "filedByUserName", source = "filedByUser.username")
+    @Mapping(target = "filedByRole", source = "filedByUser.role")
+    @Mapping(target = "assigneeMechanicId", source = "assigneeMechanic.id")
+    @Mapping(target = "assigneeMechanicName", source = "assigneeMechanic.fullName")
+    @Mapping(target = "assigneeMechanicPhone", source = "assigneeMechanic.phone")
+    @Mapping(target = "status", source = "ticket.status")
+    @Mapping(target = "description", source = "ticket.description")
+    @Mapping(target = "createdAt", source = "ticket.createdAt")
+    @Mapping(target = "updatedAt", source = "ticket.updatedAt")
+    @Mapping(target = "createdBy", source = "ticket.createdBy")
+    @Mapping(target = "updatedBy", source = "ticket.updatedBy")
+    MaintenanceTicketResponse toResponse(MaintenanceTicket ticket, Jeep vehicle, User filedByUser, Mechanic assigneeMechanic);
+}
@@ -0,0 +1,56 @@
+package com.safari.safarims.mapper;
+
+import com.safari.safarims.common.enums.PaymentStatus;
+import com.safari.safarims.dto.payment.PaymentResponse;
+import com.safari.safarims.dto.payment.PaymentRow;
+import com.safari.safarims.entity.Booking;
+import com.safari.safarims.entity.Payment;
+import com.safari.safarims.entity.TourPackage;
+import com.safari.safarims.entity.Tourist;
+import org.mapstruct.AfterMapping;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+
+import java.time.LocalDateTime;
+
+@Mapper(componentModel = "spring")
+public interface PaymentMapper {
+
+    default PaymentResponse toResponse(Payment payment) {
+        if (payment == null) {
+            return null;
+        }
+        Booking booking = payment.getBooking();
+        return toResponse(payment, booking, booking.getTourist(), booking.getTourPackage());
+    }
+
+    @Mapping(target = "id", source = "payment.id")
+    @Mapping(target = "bookingId", source = "booking.id")
+    @Mapping(target = "touristName", source = "tourist.fullName")
+    @Mapping(target = "packageName", source = "tourPackage.name")
+    @Mapping(target = "status", source = "payment.status")
+    @Mapping(target = "createdAt", source = "payment.createdAt")
+    @Mapping(target = "updatedAt", source = "payment.updatedAt")
+    @Mapping(target = "isExpired", ignore = true)
+    @Mapping(target = "maskedCardNumber", ignore = true)
+    PaymentResponse toResponse(Payment payment, Booking booking, Tourist tourist, TourPackage tourPackage);
+
+    @Mapping(target = "isExpired", ignore = true)
+    @Mapping(target = "maskedCardNumber", ignore = true)
+    PaymentResponse toResponse(PaymentRow row);
+
+    @AfterMapping
+    default void expiry(Payment payment, @MappingTarget PaymentResponse.PaymentResponseBuilder response) {
+        response.isExpired(isExpired(payment.getStatus(), payment.getExpiresAt()));
+    }
+
+    @AfterMapping
+    default void expiry(PaymentRow row, @MappingTarget PaymentResponse.PaymentResponseBuilder response) {
+        response.isExpired(isExpired(row.getStatus(), row.getExpiresAt()));
+    }
+
+    private static boolean isExpired(PaymentStatus status, LocalDateTime expiresAt) {
+        return status == PaymentStatus.PENDING && expiresAt != null && LocalDateTime.now().isAfter(expiresAt);
+    }
+}
@@ -0,0 +1,11 @@
+package com.safari.safarims.mapper;
+
+import com.safari.safarims.dto.tourpackage.TourPackageResponse;
+import com.safari.safarims.entity.TourPackage;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface TourPackageMapper {
+
+    TourPackageResponse toResponse(TourPackage tourPackage);
+}
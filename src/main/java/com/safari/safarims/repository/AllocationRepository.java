@@ -1,14 +1,24 @@
 package com.safari.safarims.repository;
 
+import com.safari.safarims.dto.allocation.AllocationRow;
+import com.safari.safarims.dto.jeep.JeepAllocationCount;
+import com.safari.safarims.dto.jeep.JeepBookingSpan;
 import com.safari.safarims.entity.Allocation;
 import com.safari.safarims.common.enums.AllocationStatus;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface AllocationRepository extends JpaRepository<Allocation, Long> {
@@ -26,4 +36,49 @@ public interface AllocationRepository extends JpaRepository<Allocation, Long> {
 
     @Query("SELECT a FROM Allocation a WHERE a.status = 'ACTIVE' AND a.guide.id = :guideId")
     List<Allocation> findActiveAllocationsByGuideId(@Param("guideId") Long guideId);
+
+    @Query("SELECT new com.safari.safarims.dto.jeep.JeepAllocationCount(a.jeep.id, COUNT(a)) " +
+        "FROM Allocation a WHERE a.status = 'ACTIVE' AND a.jeep.id IN :jeepIds GROUP BY a.jeep.id")
+    List<JeepAllocationCount> countActiveAllocationsByJeepIds(@Param("jeepIds") Collection<Long> jeepIds);
+
+    String JEEP_BOOKING_SPAN = "SELECT new com.safari.safarims.dto.jeep.JeepBookingSpan(j.id, b.requestedDate, p.days) " +
+        "FROM Allocation a JOIN a.jeep j JOIN a.booking b JOIN b.tourPackage p WHERE a.status = 'ACTIVE' ";
+
+    @Query(JEEP_BOOKING_SPAN)
+    List<JeepBookingSpan> findActiveJeepSpans();
+
+    @Query(JEEP_BOOKING_SPAN + "AND j.id = :jeepId")
+    List<JeepBookingSpan> findActiveJeepSpansByJeepId(@Param("jeepId") Long jeepId);
+
+    // Driver, guide and jeep are optional on an allocation, hence the LEFT JOINs.
+    String ALLOCATION_ROW = "SELECT new com.safari.safarims.dto.allocation.AllocationRow(" +
+        "a.id, b.id, t.fullName, p.name, b.requestedDate, b.requestedTime, " +
+        "d.id, d.fullName, d.phone, d.licenseNo, g.id, g.fullName, g.phone, " +
+        "j.id, j.plateNo, j.model, j.capacity, " +
+        "a.status, a.notes, a.createdAt, a.updatedAt, a.createdBy, a.updatedBy) " +
+        "FROM Allocation a JOIN a.booking b JOIN b.tourist t JOIN b.tourPackage p " +
+        "LEFT JOIN a.driver d LEFT JOIN a.guide g LEFT JOIN a.jeep j ";
+
+    @Query(ALLOCATION_ROW)
+    List<AllocationRow> findAllRows();
+
+    @Query(ALLOCATION_ROW + "WHERE a.status = :status")
+    List<AllocationRow> findRowsByStatus(@Param("status") AllocationStatus status);
+
+    @Query(ALLOCATION_ROW + "WHERE d.id = :driverId")
+    List<AllocationRow> findRowsByDriverId(@Param("driverId") Long driverId);
+
+    @Query(ALLOCATION_ROW + "WHERE g.id = :guideId")
+    List<AllocationRow> findRowsByGuideId(@Param("guideId") Long guideId);
+
+    @Query(ALLOCATION_ROW + "WHERE j.id = :jeepId")
+    List<AllocationRow> findRowsByJeepId(@Param("jeepId") Long jeepId);
+
+    // Export cursor: must be consumed inside a read-only transaction and closed by the caller.
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query(ALLOCATION_ROW + "ORDER BY a.id")
+    Stream<AllocationRow> streamAllRows();
 }
@@ -0,0 +1,35 @@
+package com.safari.safarims.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Batch inserts into audit_log for the background audit writer. Plain JDBC so a batch is one
+ * round trip per chunk without going through the persistence context or triggering audit events
+ * of its own.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AuditLogBatchRepository {
+
+    private static final String INSERT = """
+        INSERT INTO audit_log (actor_user_id, entity, entity_id, action, before_json, after_json, created_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Each row holds the INSERT parameters in column order. */
+    public void insertBatch(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate(INSERT, rows);
+    }
+
+    public Optional<Long> findUserIdByUsername(String username) {
+        return jdbcTemplate.queryForList("SELECT id FROM users WHERE username = ?", Long.class, username)
+            .stream().findFirst();
+    }
+}
@@ -0,0 +1,39 @@
+package com.safari.safarims.repository;
+
+import com.safari.safarims.common.enums.BookingStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Escalation sweep. One UPDATE ... OUTPUT both moves the stale bookings of a tier to the next level
+ * and returns exactly the ids it moved, so the digest lists what was escalated and nothing that
+ * changed between a separate read and write. JPQL bulk updates cannot return the affected rows,
+ * hence plain JDBC.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookingEscalationRepository {
+
+    // Must not touch updated_at, which is what staleness is measured from. It does bump version, so
+    // an edit still holding the pre-escalation row conflicts instead of undoing it.
+    private static final String ESCALATE_STALE = """
+        UPDATE bookings
+           SET escalation_level = escalation_level + 1, escalated_at = ?, version = version + 1
+        OUTPUT inserted.id
+         WHERE status = ? AND escalation_level = ? AND updated_at < ?
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Escalates the bookings at {@code level} untouched since {@code threshold}; returns their ids in ascending order. */
+    public List<Long> escalateStale(BookingStatus status, int level, LocalDateTime threshold, LocalDateTime now) {
+        return jdbcTemplate.queryForList(ESCALATE_STALE, Long.class,
+                Timestamp.valueOf(now), status.name(), level, Timestamp.valueOf(threshold))
+            .stream().sorted().toList();
+    }
+}
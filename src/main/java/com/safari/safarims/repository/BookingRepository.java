@@ -1,14 +1,22 @@
 package com.safari.safarims.repository;
 
+import com.safari.safarims.dto.booking.BookingRow;
+import com.safari.safarims.dto.report.DateCount;
 import com.safari.safarims.entity.Booking;
 import com.safari.safarims.common.enums.BookingStatus;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
@@ -21,4 +29,33 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     @Query("SELECT b FROM Booking b WHERE b.tourist.id = :touristId ORDER BY b.createdAt DESC")
     List<Booking> findByTouristIdOrderByCreatedAtDesc(@Param("touristId") Long touristId);
+
+    String BOOKING_ROW = "SELECT new com.safari.safarims.dto.booking.BookingRow(" +
+        "b.id, b.reference, t.id, t.fullName, p.id, p.name, p.days, p.maxPeople, b.requestedDate, b.requestedTime, " +
+        "b.status, b.editWindowSeconds, b.paymentWindowSeconds, b.version, b.totalAmount, b.notes, " +
+        "b.createdAt, b.updatedAt, b.createdBy, b.updatedBy) " +
+        "FROM Booking b JOIN b.tourist t JOIN b.tourPackage p ";
+
+    @Query("SELECT new com.safari.safarims.dto.report.DateCount(b.requestedDate, COUNT(b)) FROM Booking b " +
+        "WHERE b.requestedDate BETWEEN :from AND :to AND b.status NOT IN :excluded GROUP BY b.requestedDate")
+    List<DateCount> countByRequestedDateBetween(@Param("from") LocalDate from,
+                                                @Param("to") LocalDate to,
+                                                @Param("excluded") List<BookingStatus> excluded);
+
+    @Query(BOOKING_ROW + "ORDER BY b.createdAt DESC")
+    List<BookingRow> findAllRows();
+
+    @Query(BOOKING_ROW + "WHERE b.status IN :statuses ORDER BY b.createdAt DESC")
+    List<BookingRow> findRowsByStatusIn(@Param("statuses") List<BookingStatus> statuses);
+
+    @Query(BOOKING_ROW + "WHERE t.id = :touristId ORDER BY b.createdAt DESC")
+    List<BookingRow> findRowsByTouristId(@Param("touristId") Long touristId);
+
+    // Export cursor: must be consumed inside a read-only transaction and closed by the caller.
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query(BOOKING_ROW + "ORDER BY b.id")
+    Stream<BookingRow> streamAllRows();
 }
@@ -0,0 +1,120 @@
+package com.safari.safarims.repository;
+
+import com.safari.safarims.common.enums.StatsKind;
+import com.safari.safarims.dto.report.PackageStatusStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * JDBC access to the daily_stats counters. Plain JDBC rather than JPA because the counters are
+ * bumped from inside a Hibernate flush, where going back through the EntityManager would re-enter it.
+ * JdbcTemplate joins the surrounding JPA transaction's connection, so a bump commits or rolls back
+ * together with the state change that caused it.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DailyStatsRepository {
+
+    // HOLDLOCK serialises concurrent first inserts of the same key instead of failing on the PK.
+    // package_id falls back to the booking's package so payment callers need not load the booking.
+    private static final String APPLY_DELTA = """
+        MERGE daily_stats WITH (HOLDLOCK) AS t
+        USING (SELECT ? AS stat_date,
+                      COALESCE(?, (SELECT package_id FROM bookings WHERE id = ?)) AS package_id,
+                      ? AS kind, ? AS status, ? AS item_delta, ? AS amount_delta) AS s
+           ON t.stat_date = s.stat_date AND t.package_id = s.package_id
+          AND t.kind = s.kind AND t.status = s.status
+        WHEN MATCHED THEN
+            UPDATE SET item_count = t.item_count + s.item_delta, amount = t.amount + s.amount_delta
+        WHEN NOT MATCHED THEN
+            INSERT (stat_date, package_id, kind, status, item_count, amount)
+            VALUES (s.stat_date, s.package_id, s.kind, s.status, s.item_delta, s.amount_delta);
+        """;
+
+    private static final String AGGREGATE = """
+        SELECT ds.package_id, tp.name, ds.kind, ds.status, SUM(ds.item_count) AS item_count, SUM(ds.amount) AS amount
+        FROM daily_stats ds
+        JOIN tour_packages tp ON tp.id = ds.package_id
+        WHERE ds.stat_date BETWEEN ? AND ?
+        GROUP BY ds.package_id, tp.name, ds.kind, ds.status
+        HAVING SUM(ds.item_count) <> 0
+        ORDER BY tp.name, ds.kind, ds.status
+        """;
+
+    private static final String REBUILD_BOOKINGS = """
+        INSERT INTO daily_stats (stat_date, package_id, kind, status, item_count, amount)
+        SELECT CAST(b.created_at AS DATE), b.package_id, 'BOOKING', b.status, COUNT(*), SUM(ISNULL(b.total_amount, 0))
+        FROM bookings b
+        WHERE b.created_at >= ? AND b.created_at < ?
+        GROUP BY CAST(b.created_at AS DATE), b.package_id, b.status
+        """;
+
+    private static final String REBUILD_PAYMENTS = """
+        INSERT INTO daily_stats (stat_date, package_id, kind, status, item_count, amount)
+        SELECT CAST(p.created_at AS DATE), b.package_id, 'PAYMENT', p.status, COUNT(*), SUM(p.amount)
+        FROM payments p
+        JOIN bookings b ON b.id = p.booking_id
+        WHERE p.created_at >= ? AND p.created_at < ?
+        GROUP BY CAST(p.created_at AS DATE), b.package_id, p.status
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void applyDelta(LocalDate statDate, Long packageId, Long bookingId, StatsKind kind, String status,
+                           int itemDelta, BigDecimal amountDelta) {
+        jdbcTemplate.update(APPLY_DELTA, Date.valueOf(statDate), packageId, bookingId,
+            kind.name(), status, itemDelta, amountDelta);
+    }
+
+    public List<PackageStatusStats> aggregate(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(AGGREGATE, (rs, rowNum) -> PackageStatusStats.builder()
+                .packageId(rs.getLong("package_id"))
+                .packageName(rs.getString("name"))
+                .kind(StatsKind.valueOf(rs.getString("kind")))
+                .status(rs.getString("status"))
+                .count(rs.getLong("item_count"))
+                .amount(rs.getBigDecimal("amount"))
+                .build(),
+            Date.valueOf(from), Date.valueOf(to));
+    }
+
+    public Map<String, Long> totalsByStatus(StatsKind kind) {
+        return jdbcTemplate.query(
+                "SELECT status, SUM(item_count) AS item_count FROM daily_stats WHERE kind = ? GROUP BY status",
+                (rs, rowNum) -> Map.entry(rs.getString("status"), rs.getLong("item_count")),
+                kind.name())
+            .stream()
+            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    /** Replaces the counters for {@code [from, toExclusive)} with a fresh aggregate of the source tables. */
+    public void rebuild(LocalDate from, LocalDate toExclusive) {
+        Timestamp start = Timestamp.valueOf(from.atStartOfDay());
+        Timestamp end = Timestamp.valueOf(toExclusive.atStartOfDay());
+        jdbcTemplate.update("DELETE FROM daily_stats WHERE stat_date >= ? AND stat_date < ?",
+            Date.valueOf(from), Date.valueOf(toExclusive));
+        jdbcTemplate.update(REBUILD_BOOKINGS, start, end);
+        jdbcTemplate.update(REBUILD_PAYMENTS, start, end);
+    }
+
+    public Optional<LocalDate> earliestActivity() {
+        Date earliest = jdbcTemplate.queryForObject("""
+            SELECT MIN(d) FROM (
+                SELECT MIN(CAST(created_at AS DATE)) AS d FROM bookings
+                UNION ALL
+                SELECT MIN(CAST(created_at AS DATE)) FROM payments
+            ) x
+            """, Date.class);
+        return Optional.ofNullable(earliest).map(Date::toLocalDate);
+    }
+}
@@ -0,0 +1,67 @@
+package com.safari.safarims.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Durable half of the Idempotency-Key store. The primary key insert is the claim: exactly one
+ * request per key gets to run, across all nodes; everyone else reads the row it leaves behind.
+ */
+@Repository
+@RequiredArgsConstructor
+public class IdempotencyKeyRepository {
+
+    /** statusCode is null while the owning request is still running. */
+    public record StoredKey(byte[] requestHash, Integer statusCode, String responseBody, LocalDateTime createdAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Optional<StoredKey> find(byte[] keyHash) {
+        return jdbcTemplate.query(
+            "SELECT request_hash, status_code, response_body, created_at FROM idempotency_keys WHERE key_hash = ?",
+            (rs, rowNum) -> new StoredKey(rs.getBytes(1), rs.getObject(2, Integer.class),
+                rs.getString(3), rs.getTimestamp(4).toLocalDateTime()),
+            keyHash).stream().findFirst();
+    }
+
+    /** Returns false when another request already holds the key. */
+    public boolean claim(byte[] keyHash, byte[] requestHash, LocalDateTime now, LocalDateTime expiresAt) {
+        try {
+            jdbcTemplate.update(
+                "INSERT INTO idempotency_keys (key_hash, request_hash, created_at, expires_at) VALUES (?, ?, ?, ?)",
+                keyHash, requestHash, Timestamp.valueOf(now), Timestamp.valueOf(expiresAt));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    /** Re-claims a key whose owner has been running since before staleBefore, presumably on a dead node. */
+    public boolean takeOver(byte[] keyHash, LocalDateTime staleBefore, LocalDateTime now) {
+        return jdbcTemplate.update(
+            "UPDATE idempotency_keys SET created_at = ? WHERE key_hash = ? AND status_code IS NULL AND created_at < ?",
+            Timestamp.valueOf(now), keyHash, Timestamp.valueOf(staleBefore)) == 1;
+    }
+
+    public void complete(byte[] keyHash, int statusCode, String responseBody) {
+        jdbcTemplate.update("UPDATE idempotency_keys SET status_code = ?, response_body = ? WHERE key_hash = ?",
+            statusCode, responseBody, keyHash);
+    }
+
+    /** Drops an unfinished claim so the client's next retry runs again. */
+    public void release(byte[] keyHash) {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE key_hash = ? AND status_code IS NULL", keyHash);
+    }
+
+    public int purgeExpired(LocalDateTime now, int limit) {
+        return jdbcTemplate.update("DELETE TOP (?) FROM idempotency_keys WHERE expires_at < ?",
+            limit, Timestamp.valueOf(now));
+    }
+}
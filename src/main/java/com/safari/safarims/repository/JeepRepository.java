@@ -1,10 +1,15 @@
 package com.safari.safarims.repository;
 
+import com.safari.safarims.dto.jeep.JeepCalendarRow;
 import com.safari.safarims.entity.Jeep;
 import com.safari.safarims.common.enums.JeepStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,4 +19,35 @@ public interface JeepRepository extends JpaRepository<Jeep, Long> {
     List<Jeep> findByStatusIn(List<JeepStatus> statuses);
     Optional<Jeep> findByPlateNo(String plateNo);
     List<Jeep> findByDefaultDriverId(Long driverId);
+
+    String CALENDAR_ROW = "SELECT new com.safari.safarims.dto.jeep.JeepCalendarRow(" +
+        "j.id, j.capacity, j.status, j.nextMaintenance) FROM Jeep j ";
+
+    @Query(CALENDAR_ROW)
+    List<JeepCalendarRow> findCalendarRows();
+
+    @Query(CALENDAR_ROW + "WHERE j.id = :jeepId")
+    Optional<JeepCalendarRow> findCalendarRow(@Param("jeepId") Long jeepId);
+
+    @Query("SELECT j.id FROM Jeep j WHERE j.status <> 'OUT_OF_SERVICE' " +
+        "AND (j.nextMaintenance IS NULL OR j.nextMaintenance < :today) ORDER BY j.id")
+    List<Long> findIdsNeedingServicePlan(@Param("today") LocalDateTime today);
+
+    @Query("SELECT j.nextMaintenance FROM Jeep j WHERE j.id <> :jeepId " +
+        "AND j.nextMaintenance >= :from AND j.nextMaintenance < :to")
+    List<LocalDateTime> findOtherServiceDatesBetween(@Param("jeepId") Long jeepId,
+                                                     @Param("from") LocalDateTime from,
+                                                     @Param("to") LocalDateTime to);
+
+    // Compare-and-set claims: the status predicate makes check and write one statement, so two
+    // allocators racing for the same jeep cannot both see AVAILABLE. Callers check the row count.
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Jeep j SET j.status = 'ALLOCATED', j.version = j.version + 1, j.updatedAt = :now " +
+        "WHERE j.id = :jeepId AND j.status = 'AVAILABLE'")
+    int claimAvailable(@Param("jeepId") Long jeepId, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Jeep j SET j.status = 'AVAILABLE', j.version = j.version + 1, j.updatedAt = :now " +
+        "WHERE j.id = :jeepId AND j.status = 'ALLOCATED'")
+    int releaseAllocated(@Param("jeepId") Long jeepId, @Param("now") LocalDateTime now);
 }
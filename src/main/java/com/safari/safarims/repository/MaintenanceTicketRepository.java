@@ -1,13 +1,16 @@
 package com.safari.safarims.repository;
 
 import com.safari.safarims.entity.MaintenanceTicket;
+import com.safari.safarims.entity.Mechanic;
 import com.safari.safarims.common.enums.TicketStatus;
 import com.safari.safarims.common.enums.TicketSeverity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -20,4 +23,17 @@ public interface MaintenanceTicketRepository extends JpaRepository<MaintenanceTi
 
     @Query("SELECT t FROM MaintenanceTicket t WHERE t.status IN :statuses ORDER BY t.severity DESC, t.openedAt ASC")
     List<MaintenanceTicket> findByStatusInOrderBySeverityAndDate(@Param("statuses") List<TicketStatus> statuses);
+
+    @Query("SELECT t.severity FROM MaintenanceTicket t WHERE t.vehicle.id = :vehicleId AND t.openedAt >= :since")
+    List<TicketSeverity> findSeveritiesByVehicleSince(@Param("vehicleId") Long vehicleId,
+                                                      @Param("since") LocalDateTime since);
+
+    // Compare-and-set claim for auto-dispatch: only an OPEN, unassigned ticket is taken, so two
+    // dispatchers (or a dispatcher and a manual assignment) cannot both win. Callers check the row count.
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE MaintenanceTicket t SET t.assigneeMechanic = :mechanic, t.status = 'IN_PROGRESS', " +
+        "t.updatedAt = :now, t.updatedBy = :updatedBy " +
+        "WHERE t.id = :ticketId AND t.status = 'OPEN' AND t.assigneeMechanic IS NULL")
+    int claimOpen(@Param("ticketId") Long ticketId, @Param("mechanic") Mechanic mechanic,
+                  @Param("now") LocalDateTime now, @Param("updatedBy") String updatedBy);
 }
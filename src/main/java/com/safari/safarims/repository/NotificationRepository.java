@@ -1,9 +1,15 @@
 package com.safari.safarims.repository;
 
+import com.safari.safarims.dto.notification.NotificationRow;
 import com.safari.safarims.entity.Notification;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -11,4 +17,39 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     List<Notification> findByUserIdOrderByCreatedAtDesc(Long userId);
     List<Notification> findByUserIdAndReadAtIsNullOrderByCreatedAtDesc(Long userId);
     long countByUserIdAndReadAtIsNull(Long userId);
+
+    // Keyset pages, newest first. The created_at >= :since bound keeps the scan inside the hot
+    // partitions; the (created_at, id) cursor continues strictly after the last row returned.
+    String INBOX_ROW = "SELECT new com.safari.safarims.dto.notification.NotificationRow(" +
+        "n.id, n.type, n.title, n.body, n.readAt, n.createdAt) FROM Notification n " +
+        "WHERE n.user.id = :userId AND n.createdAt >= :since ";
+    String AFTER_CURSOR = "AND (n.createdAt < :cursorAt OR (n.createdAt = :cursorAt AND n.id < :cursorId)) ";
+    String UNREAD = "AND n.readAt IS NULL ";
+    String NEWEST_FIRST = "ORDER BY n.createdAt DESC, n.id DESC";
+
+    @Query(INBOX_ROW + NEWEST_FIRST)
+    List<NotificationRow> findInboxFirstPage(@Param("userId") Long userId, @Param("since") LocalDateTime since,
+                                             Limit limit);
+
+    @Query(INBOX_ROW + AFTER_CURSOR + NEWEST_FIRST)
+    List<NotificationRow> findInboxPageAfter(@Param("userId") Long userId, @Param("since") LocalDateTime since,
+                                             @Param("cursorAt") LocalDateTime cursorAt,
+                                             @Param("cursorId") Long cursorId, Limit limit);
+
+    @Query(INBOX_ROW + UNREAD + NEWEST_FIRST)
+    List<NotificationRow> findUnreadFirstPage(@Param("userId") Long userId, @Param("since") LocalDateTime since,
+                                              Limit limit);
+
+    @Query(INBOX_ROW + UNREAD + AFTER_CURSOR + NEWEST_FIRST)
+    List<NotificationRow> findUnreadPageAfter(@Param("userId") Long userId, @Param("since") LocalDateTime since,
+                                              @Param("cursorAt") LocalDateTime cursorAt,
+                                              @Param("cursorId") Long cursorId, Limit limit);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.readAt = :now WHERE n.user.id = :userId AND n.readAt IS NULL")
+    int markAllAsRead(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.readAt = :now WHERE n.id = :id AND n.user.id = :userId AND n.readAt IS NULL")
+    int markAsRead(@Param("id") Long id, @Param("userId") Long userId, @Param("now") LocalDateTime now);
 }
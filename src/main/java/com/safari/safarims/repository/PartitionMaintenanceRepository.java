@@ -0,0 +1,93 @@
+package com.safari.safarims.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DDL and catalog queries for the pf_monthly / ps_monthly sliding window (see V13). Partition
+ * boundaries are RANGE RIGHT, so boundary {@code i} (1-based) starts partition {@code i + 1}.
+ * Table names only ever come from {@link PartitionedTable}; dates are formatted from LocalDate, so
+ * the DDL strings below are never built from user input.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PartitionMaintenanceRepository {
+
+    public enum PartitionedTable {
+        NOTIFICATIONS("notifications", "notifications_archive"),
+        OUTBOUND_EMAILS("outbound_emails", "outbound_emails_archive");
+
+        private final String hot;
+        private final String archive;
+
+        PartitionedTable(String hot, String archive) {
+            this.hot = hot;
+            this.archive = archive;
+        }
+
+        public String hot() {
+            return hot;
+        }
+
+        public String archive() {
+            return archive;
+        }
+    }
+
+    private static final String BOUNDARIES = """
+        SELECT CAST(prv.value AS DATE)
+          FROM sys.partition_range_values prv
+          JOIN sys.partition_functions pf ON pf.function_id = prv.function_id
+         WHERE pf.name = 'pf_monthly'
+         ORDER BY prv.boundary_id
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<LocalDate> boundaries() {
+        return jdbcTemplate.queryForList(BOUNDARIES, LocalDate.class);
+    }
+
+    /** Row count per partition number of the table's clustered index. */
+    public Map<Integer, Long> rowsByPartition(String table) {
+        Map<Integer, Long> rows = new HashMap<>();
+        jdbcTemplate.query("SELECT partition_number, rows FROM sys.partitions WHERE object_id = OBJECT_ID(?) AND index_id = 1",
+            rs -> {
+                rows.put(rs.getInt(1), rs.getLong(2));
+            }, table);
+        return rows;
+    }
+
+    public void split(LocalDate boundary) {
+        jdbcTemplate.execute("ALTER PARTITION SCHEME ps_monthly NEXT USED [PRIMARY]");
+        jdbcTemplate.execute("ALTER PARTITION FUNCTION pf_monthly() SPLIT RANGE ('" + boundary + "')");
+    }
+
+    public void merge(LocalDate boundary) {
+        jdbcTemplate.execute("ALTER PARTITION FUNCTION pf_monthly() MERGE RANGE ('" + boundary + "')");
+    }
+
+    public void switchToArchive(PartitionedTable table, int partition) {
+        jdbcTemplate.execute("ALTER TABLE " + table.hot() + " SWITCH PARTITION " + partition
+            + " TO " + table.archive() + " PARTITION " + partition);
+    }
+
+    public void truncateArchive(PartitionedTable table, int partition) {
+        jdbcTemplate.execute("TRUNCATE TABLE " + table.archive() + " WITH (PARTITIONS (" + partition + "))");
+    }
+
+    /** Deletes up to {@code limit} notifications of one type created before the cutoff; returns the count. */
+    public int deleteNotifications(boolean archive, String type, LocalDateTime cutoff, int limit) {
+        String table = archive ? PartitionedTable.NOTIFICATIONS.archive() : PartitionedTable.NOTIFICATIONS.hot();
+        return jdbcTemplate.update("DELETE TOP (?) FROM " + table + " WHERE type = ? AND created_at < ?",
+            limit, type, Timestamp.valueOf(cutoff));
+    }
+}
@@ -0,0 +1,42 @@
+package com.safari.safarims.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Atomic reminder claims. A single UPDATE ... OUTPUT both stamps reminded_at and returns the ids it
+ * stamped, so two overlapping runs (or two nodes during a shard rebalance) can never claim the same
+ * payment. JPQL bulk updates cannot return the affected rows, hence plain JDBC. Both statements bump
+ * the @Version column so a Payment loaded before the claim cannot write a stale reminded_at back.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PaymentReminderRepository {
+
+    // READPAST skips rows another claimer has locked instead of queueing behind it.
+    private static final String CLAIM_DUE = """
+        UPDATE TOP (?) payments WITH (ROWLOCK, READPAST)
+           SET reminded_at = ?, version = version + 1
+        OUTPUT inserted.id
+         WHERE status = 'PENDING' AND reminded_at IS NULL
+           AND expires_at BETWEEN ? AND ?
+           AND id % ? = ?
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<Long> claimDue(LocalDateTime now, LocalDateTime windowEnd, int shardCount, int shardIndex, int limit) {
+        return jdbcTemplate.queryForList(CLAIM_DUE, Long.class,
+            limit, Timestamp.valueOf(now), Timestamp.valueOf(now), Timestamp.valueOf(windowEnd), shardCount, shardIndex);
+    }
+
+    /** Gives a claimed payment back to the next run after its reminder could not be dispatched. */
+    public void releaseClaim(Long paymentId) {
+        jdbcTemplate.update("UPDATE payments SET reminded_at = NULL, version = version + 1 WHERE id = ?", paymentId);
+    }
+}
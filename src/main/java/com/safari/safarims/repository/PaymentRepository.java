@@ -1,15 +1,23 @@
 package com.safari.safarims.repository;
 
+import com.safari.safarims.dto.payment.PaymentRow;
 import com.safari.safarims.entity.Payment;
 import com.safari.safarims.common.enums.PaymentStatus;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
@@ -21,9 +29,47 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     @Query("SELECT p FROM Payment p JOIN FETCH p.booking b WHERE p.status = :status AND p.expiresAt IS NOT NULL AND p.expiresAt < :now")
     List<Payment> findExpiredPayments(@Param("status") PaymentStatus status, @Param("now") LocalDateTime now);
 
+    // Sharded variant for the scheduler: this node only takes ids congruent to its shard index
+    @Query("SELECT p FROM Payment p JOIN FETCH p.booking b WHERE p.status = :status AND p.expiresAt IS NOT NULL AND p.expiresAt < :now " +
+           "AND MOD(p.id, :shardCount) = :shardIndex")
+    List<Payment> findExpiredPaymentsInShard(@Param("status") PaymentStatus status, @Param("now") LocalDateTime now,
+                                             @Param("shardCount") int shardCount, @Param("shardIndex") int shardIndex);
+
+    // Submitted payments still without an outcome, oldest first, for reconciliation with the gateway
+    @Query("SELECT p.txRef FROM Payment p WHERE p.status = :status AND p.submittedAt < :submittedBefore " +
+           "AND MOD(p.id, :shardCount) = :shardIndex ORDER BY p.submittedAt")
+    List<String> findUnsettledTxRefsInShard(@Param("status") PaymentStatus status,
+                                            @Param("submittedBefore") LocalDateTime submittedBefore,
+                                            @Param("shardCount") int shardCount, @Param("shardIndex") int shardIndex,
+                                            Limit limit);
+
     // Payments within reminder window (expiresAt between now and windowEnd)
     @Query("SELECT p FROM Payment p JOIN FETCH p.booking b WHERE p.status = :status AND p.expiresAt IS NOT NULL AND p.expiresAt BETWEEN :from AND :to")
     List<Payment> findPaymentsExpiringBetween(@Param("status") PaymentStatus status,
                                               @Param("from") LocalDateTime from,
                                               @Param("to") LocalDateTime to);
+
+    // Everything a payment reminder needs, fetched in one round trip per batch
+    @Query("SELECT DISTINCT p FROM Payment p JOIN FETCH p.booking b JOIN FETCH b.tourist t JOIN FETCH t.user " +
+        "LEFT JOIN FETCH t.preferredLanguages WHERE p.id IN :ids")
+    List<Payment> findWithRecipientByIdIn(@Param("ids") List<Long> ids);
+
+    String PAYMENT_ROW = "SELECT new com.safari.safarims.dto.payment.PaymentRow(" +
+        "p.id, b.id, t.fullName, tp.name, p.amount, p.status, p.method, p.txRef, p.paidAt, p.expiresAt, " +
+        "p.createdAt, p.updatedAt) " +
+        "FROM Payment p JOIN p.booking b JOIN b.tourist t JOIN b.tourPackage tp ";
+
+    @Query(PAYMENT_ROW + "WHERE b.id = :bookingId")
+    List<PaymentRow> findRowsByBookingId(@Param("bookingId") Long bookingId);
+
+    @Query(PAYMENT_ROW + "WHERE p.status = :status")
+    List<PaymentRow> findRowsByStatus(@Param("status") PaymentStatus status);
+
+    // Export cursor: must be consumed inside a read-only transaction and closed by the caller.
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query(PAYMENT_ROW + "ORDER BY p.id")
+    Stream<PaymentRow> streamAllRows();
 }
@@ -0,0 +1,76 @@
+package com.safari.safarims.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Lease and heartbeat rows for {@link com.safari.safarims.service.JobCoordinator}. Every statement
+ * is a single auto-committed row operation compared against SYSUTCDATETIME(), so nodes never rely on
+ * their own clocks to decide who owns a lease.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SchedulerCoordinationRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Takes the lease if it is free or expired, or extends it if {@code owner} already holds it. */
+    public boolean tryAcquireLease(String name, String owner, long ttlMillis) {
+        int updated = jdbcTemplate.update("""
+            UPDATE scheduler_leases
+               SET lock_until = DATEADD(millisecond, ?, SYSUTCDATETIME()), locked_at = SYSUTCDATETIME(), locked_by = ?
+             WHERE name = ? AND (lock_until <= SYSUTCDATETIME() OR locked_by = ?)
+            """, ttlMillis, owner, name, owner);
+        if (updated > 0) {
+            return true;
+        }
+        try {
+            jdbcTemplate.update("""
+                INSERT INTO scheduler_leases (name, lock_until, locked_at, locked_by)
+                VALUES (?, DATEADD(millisecond, ?, SYSUTCDATETIME()), SYSUTCDATETIME(), ?)
+                """, name, ttlMillis, owner);
+            return true;
+        } catch (DuplicateKeyException e) {
+            // Row exists and is held by another node.
+            return false;
+        }
+    }
+
+    public void releaseLease(String name, String owner) {
+        jdbcTemplate.update("UPDATE scheduler_leases SET lock_until = SYSUTCDATETIME() WHERE name = ? AND locked_by = ?",
+            name, owner);
+    }
+
+    public void heartbeat(String nodeId) {
+        int updated = jdbcTemplate.update("UPDATE scheduler_nodes SET heartbeat_at = SYSUTCDATETIME() WHERE node_id = ?",
+            nodeId);
+        if (updated == 0) {
+            jdbcTemplate.update("""
+                INSERT INTO scheduler_nodes (node_id, started_at, heartbeat_at)
+                VALUES (?, SYSUTCDATETIME(), SYSUTCDATETIME())
+                """, nodeId);
+        }
+    }
+
+    public List<String> findLiveNodes(long ttlMillis) {
+        return jdbcTemplate.queryForList("""
+            SELECT node_id FROM scheduler_nodes
+             WHERE heartbeat_at > DATEADD(millisecond, -?, SYSUTCDATETIME())
+             ORDER BY node_id
+            """, String.class, ttlMillis);
+    }
+
+    public void removeNode(String nodeId) {
+        jdbcTemplate.update("DELETE FROM scheduler_nodes WHERE node_id = ?", nodeId);
+    }
+
+    /** Drops nodes that stopped heartbeating long ago so the table does not grow with every restart. */
+    public int purgeDeadNodes(long olderThanMillis) {
+        return jdbcTemplate.update("DELETE FROM scheduler_nodes WHERE heartbeat_at < DATEADD(millisecond, -?, SYSUTCDATETIME())",
+            olderThanMillis);
+    }
+}
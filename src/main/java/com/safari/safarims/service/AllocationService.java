@@ -5,14 +5,20 @@ import com.safari.safarims.dto.allocation.AllocationResponse;
 import com.safari.safarims.entity.*;
 import com.safari.safarims.common.enums.AllocationStatus;
 import com.safari.safarims.common.enums.BookingStatus;
-import com.safari.safarims.common.enums.JeepStatus;
 import com.safari.safarims.repository.*;
+import com.safari.safarims.mapper.AllocationMapper;
+import com.safari.safarims.common.retry.RetryOnConflict;
+import com.safari.safarims.event.DomainEvent;
+import com.safari.safarims.event.DomainEventBus;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -27,8 +33,11 @@ public class AllocationService {
     private final DriverRepository driverRepository;
     private final GuideRepository guideRepository;
     private final JeepRepository jeepRepository;
-    private final NotificationService notificationService;
+    private final DomainEventBus eventBus;
+    private final AllocationMapper allocationMapper;
+    private final FleetAvailabilityService fleetAvailabilityService;
 
+    @RetryOnConflict
     @Transactional
     public AllocationResponse createAllocation(AllocationRequest request) {
         String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
@@ -74,18 +83,8 @@ public class AllocationService {
 
         Jeep jeep = null;
         if (request.getJeepId() != null) {
-            jeep = jeepRepository.findById(request.getJeepId())
-                .orElseThrow(() -> new RuntimeException("Jeep not found"));
-
-            if (jeep.getStatus() != JeepStatus.AVAILABLE) {
-                throw new RuntimeException("Jeep is not available for allocation");
-            }
-
-            // Check if jeep is already allocated
-            List<Allocation> activeJeepAllocations = allocationRepository.findActiveAllocationsByJeepId(request.getJeepId());
-            if (!activeJeepAllocations.isEmpty()) {
-                throw new RuntimeException("Jeep is already allocated to another booking");
-            }
+            jeep = claimJeep(request.getJeepId());
+            checkNoServiceDuringTour(jeep, booking);
         }
 
         // Create allocation
@@ -101,38 +100,27 @@ public class AllocationService {
         allocation.setCreatedBy(currentUsername);
         allocation.setUpdatedBy(currentUsername);
 
-        Allocation saved = allocationRepository.save(allocation);
+        Allocation saved = saveClaimed(allocation);
 
-        // Update booking status
+        // Update booking status (versioned, so a concurrent allocation of the same booking conflicts)
         booking.setStatus(BookingStatus.ALLOCATED);
         booking.setUpdatedBy(currentUsername);
         bookingRepository.save(booking);
 
-        // Update jeep status
         if (jeep != null) {
-            jeep.setStatus(JeepStatus.ALLOCATED);
-            jeepRepository.save(jeep);
+            fleetAvailabilityService.jeepChanged(jeep.getId());
         }
 
-        // Send notifications
-        notificationService.notifyBookingOfficers("Allocation Created",
-            "Booking #" + booking.getId() + " has been allocated");
-
-        if (driver != null) {
-            notificationService.notifyUser(driver.getUser().getId(), "ALLOCATION",
-                "New Assignment", "You have been assigned to booking #" + booking.getId());
-        }
-
-        if (guide != null) {
-            notificationService.notifyUser(guide.getUser().getId(), "ALLOCATION",
-                "New Assignment", "You have been assigned to booking #" + booking.getId());
-        }
+        eventBus.publish(new DomainEvent.AllocationCreated(booking.getId(),
+            driver != null ? driver.getUser().getId() : null,
+            guide != null ? guide.getUser().getId() : null));
 
         log.info("Allocation created: {} for booking: {} by {}", saved.getId(), booking.getId(), currentUsername);
 
-        return mapToResponse(saved);
+        return allocationMapper.toResponse(saved);
     }
 
+    @RetryOnConflict
     @Transactional
     public AllocationResponse updateAllocation(Long allocationId, AllocationRequest request) {
         String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
@@ -146,8 +134,7 @@ public class AllocationService {
 
         // Release previous resources
         if (allocation.getJeep() != null) {
-            allocation.getJeep().setStatus(JeepStatus.AVAILABLE);
-            jeepRepository.save(allocation.getJeep());
+            releaseJeep(allocation.getJeep().getId());
         }
 
         // Validate and assign new resources (similar validation as in create)
@@ -183,21 +170,8 @@ public class AllocationService {
 
         Jeep jeep = null;
         if (request.getJeepId() != null) {
-            jeep = jeepRepository.findById(request.getJeepId())
-                .orElseThrow(() -> new RuntimeException("Jeep not found"));
-
-            if (jeep.getStatus() != JeepStatus.AVAILABLE) {
-                throw new RuntimeException("Jeep is not available for allocation");
-            }
-
-            List<Allocation> activeJeepAllocations = allocationRepository.findActiveAllocationsByJeepId(request.getJeepId());
-            activeJeepAllocations = activeJeepAllocations.stream()
-                .filter(a -> !a.getId().equals(allocationId))
-                .collect(Collectors.toList());
-
-            if (!activeJeepAllocations.isEmpty()) {
-                throw new RuntimeException("Jeep is already allocated to another booking");
-            }
+            jeep = claimJeep(request.getJeepId());
+            checkNoServiceDuringTour(jeep, allocation.getBooking());
         }
 
         // Update allocation
@@ -207,19 +181,18 @@ public class AllocationService {
         allocation.setNotes(request.getNotes());
         allocation.setUpdatedBy(currentUsername);
 
-        Allocation updated = allocationRepository.save(allocation);
+        Allocation updated = saveClaimed(allocation);
 
-        // Update new jeep status
         if (jeep != null) {
-            jeep.setStatus(JeepStatus.ALLOCATED);
-            jeepRepository.save(jeep);
+            fleetAvailabilityService.jeepChanged(jeep.getId());
         }
 
         log.info("Allocation updated: {} by {}", updated.getId(), currentUsername);
 
-        return mapToResponse(updated);
+        return allocationMapper.toResponse(updated);
     }
 
+    @RetryOnConflict
     @Transactional
     public void cancelAllocation(Long allocationId) {
         String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
@@ -233,8 +206,7 @@ public class AllocationService {
 
         // Release resources
         if (allocation.getJeep() != null) {
-            allocation.getJeep().setStatus(JeepStatus.AVAILABLE);
-            jeepRepository.save(allocation.getJeep());
+            releaseJeep(allocation.getJeep().getId());
         }
 
         allocation.setStatus(AllocationStatus.CANCELLED);
@@ -244,6 +216,7 @@ public class AllocationService {
         // Update booking status back to FORWARDED_TO_CREW
         Booking booking = allocation.getBooking();
         booking.setStatus(BookingStatus.FORWARDED_TO_CREW);
+        booking.setEscalationLevel(0);
         booking.setUpdatedBy(currentUsername);
         bookingRepository.save(booking);
 
@@ -251,66 +224,91 @@ public class AllocationService {
     }
 
     public List<AllocationResponse> getAllAllocations() {
-        return allocationRepository.findAll().stream()
-            .map(this::mapToResponse)
+        return allocationRepository.findAllRows().stream()
+            .map(allocationMapper::toResponse)
             .collect(Collectors.toList());
     }
 
     public List<AllocationResponse> getActiveAllocations() {
-        return allocationRepository.findByStatus(AllocationStatus.ACTIVE).stream()
-            .map(this::mapToResponse)
+        return allocationRepository.findRowsByStatus(AllocationStatus.ACTIVE).stream()
+            .map(allocationMapper::toResponse)
             .collect(Collectors.toList());
     }
 
     public List<AllocationResponse> getAllocationsByDriver(Long driverId) {
-        return allocationRepository.findByDriverId(driverId).stream()
-            .map(this::mapToResponse)
+        return allocationRepository.findRowsByDriverId(driverId).stream()
+            .map(allocationMapper::toResponse)
             .collect(Collectors.toList());
     }
 
     public List<AllocationResponse> getAllocationsByGuide(Long guideId) {
-        return allocationRepository.findByGuideId(guideId).stream()
-            .map(this::mapToResponse)
+        return allocationRepository.findRowsByGuideId(guideId).stream()
+            .map(allocationMapper::toResponse)
             .collect(Collectors.toList());
     }
 
     public List<AllocationResponse> getAllocationsByJeep(Long jeepId) {
-        return allocationRepository.findByJeepId(jeepId).stream()
-            .map(this::mapToResponse)
+        return allocationRepository.findRowsByJeepId(jeepId).stream()
+            .map(allocationMapper::toResponse)
             .collect(Collectors.toList());
     }
 
     public AllocationResponse getAllocationById(Long allocationId) {
         Allocation allocation = allocationRepository.findById(allocationId)
             .orElseThrow(() -> new RuntimeException("Allocation not found"));
-        return mapToResponse(allocation);
+        return allocationMapper.toResponse(allocation);
     }
 
-    private AllocationResponse mapToResponse(Allocation allocation) {
-        return AllocationResponse.builder()
-            .id(allocation.getId())
-            .bookingId(allocation.getBooking().getId())
-            .touristName(allocation.getBooking().getTourist().getFullName())
-            .packageName(allocation.getBooking().getTourPackage().getName())
-            .requestedDate(allocation.getBooking().getRequestedDate())
-            .requestedTime(allocation.getBooking().getRequestedTime())
-            .driverId(allocation.getDriver() != null ? allocation.getDriver().getId() : null)
-            .driverName(allocation.getDriver() != null ? allocation.getDriver().getFullName() : null)
-            .driverPhone(allocation.getDriver() != null ? allocation.getDriver().getPhone() : null)
-            .driverLicense(allocation.getDriver() != null ? allocation.getDriver().getLicenseNo() : null)
-            .guideId(allocation.getGuide() != null ? allocation.getGuide().getId() : null)
-            .guideName(allocation.getGuide() != null ? allocation.getGuide().getFullName() : null)
-            .guidePhone(allocation.getGuide() != null ? allocation.getGuide().getPhone() : null)
-            .jeepId(allocation.getJeep() != null ? allocation.getJeep().getId() : null)
-            .jeepPlateNo(allocation.getJeep() != null ? allocation.getJeep().getPlateNo() : null)
-            .jeepModel(allocation.getJeep() != null ? allocation.getJeep().getModel() : null)
-            .jeepCapacity(allocation.getJeep() != null ? allocation.getJeep().getCapacity() : null)
-            .status(allocation.getStatus())
-            .notes(allocation.getNotes())
-            .createdAt(allocation.getCreatedAt())
-            .updatedAt(allocation.getUpdatedAt())
-            .createdBy(allocation.getCreatedBy())
-            .updatedBy(allocation.getUpdatedBy())
-            .build();
+    // Claims with a conditional UPDATE before loading, so the entity read afterwards already reflects
+    // the claim and is never flushed back with a stale status. A later validation failure rolls the
+    // claim back with the transaction.
+    private Jeep claimJeep(Long jeepId) {
+        boolean claimed = jeepRepository.claimAvailable(jeepId, LocalDateTime.now()) == 1;
+        Jeep jeep = jeepRepository.findById(jeepId)
+            .orElseThrow(() -> new RuntimeException("Jeep not found"));
+        if (!claimed) {
+            throw new RuntimeException("Jeep is not available for allocation");
+        }
+        return jeep;
+    }
+
+    // Only flips ALLOCATED back; a jeep sent to maintenance meanwhile keeps its status.
+    private void releaseJeep(Long jeepId) {
+        jeepRepository.releaseAllocated(jeepId, LocalDateTime.now());
+        fleetAvailabilityService.jeepChanged(jeepId);
+    }
+
+    // The unique filtered indexes on active allocations (V15) settle races the checks above cannot see.
+    private Allocation saveClaimed(Allocation allocation) {
+        try {
+            return allocationRepository.saveAndFlush(allocation);
+        } catch (DataIntegrityViolationException e) {
+            String cause = String.valueOf(e.getMostSpecificCause().getMessage());
+            if (cause.contains("ux_allocation_active_booking")) {
+                throw new RuntimeException("Allocation already exists for this booking", e);
+            }
+            if (cause.contains("ux_allocation_active_driver")) {
+                throw new RuntimeException("Driver is already allocated to another booking", e);
+            }
+            if (cause.contains("ux_allocation_active_guide")) {
+                throw new RuntimeException("Guide is already allocated to another booking", e);
+            }
+            if (cause.contains("ux_allocation_active_jeep")) {
+                throw new RuntimeException("Jeep is already allocated to another booking", e);
+            }
+            throw e;
+        }
+    }
+
+    private static void checkNoServiceDuringTour(Jeep jeep, Booking booking) {
+        if (jeep.getNextMaintenance() == null || booking.getRequestedDate() == null) {
+            return;
+        }
+        LocalDate serviceDay = jeep.getNextMaintenance().toLocalDate();
+        Integer days = booking.getTourPackage() != null ? booking.getTourPackage().getDays() : null;
+        LocalDate lastTourDay = booking.getRequestedDate().plusDays(days != null && days > 0 ? days - 1 : 0);
+        if (!serviceDay.isBefore(booking.getRequestedDate()) && !serviceDay.isAfter(lastTourDay)) {
+            throw new RuntimeException("Jeep is scheduled for maintenance on " + serviceDay);
+        }
     }
 }
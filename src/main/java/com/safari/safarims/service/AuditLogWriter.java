@@ -0,0 +1,246 @@
+package com.safari.safarims.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safari.safarims.common.enums.AuditOverflowPolicy;
+import com.safari.safarims.repository.AuditLogBatchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceUnitUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background half of the audit pipeline. Request threads hand over raw entity snapshots with
+ * {@link #enqueue}; a single writer thread drains the bounded buffer, turns each snapshot into
+ * before/after JSON of the changed properties, and writes them with JDBC batch inserts.
+ *
+ * The buffer is an array-backed ring ({@link ArrayBlockingQueue}). When it is full the configured
+ * {@link AuditOverflowPolicy} decides between dropping and briefly blocking; drops are counted in
+ * the {@code audit.events} metric rather than failing the business write.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AuditLogWriter {
+
+    /**
+     * One committed entity change as Hibernate saw it. States are copies of the persister's state
+     * arrays; associations in them are still entity references and are reduced to ids off-thread.
+     */
+    public record AuditEvent(String entity, Object entityId, String action, String[] propertyNames,
+                             Object[] before, Object[] after, String actor, LocalDateTime at) {
+    }
+
+    private enum Skipped { COLLECTION }
+
+    private final AuditLogBatchRepository auditLogBatchRepository;
+    private final ObjectMapper objectMapper;
+    private final EntityManagerFactory entityManagerFactory;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.audit.capacity:8192}")
+    private int capacity;
+
+    @Value("${app.audit.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.audit.flush-interval-ms:500}")
+    private long flushIntervalMs;
+
+    @Value("${app.audit.overflow-policy:DROP_NEWEST}")
+    private AuditOverflowPolicy overflowPolicy;
+
+    @Value("${app.audit.block-timeout-ms:20}")
+    private long blockTimeoutMs;
+
+    private ArrayBlockingQueue<AuditEvent> buffer;
+    private PersistenceUnitUtil persistenceUnitUtil;
+    private final Map<String, Long> actorIds = new ConcurrentHashMap<>();
+    private volatile boolean running;
+    private Thread writerThread;
+
+    private Counter enqueued;
+    private Counter dropped;
+    private Counter written;
+    private Counter failed;
+    private Timer flushTimer;
+
+    @PostConstruct
+    public void start() {
+        buffer = new ArrayBlockingQueue<>(capacity);
+        persistenceUnitUtil = entityManagerFactory.getPersistenceUnitUtil();
+
+        enqueued = meterRegistry.counter("audit.events", "outcome", "enqueued");
+        dropped = meterRegistry.counter("audit.events", "outcome", "dropped");
+        written = meterRegistry.counter("audit.events", "outcome", "written");
+        failed = meterRegistry.counter("audit.events", "outcome", "failed");
+        flushTimer = meterRegistry.timer("audit.flush");
+        meterRegistry.gauge("audit.buffer.size", buffer, ArrayBlockingQueue::size);
+
+        running = true;
+        writerThread = new Thread(this::drainLoop, "audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writerThread.interrupt();
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /** The only audit work done on the request thread. Never throws. */
+    public void enqueue(AuditEvent event) {
+        boolean accepted = switch (overflowPolicy) {
+            case DROP_NEWEST -> buffer.offer(event);
+            case DROP_OLDEST -> {
+                while (!buffer.offer(event)) {
+                    if (buffer.poll() != null) {
+                        dropped.increment();
+                    }
+                }
+                yield true;
+            }
+            case BLOCK -> {
+                try {
+                    yield buffer.offer(event, blockTimeoutMs, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    yield false;
+                }
+            }
+        };
+        if (accepted) {
+            enqueued.increment();
+        } else {
+            dropped.increment();
+        }
+    }
+
+    private void drainLoop() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                AuditEvent first = running ? buffer.poll(flushIntervalMs, TimeUnit.MILLISECONDS) : buffer.poll();
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                // stop() interrupts to cut the poll short; the loop drains what is left and exits.
+            } catch (Exception e) {
+                log.error("Audit writer error: {}", e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<AuditEvent> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (AuditEvent event : batch) {
+            try {
+                rows.add(toRow(event));
+            } catch (Exception e) {
+                failed.increment();
+                log.warn("Could not serialise audit event for {} {}: {}", event.entity(), event.entityId(), e.getMessage());
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            flushTimer.record(() -> auditLogBatchRepository.insertBatch(rows));
+            written.increment(rows.size());
+        } catch (Exception e) {
+            failed.increment(rows.size());
+            log.error("Failed to write {} audit rows: {}", rows.size(), e.getMessage());
+        }
+    }
+
+    private Object[] toRow(AuditEvent event) throws Exception {
+        Map<String, Object> before = new LinkedHashMap<>();
+        Map<String, Object> after = new LinkedHashMap<>();
+        String[] names = event.propertyNames();
+        for (int i = 0; i < names.length; i++) {
+            Object oldValue = event.before() != null ? plain(event.before()[i]) : null;
+            Object newValue = event.after() != null ? plain(event.after()[i]) : null;
+            if (oldValue instanceof Skipped || newValue instanceof Skipped) {
+                continue;
+            }
+            // Updates record only what changed; creates and deletes record the full row.
+            if (event.before() != null && event.after() != null && Objects.equals(oldValue, newValue)) {
+                continue;
+            }
+            if (event.before() != null) {
+                before.put(names[i], oldValue);
+            }
+            if (event.after() != null) {
+                after.put(names[i], newValue);
+            }
+        }
+        return new Object[] {
+            actorId(event.actor()),
+            event.entity(),
+            String.valueOf(event.entityId()),
+            event.action(),
+            event.before() != null ? objectMapper.writeValueAsString(before) : null,
+            event.after() != null ? objectMapper.writeValueAsString(after) : null,
+            Timestamp.valueOf(event.at())
+        };
+    }
+
+    // Associations become their id (read without initialising lazy proxies); collections are left out.
+    private Object plain(Object value) {
+        if (value == null || value instanceof String || value instanceof Number || value instanceof Boolean
+            || value instanceof Enum<?> || value instanceof Temporal) {
+            return value;
+        }
+        if (value instanceof Collection<?> || value instanceof Map<?, ?>) {
+            return Skipped.COLLECTION;
+        }
+        try {
+            return persistenceUnitUtil.getIdentifier(value);
+        } catch (IllegalArgumentException notAnEntity) {
+            return value;
+        }
+    }
+
+    private Long actorId(String username) {
+        if (username == null) {
+            return null;
+        }
+        Long cached = actorIds.get(username);
+        if (cached != null) {
+            return cached;
+        }
+        return auditLogBatchRepository.findUserIdByUsername(username)
+            .map(id -> {
+                actorIds.put(username, id);
+                return id;
+            })
+            .orElse(null);
+    }
+}
@@ -21,6 +21,7 @@ public class AuthService {
     private final UserService userService;
     private final OtpService otpService;
     private final TouristRepository touristRepository;
+    private final TouristService touristService;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
 
@@ -51,6 +52,7 @@ public class AuthService {
         Tourist tourist = Tourist.builder()
             .user(user)
             .fullName(request.getFullName())
+            .preferredLanguages(touristService.resolveLanguages(request.getPreferredLanguages()))
             .build();
 
         touristRepository.save(tourist);
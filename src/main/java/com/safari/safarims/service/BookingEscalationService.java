@@ -0,0 +1,77 @@
+package com.safari.safarims.service;
+
+import com.safari.safarims.common.enums.BookingStatus;
+import com.safari.safarims.common.enums.UserRole;
+import com.safari.safarims.config.EscalationProperties;
+import com.safari.safarims.repository.BookingEscalationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Escalates bookings stuck in FORWARDED_TO_CREW through the configured tiers. Each run only picks up
+ * bookings that crossed a tier threshold since the last run (their escalation_level still equals the
+ * tier index), moves them to the next level, and sends every recipient role a single digest.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookingEscalationService {
+
+    private final BookingEscalationRepository bookingEscalationRepository;
+    private final NotificationService notificationService;
+    private final EscalationProperties escalationProperties;
+
+    @Transactional
+    public int escalateStaleBookings() {
+        LocalDateTime now = LocalDateTime.now();
+        List<EscalationProperties.Tier> tiers = escalationProperties.getTiers();
+        Map<UserRole, List<String>> digests = new EnumMap<>(UserRole.class);
+        int escalated = 0;
+
+        // Ascending, so a booking that is already past several thresholds climbs them all in one run.
+        for (int level = 0; level < tiers.size(); level++) {
+            EscalationProperties.Tier tier = tiers.get(level);
+            LocalDateTime threshold = now.minus(tier.getAfter());
+
+            List<Long> stale = bookingEscalationRepository.escalateStale(BookingStatus.FORWARDED_TO_CREW, level, threshold, now);
+            if (stale.isEmpty()) {
+                continue;
+            }
+            escalated += stale.size();
+
+            digests.computeIfAbsent(tier.getRole(), role -> new ArrayList<>())
+                .add(describe(stale, tier));
+        }
+
+        digests.forEach((role, sections) -> notificationService.notifyRole(role, "ALLOCATION",
+            "Pending Allocation Escalation", String.join("\n", sections)));
+
+        if (escalated > 0) {
+            log.info("Escalated {} stale forwarded bookings to {}", escalated, digests.keySet());
+        }
+        return escalated;
+    }
+
+    private String describe(List<Long> bookingIds, EscalationProperties.Tier tier) {
+        int listed = Math.min(bookingIds.size(), escalationProperties.getDigestMaxListed());
+        String ids = bookingIds.subList(0, listed).stream()
+            .map(id -> "#" + id)
+            .collect(Collectors.joining(", "));
+        String more = bookingIds.size() > listed ? " and " + (bookingIds.size() - listed) + " more" : "";
+        return bookingIds.size() + " booking(s) pending allocation for over " + format(tier) + ": " + ids + more;
+    }
+
+    private static String format(EscalationProperties.Tier tier) {
+        long hours = tier.getAfter().toHours();
+        return hours > 0 ? hours + " hours" : tier.getAfter().toMinutes() + " minutes";
+    }
+}
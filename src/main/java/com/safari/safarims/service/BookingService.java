@@ -9,6 +9,11 @@ import com.safari.safarims.common.enums.BookingStatus;
 import com.safari.safarims.repository.BookingRepository;
 import com.safari.safarims.repository.TouristRepository;
 import com.safari.safarims.repository.TourPackageRepository;
+import com.safari.safarims.mapper.BookingMapper;
+import com.safari.safarims.common.id.IdGenerator;
+import com.safari.safarims.common.retry.RetryOnConflict;
+import com.safari.safarims.event.DomainEvent;
+import com.safari.safarims.event.DomainEventBus;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -28,7 +33,9 @@ public class BookingService {
     private final BookingRepository bookingRepository;
     private final TouristRepository touristRepository;
     private final TourPackageRepository tourPackageRepository;
-    private final NotificationService notificationService;
+    private final DomainEventBus eventBus;
+    private final BookingMapper bookingMapper;
+    private final IdGenerator idGenerator;
 
     @Value("${app.default-timers.edit-window-seconds}")
     private int defaultEditWindowSeconds;
@@ -54,6 +61,7 @@ public class BookingService {
 
         // Create booking
         Booking booking = Booking.builder()
+            .reference(idGenerator.nextReference("BK-"))
             .tourist(tourist)
             .tourPackage(tourPackage)
             .requestedDate(request.getRequestedDate())
@@ -70,15 +78,14 @@ public class BookingService {
 
         Booking saved = bookingRepository.save(booking);
 
-        // Send notification to booking officers
-        notificationService.notifyBookingOfficers("New Booking Request",
-            "New booking request #" + saved.getId() + " from " + tourist.getFullName());
+        eventBus.publish(new DomainEvent.BookingRequested(saved.getId(), tourist.getFullName()));
 
-        log.info("Booking created: {} by tourist: {}", saved.getId(), tourist.getFullName());
+        log.info("Booking created: {} ({}) by tourist: {}", saved.getId(), saved.getReference(), tourist.getFullName());
 
-        return mapToResponse(saved);
+        return bookingMapper.toResponse(saved);
     }
 
+    @RetryOnConflict
     @Transactional
     public BookingResponse updateBooking(Long bookingId, BookingRequest request) {
         String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
@@ -115,16 +122,16 @@ public class BookingService {
         booking.setRequestedTime(request.getRequestedTime());
         booking.setTotalAmount(tourPackage.getPrice());
         booking.setNotes(request.getNotes());
-        booking.setVersion(booking.getVersion() + 1);
         booking.setUpdatedBy(currentUsername);
 
         Booking updated = bookingRepository.save(booking);
 
         log.info("Booking updated: {} by tourist: {}", updated.getId(), currentUsername);
 
-        return mapToResponse(updated);
+        return bookingMapper.toResponse(updated);
     }
 
+    @RetryOnConflict
     @Transactional
     public void cancelBooking(Long bookingId) {
         String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
@@ -162,29 +169,30 @@ public class BookingService {
         Tourist tourist = touristRepository.findByUserUsername(currentUsername)
             .orElseThrow(() -> new RuntimeException("Tourist profile not found"));
 
-        return bookingRepository.findByTouristIdOrderByCreatedAtDesc(tourist.getId()).stream()
-            .map(this::mapToResponse)
+        return bookingRepository.findRowsByTouristId(tourist.getId()).stream()
+            .map(bookingMapper::toResponse)
             .collect(Collectors.toList());
     }
 
     public List<BookingResponse> getAllBookings() {
-        return bookingRepository.findAll().stream()
-            .map(this::mapToResponse)
+        return bookingRepository.findAllRows().stream()
+            .map(bookingMapper::toResponse)
             .collect(Collectors.toList());
     }
 
     public List<BookingResponse> getBookingsByStatus(List<BookingStatus> statuses) {
-        return bookingRepository.findByStatusIn(statuses).stream()
-            .map(this::mapToResponse)
+        return bookingRepository.findRowsByStatusIn(statuses).stream()
+            .map(bookingMapper::toResponse)
             .collect(Collectors.toList());
     }
 
     public BookingResponse getBookingById(Long bookingId) {
         Booking booking = bookingRepository.findById(bookingId)
             .orElseThrow(() -> new RuntimeException("Booking not found"));
-        return mapToResponse(booking);
+        return bookingMapper.toResponse(booking);
     }
 
+    @RetryOnConflict
     @Transactional
     public void forwardToCrew(Long bookingId) {
         String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
@@ -197,16 +205,16 @@ public class BookingService {
         }
 
         booking.setStatus(BookingStatus.FORWARDED_TO_CREW);
+        booking.setEscalationLevel(0);
         booking.setUpdatedBy(currentUsername);
         bookingRepository.save(booking);
 
-        // Notify crew managers
-        notificationService.notifyCrewManagers("Booking Forwarded",
-            "Booking #" + booking.getId() + " has been forwarded for allocation");
+        eventBus.publish(new DomainEvent.BookingForwarded(booking.getId()));
 
         log.info("Booking {} forwarded to crew by {}", bookingId, currentUsername);
     }
 
+    @RetryOnConflict
     @Transactional
     public void setEditWindow(Long bookingId, Integer editWindowSeconds) {
         String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
@@ -222,6 +230,7 @@ public class BookingService {
             editWindowSeconds, bookingId, currentUsername);
     }
 
+    @RetryOnConflict
     @Transactional
     public void setPaymentWindow(Long bookingId, Integer paymentWindowSeconds) {
         String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
@@ -241,37 +250,4 @@ public class BookingService {
         LocalDateTime editWindowExpiry = booking.getCreatedAt().plusSeconds(booking.getEditWindowSeconds());
         return LocalDateTime.now().isBefore(editWindowExpiry);
     }
-
-    private LocalDateTime getEditWindowExpiry(Booking booking) {
-        return booking.getCreatedAt().plusSeconds(booking.getEditWindowSeconds());
-    }
-
-    private BookingResponse mapToResponse(Booking booking) {
-        boolean canEdit = booking.getStatus() == BookingStatus.REQUESTED && isWithinEditWindow(booking);
-        LocalDateTime editWindowExpires = getEditWindowExpiry(booking);
-
-        return BookingResponse.builder()
-            .id(booking.getId())
-            .touristId(booking.getTourist().getId())
-            .touristName(booking.getTourist().getFullName())
-            .packageId(booking.getTourPackage().getId())
-            .packageName(booking.getTourPackage().getName())
-            .packageDays(booking.getTourPackage().getDays())
-            .packageMaxPeople(booking.getTourPackage().getMaxPeople())
-            .requestedDate(booking.getRequestedDate())
-            .requestedTime(booking.getRequestedTime())
-            .status(booking.getStatus())
-            .editWindowSeconds(booking.getEditWindowSeconds())
-            .paymentWindowSeconds(booking.getPaymentWindowSeconds())
-            .version(booking.getVersion())
-            .totalAmount(booking.getTotalAmount())
-            .notes(booking.getNotes())
-            .createdAt(booking.getCreatedAt())
-            .updatedAt(booking.getUpdatedAt())
-            .createdBy(booking.getCreatedBy())
-            .updatedBy(booking.getUpdatedBy())
-            .canEdit(canEdit)
-            .editWindowExpires(editWindowExpires)
-            .build();
-    }
 }
@@ -0,0 +1,120 @@
+package com.safari.safarims.service;
+
+import com.safari.safarims.dto.report.BackfillResponse;
+import com.safari.safarims.dto.report.StatsReportResponse;
+import com.safari.safarims.repository.DailyStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DailyStatsService {
+
+    private static final int MAX_CHUNK_ATTEMPTS = 3;
+
+    private final DailyStatsRepository dailyStatsRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.reports.backfill-threads:4}")
+    private int backfillThreads;
+
+    @Value("${app.reports.backfill-chunk-days:7}")
+    private int backfillChunkDays;
+
+    public StatsReportResponse getDay(LocalDate date) {
+        return getRange(date, date);
+    }
+
+    public StatsReportResponse getWeek(LocalDate date) {
+        LocalDate monday = date.with(DayOfWeek.MONDAY);
+        return getRange(monday, monday.plusDays(6));
+    }
+
+    public StatsReportResponse getRange(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new RuntimeException("Report end date is before start date");
+        }
+        return StatsReportResponse.builder()
+            .from(from)
+            .to(to)
+            .rows(dailyStatsRepository.aggregate(from, to))
+            .build();
+    }
+
+    /**
+     * Rebuilds the counters for {@code [from, to]} in chunks of {@code backfill-chunk-days}, several
+     * chunks at a time. Each chunk runs SERIALIZABLE so live transitions on the same days either land
+     * before the rebuild reads them or wait and apply their delta on top of the rebuilt rows.
+     */
+    public BackfillResponse backfill(LocalDate from, LocalDate to) {
+        LocalDate start = from != null ? from : dailyStatsRepository.earliestActivity().orElse(LocalDate.now());
+        LocalDate end = to != null ? to : LocalDate.now();
+        if (end.isBefore(start)) {
+            throw new RuntimeException("Backfill end date is before start date");
+        }
+
+        TransactionTemplate chunkTransaction = new TransactionTemplate(transactionManager);
+        chunkTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+
+        long started = System.currentTimeMillis();
+        ExecutorService pool = Executors.newFixedThreadPool(backfillThreads);
+        List<CompletableFuture<Boolean>> chunks = new ArrayList<>();
+        try {
+            for (LocalDate chunkStart = start; !chunkStart.isAfter(end); chunkStart = chunkStart.plusDays(backfillChunkDays)) {
+                LocalDate chunkFrom = chunkStart;
+                LocalDate chunkTo = min(chunkStart.plusDays(backfillChunkDays), end.plusDays(1));
+                chunks.add(CompletableFuture.supplyAsync(() -> rebuildChunk(chunkTransaction, chunkFrom, chunkTo), pool));
+            }
+            CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).join();
+        } finally {
+            pool.shutdown();
+        }
+
+        int failed = (int) chunks.stream().filter(chunk -> !chunk.join()).count();
+        long elapsed = System.currentTimeMillis() - started;
+        log.info("Daily stats backfill {}..{}: {} chunks, {} failed, {} ms", start, end, chunks.size(), failed, elapsed);
+
+        return BackfillResponse.builder()
+            .from(start)
+            .to(end)
+            .chunks(chunks.size())
+            .failedChunks(failed)
+            .elapsedMillis(elapsed)
+            .build();
+    }
+
+    private boolean rebuildChunk(TransactionTemplate chunkTransaction, LocalDate from, LocalDate toExclusive) {
+        for (int attempt = 1; attempt <= MAX_CHUNK_ATTEMPTS; attempt++) {
+            try {
+                chunkTransaction.executeWithoutResult(status -> dailyStatsRepository.rebuild(from, toExclusive));
+                return true;
+            } catch (PessimisticLockingFailureException e) {
+                log.warn("Backfill chunk {}..{} lost a lock conflict (attempt {}): {}",
+                    from, toExclusive, attempt, e.getMessage());
+            } catch (Exception e) {
+                log.error("Backfill chunk {}..{} failed: {}", from, toExclusive, e.getMessage());
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
@@ -1,15 +1,25 @@
 package com.safari.safarims.service;
 
+import com.safari.safarims.email.EmailTemplate;
+import com.safari.safarims.email.EmailTemplateEngine;
+import com.safari.safarims.email.RenderedEmail;
+import com.safari.safarims.email.SmtpConnectionPool;
 import com.safari.safarims.entity.OutboundEmail;
 import com.safari.safarims.repository.OutboundEmailRepository;
+import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -18,6 +28,8 @@ public class EmailService {
 
     private final JavaMailSender mailSender;
     private final OutboundEmailRepository outboundEmailRepository;
+    private final EmailTemplateEngine templateEngine;
+    private final SmtpConnectionPool smtpConnectionPool;
 
     @Value("${app.email.from}")
     private String fromEmail;
@@ -26,54 +38,66 @@ public class EmailService {
     private boolean emailEnabled;
 
     public void sendOtp(String toEmail, String otp, String purpose) {
-        String subject = "Safari Management System - " + purpose + " OTP";
-        String body = buildOtpEmailBody(otp, purpose);
-        sendEmail(toEmail, subject, body, "OTP_TEMPLATE");
+        // Signup and reset happen before we know the user's languages, so OTPs use the default
+        send(toEmail, EmailTemplate.OTP, null, purpose, otp);
     }
 
-    public void sendBookingConfirmation(String toEmail, String bookingDetails) {
-        String subject = "Safari Management System - Booking Confirmation";
-        String body = buildBookingConfirmationBody(bookingDetails);
-        sendEmail(toEmail, subject, body, "BOOKING_CONFIRMATION");
+    public void sendBookingConfirmation(String toEmail, String language, Long bookingId, String reference,
+                                        String packageName, LocalDate date, LocalTime time, BigDecimal amount) {
+        send(toEmail, EmailTemplate.BOOKING_CONFIRMATION, language, String.valueOf(bookingId), reference,
+            packageName, String.valueOf(date), String.valueOf(time), formatAmount(amount));
     }
 
-    public void sendPaymentReminder(String toEmail, String bookingId, String amount) {
-        String subject = "Safari Management System - Payment Reminder";
-        String body = buildPaymentReminderBody(bookingId, amount);
-        sendEmail(toEmail, subject, body, "PAYMENT_REMINDER");
+    public void sendPaymentReminder(String toEmail, String language, Long bookingId, BigDecimal amount) {
+        send(toEmail, EmailTemplate.PAYMENT_REMINDER, language, String.valueOf(bookingId), formatAmount(amount));
     }
 
-    public void sendPaymentExpiry(String toEmail, String bookingId) {
-        String subject = "Safari Management System - Payment Expired";
-        String body = buildPaymentExpiryBody(bookingId);
-        sendEmail(toEmail, subject, body, "PAYMENT_EXPIRY");
+    public void sendPaymentExpiry(String toEmail, String language, Long bookingId) {
+        send(toEmail, EmailTemplate.PAYMENT_EXPIRY, language, String.valueOf(bookingId));
     }
 
-    private void sendEmail(String toEmail, String subject, String body, String templateName) {
-        // Save email to database for tracking
+    void send(String toEmail, EmailTemplate template, String language, String... values) {
+        sendEmail(toEmail, templateEngine.render(template, language, values), template.recordedName());
+    }
+
+    /** One email standing in for several to the same recipient; each part becomes a section. */
+    void sendDigest(String toEmail, String language, List<RenderedEmail> parts) {
+        StringBuilder items = new StringBuilder();
+        for (RenderedEmail part : parts) {
+            if (!items.isEmpty()) {
+                items.append("\n----------------------------------------\n\n");
+            }
+            items.append(part.subject()).append("\n\n").append(part.text().strip()).append('\n');
+        }
+        send(toEmail, EmailTemplate.DIGEST, language, String.valueOf(parts.size()), items.toString());
+    }
+
+    private void sendEmail(String toEmail, RenderedEmail email, String templateName) {
+        // Save email to database for tracking; the text part stands in for the whole message
         OutboundEmail outboundEmail = OutboundEmail.builder()
             .toEmail(toEmail)
-            .subject(subject)
-            .body(body)
+            .subject(email.subject())
+            .body(email.text())
             .templateName(templateName)
             .build();
 
         try {
             if (emailEnabled) {
-                SimpleMailMessage message = new SimpleMailMessage();
-                message.setFrom(fromEmail);
-                message.setTo(toEmail);
-                message.setSubject(subject);
-                message.setText(body);
+                MimeMessage message = mailSender.createMimeMessage();
+                MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+                helper.setFrom(fromEmail);
+                helper.setTo(toEmail);
+                helper.setSubject(email.subject());
+                helper.setText(email.text(), email.html());
 
-                mailSender.send(message);
+                smtpConnectionPool.send(message);
 
                 outboundEmail.setStatus("SENT");
                 outboundEmail.setSentAt(LocalDateTime.now());
                 log.info("Email sent successfully to: {}", toEmail);
             } else {
                 // In development mode, just log the email
-                log.info("EMAIL (DEV MODE) - To: {}, Subject: {}, Body: {}", toEmail, subject, body);
+                log.info("EMAIL (DEV MODE) - To: {}, Subject: {}, Body: {}", toEmail, email.subject(), email.text());
                 outboundEmail.setStatus("SENT");
                 outboundEmail.setSentAt(LocalDateTime.now());
             }
@@ -86,61 +110,7 @@ public class EmailService {
         outboundEmailRepository.save(outboundEmail);
     }
 
-    private String buildOtpEmailBody(String otp, String purpose) {
-        return String.format("""
-            Dear User,
-            
-            Your %s OTP for Safari Management System is: %s
-            
-            This OTP will expire in 10 minutes. Please do not share this code with anyone.
-            
-            If you did not request this, please ignore this email.
-            
-            Best regards,
-            Safari Management System Team
-            """, purpose, otp);
-    }
-
-    private String buildBookingConfirmationBody(String bookingDetails) {
-        return String.format("""
-            Dear Customer,
-            
-            Your safari booking has been confirmed! Here are the details:
-            
-            %s
-            
-            Please proceed with payment to secure your booking.
-            
-            Best regards,
-            Safari Management System Team
-            """, bookingDetails);
-    }
-
-    private String buildPaymentReminderBody(String bookingId, String amount) {
-        return String.format("""
-            Dear Customer,
-            
-            This is a reminder that your payment for booking #%s is still pending.
-            
-            Amount: $%s
-            
-            Please complete your payment to confirm your safari booking.
-            
-            Best regards,
-            Safari Management System Team
-            """, bookingId, amount);
-    }
-
-    private String buildPaymentExpiryBody(String bookingId) {
-        return String.format("""
-            Dear Customer,
-            
-            We regret to inform you that your booking #%s has been cancelled due to payment timeout.
-            
-            You can create a new booking request if you're still interested in our safari packages.
-            
-            Best regards,
-            Safari Management System Team
-            """, bookingId);
+    static String formatAmount(BigDecimal amount) {
+        return amount == null ? "" : amount.setScale(2, RoundingMode.HALF_UP).toPlainString();
     }
 }
@@ -0,0 +1,128 @@
+package com.safari.safarims.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.safari.safarims.common.enums.ExportFormat;
+import com.safari.safarims.dto.allocation.AllocationResponse;
+import com.safari.safarims.dto.booking.BookingResponse;
+import com.safari.safarims.dto.payment.PaymentResponse;
+import com.safari.safarims.mapper.AllocationMapper;
+import com.safari.safarims.mapper.BookingMapper;
+import com.safari.safarims.mapper.PaymentMapper;
+import com.safari.safarims.repository.AllocationRepository;
+import com.safari.safarims.repository.BookingRepository;
+import com.safari.safarims.repository.PaymentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Streams full-table exports row by row. Each export holds one server-side cursor open inside a
+ * read-only transaction and only ever has a single mapped row in memory, so heap use does not grow
+ * with table size and the first bytes reach the client as soon as the first rows are fetched.
+ */
+@Service
+@Slf4j
+public class ExportService {
+
+    // Push bytes to the client regularly instead of waiting for the servlet buffer to fill.
+    private static final int FLUSH_EVERY_ROWS = 500;
+
+    private final BookingRepository bookingRepository;
+    private final AllocationRepository allocationRepository;
+    private final PaymentRepository paymentRepository;
+    private final BookingMapper bookingMapper;
+    private final AllocationMapper allocationMapper;
+    private final PaymentMapper paymentMapper;
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ExportService(BookingRepository bookingRepository,
+                         AllocationRepository allocationRepository,
+                         PaymentRepository paymentRepository,
+                         BookingMapper bookingMapper,
+                         AllocationMapper allocationMapper,
+                         PaymentMapper paymentMapper,
+                         ObjectMapper objectMapper,
+                         PlatformTransactionManager transactionManager) {
+        this.bookingRepository = bookingRepository;
+        this.allocationRepository = allocationRepository;
+        this.paymentRepository = paymentRepository;
+        this.bookingMapper = bookingMapper;
+        this.allocationMapper = allocationMapper;
+        this.paymentMapper = paymentMapper;
+        this.objectMapper = objectMapper;
+        this.csvMapper = CsvMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .build();
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public StreamingResponseBody exportBookings(ExportFormat format) {
+        return out -> export(format, BookingResponse.class, out,
+            () -> bookingRepository.streamAllRows().map(bookingMapper::toResponse));
+    }
+
+    public StreamingResponseBody exportAllocations(ExportFormat format) {
+        return out -> export(format, AllocationResponse.class, out,
+            () -> allocationRepository.streamAllRows().map(allocationMapper::toResponse));
+    }
+
+    public StreamingResponseBody exportPayments(ExportFormat format) {
+        return out -> export(format, PaymentResponse.class, out,
+            () -> paymentRepository.streamAllRows().map(paymentMapper::toResponse));
+    }
+
+    // Runs on the MVC async thread after the controller has returned, hence the programmatic transaction.
+    private <T> void export(ExportFormat format, Class<T> type, OutputStream out, Supplier<Stream<T>> rows) {
+        long started = System.currentTimeMillis();
+        long exported = readOnlyTransaction.execute(status -> {
+            long count = 0;
+            try (Stream<T> stream = rows.get();
+                 SequenceWriter writer = writerFor(format, type).writeValues(out)) {
+                for (T row : (Iterable<T>) stream::iterator) {
+                    writer.write(row);
+                    if (++count % FLUSH_EVERY_ROWS == 0) {
+                        writer.flush();
+                    }
+                }
+                writer.flush();
+                if (format == ExportFormat.NDJSON && count > 0) {
+                    out.write('\n');
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return count;
+        });
+        log.info("Exported {} {} rows as {} in {} ms",
+            exported, type.getSimpleName(), format, System.currentTimeMillis() - started);
+    }
+
+    private ObjectWriter writerFor(ExportFormat format, Class<?> type) {
+        ObjectWriter writer = switch (format) {
+            case NDJSON -> objectMapper.writerFor(type).withRootValueSeparator("\n");
+            case CSV -> csvMapper.writerFor(type).with(csvMapper.schemaFor(type).withHeader());
+        };
+        // The servlet container owns the response stream.
+        return writer.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+}
@@ -0,0 +1,106 @@
+package com.safari.safarims.service;
+
+import com.safari.safarims.common.enums.JeepStatus;
+import com.safari.safarims.dto.jeep.JeepBookingSpan;
+import com.safari.safarims.dto.jeep.JeepCalendarRow;
+import com.safari.safarims.repository.AllocationRepository;
+import com.safari.safarims.repository.JeepRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Loads {@link FleetCalendar} from allocations and jeep maintenance dates, and refreshes one jeep's
+ * row after any committed change that can move its availability.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FleetAvailabilityService {
+
+    // No end date is known for these, so the jeep is treated as unavailable for the whole horizon.
+    private static final Set<JeepStatus> GROUNDED_STATUSES = Set.of(
+        JeepStatus.MAINTENANCE,
+        JeepStatus.UNDER_REPAIR,
+        JeepStatus.OUT_OF_SERVICE
+    );
+
+    private final JeepRepository jeepRepository;
+    private final AllocationRepository allocationRepository;
+    private final FleetCalendar fleetCalendar;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.fleet.calendar-horizon-days:366}")
+    private int horizonDays;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        LocalDate origin = LocalDate.now();
+        readOnly().executeWithoutResult(status -> {
+            Map<Long, List<JeepBookingSpan>> spansByJeep = allocationRepository.findActiveJeepSpans().stream()
+                .collect(Collectors.groupingBy(JeepBookingSpan::getJeepId));
+            List<FleetCalendar.JeepEntry> entries = jeepRepository.findCalendarRows().stream()
+                .map(row -> toEntry(row, spansByJeep.getOrDefault(row.getId(), List.of())))
+                .toList();
+            fleetCalendar.reset(origin, horizonDays, entries);
+            log.info("Fleet calendar rebuilt from {}: {} jeeps over {} days", origin, entries.size(), horizonDays);
+        });
+    }
+
+    public List<Long> findFreeJeepIds(LocalDate from, LocalDate to, int minCapacity) {
+        return fleetCalendar.freeJeeps(from, to, minCapacity);
+    }
+
+    /** Refreshes the jeep's calendar row once the current transaction commits. */
+    public void jeepChanged(Long jeepId) {
+        if (jeepId != null) {
+            AfterCommit.run(() -> refresh(jeepId));
+        }
+    }
+
+    private void refresh(Long jeepId) {
+        try {
+            readOnly().executeWithoutResult(status -> jeepRepository.findCalendarRow(jeepId).ifPresentOrElse(
+                row -> fleetCalendar.put(toEntry(row, allocationRepository.findActiveJeepSpansByJeepId(jeepId))),
+                () -> fleetCalendar.remove(jeepId)));
+        } catch (Exception e) {
+            // The periodic rebuild repairs the row.
+            log.error("Error refreshing fleet calendar for jeep {}: {}", jeepId, e.getMessage());
+        }
+    }
+
+    private TransactionTemplate readOnly() {
+        // Refreshes run from afterCommit callbacks, where the finished transaction is still bound.
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        template.setReadOnly(true);
+        return template;
+    }
+
+    private static FleetCalendar.JeepEntry toEntry(JeepCalendarRow row, List<JeepBookingSpan> spans) {
+        List<FleetCalendar.BusySpan> busy = new ArrayList<>(spans.size() + 1);
+        for (JeepBookingSpan span : spans) {
+            int days = span.getDays() != null && span.getDays() > 0 ? span.getDays() : 1;
+            busy.add(new FleetCalendar.BusySpan(span.getStartDate(), span.getStartDate().plusDays(days - 1L)));
+        }
+        if (row.getNextMaintenance() != null) {
+            LocalDate serviceDay = row.getNextMaintenance().toLocalDate();
+            busy.add(new FleetCalendar.BusySpan(serviceDay, serviceDay));
+        }
+        int capacity = row.getCapacity() != null ? row.getCapacity() : 0;
+        return new FleetCalendar.JeepEntry(row.getId(), capacity, GROUNDED_STATUSES.contains(row.getStatus()), busy);
+    }
+}
@@ -0,0 +1,165 @@
+package com.safari.safarims.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Day-by-day fleet occupancy as bitsets. Every jeep gets a fixed slot; for each day of the horizon a
+ * {@link BitSet} holds the slots that are busy that day, and capacities are indexed the same way, so
+ * "free jeeps of capacity at least N over a date range" is a handful of word-wide OR / AND-NOT ops.
+ *
+ * Like the maintenance dispatch queue this is a cache: {@link FleetAvailabilityService} builds it
+ * from the database and replaces single jeep rows after their changes commit.
+ */
+@Component
+public class FleetCalendar {
+
+    /** Inclusive date range during which a jeep cannot take a tour. */
+    public record BusySpan(LocalDate from, LocalDate to) {
+    }
+
+    /** Full calendar row for one jeep. Grounded jeeps are unavailable on every day. */
+    public record JeepEntry(Long id, int capacity, boolean grounded, List<BusySpan> busy) {
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private LocalDate origin = LocalDate.now();
+    private BitSet[] busyByDay = new BitSet[0];
+    private final Map<Long, Integer> slotsByJeep = new HashMap<>();
+    private final List<Long> jeepsBySlot = new ArrayList<>();
+    private final List<Integer> freeSlots = new ArrayList<>();
+    private final Map<Long, Integer> capacityByJeep = new HashMap<>();
+    private final TreeMap<Integer, BitSet> slotsByCapacity = new TreeMap<>();
+    private final BitSet grounded = new BitSet();
+
+    public void reset(LocalDate origin, int horizonDays, Collection<JeepEntry> jeeps) {
+        lock.writeLock().lock();
+        try {
+            this.origin = origin;
+            busyByDay = new BitSet[horizonDays];
+            for (int day = 0; day < horizonDays; day++) {
+                busyByDay[day] = new BitSet();
+            }
+            slotsByJeep.clear();
+            jeepsBySlot.clear();
+            freeSlots.clear();
+            capacityByJeep.clear();
+            slotsByCapacity.clear();
+            grounded.clear();
+            jeeps.forEach(this::putLocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(JeepEntry jeep) {
+        lock.writeLock().lock();
+        try {
+            putLocked(jeep);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long jeepId) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotsByJeep.remove(jeepId);
+            if (slot == null) {
+                return;
+            }
+            clearSlot(jeepId, slot);
+            jeepsBySlot.set(slot, null);
+            freeSlots.add(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Jeeps with at least {@code minCapacity} seats that are free on every day from {@code from} to {@code to}. */
+    public List<Long> freeJeeps(LocalDate from, LocalDate to, int minCapacity) {
+        lock.readLock().lock();
+        try {
+            int first = dayIndex(from);
+            int last = dayIndex(to);
+            if (first < 0 || last >= busyByDay.length || first > last) {
+                throw new RuntimeException("Dates must fall between " + origin + " and "
+                    + origin.plusDays(busyByDay.length - 1L) + ", in order");
+            }
+
+            BitSet candidates = new BitSet();
+            slotsByCapacity.tailMap(minCapacity, true).values().forEach(candidates::or);
+            candidates.andNot(grounded);
+            for (int day = first; day <= last && !candidates.isEmpty(); day++) {
+                candidates.andNot(busyByDay[day]);
+            }
+
+            List<Long> jeepIds = new ArrayList<>(candidates.cardinality());
+            for (int slot = candidates.nextSetBit(0); slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+                jeepIds.add(jeepsBySlot.get(slot));
+            }
+            return jeepIds;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void putLocked(JeepEntry jeep) {
+        Integer existing = slotsByJeep.get(jeep.id());
+        int slot;
+        if (existing != null) {
+            slot = existing;
+            clearSlot(jeep.id(), slot);
+        } else {
+            slot = freeSlots.isEmpty() ? jeepsBySlot.size() : freeSlots.remove(freeSlots.size() - 1);
+            if (slot == jeepsBySlot.size()) {
+                jeepsBySlot.add(jeep.id());
+            } else {
+                jeepsBySlot.set(slot, jeep.id());
+            }
+            slotsByJeep.put(jeep.id(), slot);
+        }
+
+        capacityByJeep.put(jeep.id(), jeep.capacity());
+        slotsByCapacity.computeIfAbsent(jeep.capacity(), capacity -> new BitSet()).set(slot);
+        grounded.set(slot, jeep.grounded());
+        for (BusySpan span : jeep.busy()) {
+            int first = Math.max(0, dayIndex(span.from()));
+            int last = Math.min(busyByDay.length - 1, dayIndex(span.to()));
+            for (int day = first; day <= last; day++) {
+                busyByDay[day].set(slot);
+            }
+        }
+    }
+
+    private void clearSlot(Long jeepId, int slot) {
+        for (BitSet day : busyByDay) {
+            day.clear(slot);
+        }
+        Integer capacity = capacityByJeep.remove(jeepId);
+        if (capacity != null) {
+            BitSet sameCapacity = slotsByCapacity.get(capacity);
+            sameCapacity.clear(slot);
+            if (sameCapacity.isEmpty()) {
+                slotsByCapacity.remove(capacity);
+            }
+        }
+        grounded.clear(slot);
+    }
+
+    private int dayIndex(LocalDate date) {
+        return Math.toIntExact(ChronoUnit.DAYS.between(origin, date));
+    }
+}
@@ -0,0 +1,189 @@
+package com.safari.safarims.service;
+
+import com.safari.safarims.repository.IdempotencyKeyRepository;
+import com.safari.safarims.repository.IdempotencyKeyRepository.StoredKey;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs a request at most once per Idempotency-Key. A bounded in-memory map answers repeats on this
+ * node, and coalesces duplicates that arrive while the first is still running onto its result. The
+ * idempotency_keys table makes the claim hold across nodes and restarts.
+ *
+ * Only 2xx responses are remembered; a failed attempt releases the key so the client can retry.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyService {
+
+    /** A response to send back: {@code body} is the serialised JSON, or null for an empty body. */
+    public record StoredResponse(int status, String body) {
+
+        boolean successful() {
+            return status >= 200 && status < 300;
+        }
+    }
+
+    /** Another request with this key is still running. */
+    public static final StoredResponse IN_PROGRESS = new StoredResponse(409, null);
+
+    /** The key was first used with a different request. */
+    public static final StoredResponse KEY_REUSED = new StoredResponse(422, null);
+
+    private record Entry(byte[] requestHash, CompletableFuture<StoredResponse> result, long expiresAtMillis) {
+    }
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${app.idempotency.memory-capacity:10000}")
+    private int memoryCapacity;
+
+    @Value("${app.idempotency.wait-timeout-ms:10000}")
+    private long waitTimeoutMs;
+
+    @Value("${app.idempotency.lock-timeout-seconds:60}")
+    private long lockTimeoutSeconds;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<String> rememberedOrder = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Returns the stored response for a repeat, or runs {@code action} when this is the first request
+     * with the key. {@code scope} keeps keys of different callers and endpoints apart.
+     */
+    public StoredResponse execute(String scope, String key, byte[] requestHash,
+                                  Callable<StoredResponse> action) throws Exception {
+        String id = scope + '\n' + key;
+        Entry own = new Entry(requestHash, new CompletableFuture<>(),
+            System.currentTimeMillis() + TimeUnit.HOURS.toMillis(ttlHours));
+        Entry existing;
+        while ((existing = entries.putIfAbsent(id, own)) != null && existing.expiresAtMillis() < System.currentTimeMillis()) {
+            entries.remove(id, existing);
+        }
+        if (existing != null) {
+            return awaitExisting(scope, existing, requestHash);
+        }
+
+        try {
+            StoredResponse response = runOwned(hash(id), requestHash, action);
+            own.result().complete(response);
+            if (response.successful()) {
+                remember(id);
+            } else {
+                entries.remove(id, own);
+            }
+            return response;
+        } catch (Exception e) {
+            own.result().completeExceptionally(e);
+            entries.remove(id, own);
+            throw e;
+        }
+    }
+
+    /** Drops expired keys from the table; the in-memory map ages out on access and by capacity. */
+    public int purgeExpired() {
+        int purged = 0;
+        int batch;
+        do {
+            batch = idempotencyKeyRepository.purgeExpired(LocalDateTime.now(), 5000);
+            purged += batch;
+        } while (batch > 0);
+        return purged;
+    }
+
+    private StoredResponse awaitExisting(String scope, Entry existing, byte[] requestHash) throws Exception {
+        if (!Arrays.equals(existing.requestHash(), requestHash)) {
+            return KEY_REUSED;
+        }
+        meterRegistry.counter("idempotency.requests", "outcome", existing.result().isDone() ? "replayed" : "coalesced").increment();
+        try {
+            return existing.result().get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Gave up waiting for a duplicate request in {}", scope);
+            return IN_PROGRESS;
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    private StoredResponse runOwned(byte[] keyHash, byte[] requestHash, Callable<StoredResponse> action) throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        if (!idempotencyKeyRepository.claim(keyHash, requestHash, now, now.plusHours(ttlHours))) {
+            Optional<StoredKey> stored = idempotencyKeyRepository.find(keyHash);
+            if (stored.isEmpty()) {
+                return IN_PROGRESS; // released between our insert and read; the client's retry will run it
+            }
+            StoredKey row = stored.get();
+            if (!Arrays.equals(row.requestHash(), requestHash)) {
+                return KEY_REUSED;
+            }
+            if (row.statusCode() != null) {
+                meterRegistry.counter("idempotency.requests", "outcome", "replayed").increment();
+                return new StoredResponse(row.statusCode(), row.responseBody());
+            }
+            if (!idempotencyKeyRepository.takeOver(keyHash, now.minusSeconds(lockTimeoutSeconds), now)) {
+                return IN_PROGRESS;
+            }
+        }
+
+        meterRegistry.counter("idempotency.requests", "outcome", "executed").increment();
+        StoredResponse response;
+        try {
+            response = action.call();
+        } catch (Exception e) {
+            idempotencyKeyRepository.release(keyHash);
+            throw e;
+        }
+        if (response.successful()) {
+            idempotencyKeyRepository.complete(keyHash, response.status(), response.body());
+        } else {
+            idempotencyKeyRepository.release(keyHash);
+        }
+        return response;
+    }
+
+    private void remember(String id) {
+        rememberedOrder.add(id);
+        while (entries.size() > memoryCapacity) {
+            String oldest = rememberedOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            entries.remove(oldest);
+        }
+    }
+
+    static byte[] hash(String value) {
+        return hash(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static byte[] hash(byte[] value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.safari.safarims.service;
 
+import com.safari.safarims.dto.jeep.JeepAllocationCount;
 import com.safari.safarims.dto.jeep.JeepRequest;
 import com.safari.safarims.dto.jeep.JeepResponse;
 import com.safari.safarims.entity.Jeep;
@@ -8,13 +9,17 @@ import com.safari.safarims.common.enums.JeepStatus;
 import com.safari.safarims.repository.JeepRepository;
 import com.safari.safarims.repository.DriverRepository;
 import com.safari.safarims.repository.AllocationRepository;
+import com.safari.safarims.mapper.JeepMapper;
+import com.safari.safarims.common.retry.RetryOnConflict;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,18 +30,22 @@ public class JeepService {
     private final JeepRepository jeepRepository;
     private final DriverRepository driverRepository;
     private final AllocationRepository allocationRepository;
+    private final JeepMapper jeepMapper;
+    private final FleetAvailabilityService fleetAvailabilityService;
 
     public List<JeepResponse> getAllJeeps() {
-        return jeepRepository.findAll().stream()
-            .map(this::mapToResponse)
-            .collect(Collectors.toList());
+        return mapToResponses(jeepRepository.findAll());
     }
 
     public List<JeepResponse> getAvailableJeeps() {
         List<JeepStatus> availableStatuses = List.of(JeepStatus.AVAILABLE);
-        return jeepRepository.findByStatusIn(availableStatuses).stream()
-            .map(this::mapToResponse)
-            .collect(Collectors.toList());
+        return mapToResponses(jeepRepository.findByStatusIn(availableStatuses));
+    }
+
+    /** Jeeps free for the whole date range, answered from the fleet calendar. */
+    public List<JeepResponse> getAvailableJeeps(LocalDate from, LocalDate to, int minCapacity) {
+        List<Long> jeepIds = fleetAvailabilityService.findFreeJeepIds(from, to, minCapacity);
+        return mapToResponses(jeepRepository.findAllById(jeepIds));
     }
 
     public JeepResponse getJeepById(Long id) {
@@ -73,11 +82,13 @@ public class JeepService {
         jeep.setUpdatedBy(currentUsername);
 
         Jeep saved = jeepRepository.save(jeep);
+        fleetAvailabilityService.jeepChanged(saved.getId());
         log.info("Jeep created: {} by {}", saved.getPlateNo(), currentUsername);
 
         return mapToResponse(saved);
     }
 
+    @RetryOnConflict
     @Transactional
     public JeepResponse updateJeep(Long id, JeepRequest request) {
         String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
@@ -106,6 +117,7 @@ public class JeepService {
         jeep.setUpdatedBy(currentUsername);
 
         Jeep updated = jeepRepository.save(jeep);
+        fleetAvailabilityService.jeepChanged(updated.getId());
         log.info("Jeep updated: {} by {}", updated.getPlateNo(), currentUsername);
 
         return mapToResponse(updated);
@@ -127,9 +139,11 @@ public class JeepService {
         }
 
         jeepRepository.delete(jeep);
+        fleetAvailabilityService.jeepChanged(id);
         log.info("Jeep deleted: {} by {}", jeep.getPlateNo(), currentUsername);
     }
 
+    @RetryOnConflict
     @Transactional
     public void setDefaultDriver(Long jeepId, Long driverId) {
         String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
@@ -148,6 +162,7 @@ public class JeepService {
             jeep.getPlateNo(), driver.getFullName(), currentUsername);
     }
 
+    @RetryOnConflict
     @Transactional
     public void updateJeepStatus(Long jeepId, JeepStatus status) {
         String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
@@ -158,36 +173,30 @@ public class JeepService {
         jeep.setStatus(status);
         jeep.setUpdatedBy(currentUsername);
         jeepRepository.save(jeep);
+        fleetAvailabilityService.jeepChanged(jeepId);
 
         log.info("Jeep {} status updated to {} by {}",
             jeep.getPlateNo(), status, currentUsername);
     }
 
     public List<JeepResponse> getJeepsByDriver(Long driverId) {
-        return jeepRepository.findByDefaultDriverId(driverId).stream()
-            .map(this::mapToResponse)
-            .collect(Collectors.toList());
+        return mapToResponses(jeepRepository.findByDefaultDriverId(driverId));
     }
 
     private JeepResponse mapToResponse(Jeep jeep) {
-        int activeAllocationsCount = allocationRepository.findActiveAllocationsByJeepId(jeep.getId()).size();
-
-        return JeepResponse.builder()
-            .id(jeep.getId())
-            .plateNo(jeep.getPlateNo())
-            .model(jeep.getModel())
-            .capacity(jeep.getCapacity())
-            .status(jeep.getStatus())
-            .defaultDriverId(jeep.getDefaultDriver() != null ? jeep.getDefaultDriver().getId() : null)
-            .defaultDriverName(jeep.getDefaultDriver() != null ? jeep.getDefaultDriver().getFullName() : null)
-            .defaultDriverPhone(jeep.getDefaultDriver() != null ? jeep.getDefaultDriver().getPhone() : null)
-            .defaultDriverLicense(jeep.getDefaultDriver() != null ? jeep.getDefaultDriver().getLicenseNo() : null)
-            .createdAt(jeep.getCreatedAt())
-            .updatedAt(jeep.getUpdatedAt())
-            .createdBy(jeep.getCreatedBy())
-            .updatedBy(jeep.getUpdatedBy())
-            .isAvailable(jeep.getStatus() == JeepStatus.AVAILABLE)
-            .activeAllocationsCount(activeAllocationsCount)
-            .build();
+        return mapToResponses(List.of(jeep)).get(0);
+    }
+
+    // One grouped count query for the whole list instead of one allocation query per jeep.
+    private List<JeepResponse> mapToResponses(List<Jeep> jeeps) {
+        if (jeeps.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Long> activeCounts = allocationRepository.countActiveAllocationsByJeepIds(
+                jeeps.stream().map(Jeep::getId).toList()).stream()
+            .collect(Collectors.toMap(JeepAllocationCount::getJeepId, JeepAllocationCount::getActiveCount));
+        return jeeps.stream()
+            .map(jeep -> jeepMapper.toResponse(jeep, activeCounts.getOrDefault(jeep.getId(), 0L).intValue()))
+            .collect(Collectors.toList());
     }
 }
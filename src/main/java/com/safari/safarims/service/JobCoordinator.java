@@ -0,0 +1,142 @@
+package com.safari.safarims.service;
+
+import com.safari.safarims.common.id.IdGenerator;
+import com.safari.safarims.repository.SchedulerCoordinationRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Coordinates @Scheduled jobs across app nodes through SQL Server rows, with no external service.
+ *
+ * Each node heartbeats into scheduler_nodes and competes for the 'leader' lease in
+ * scheduler_leases. Singleton jobs run only where {@link #isLeader()} holds; sharded jobs take the
+ * rows where {@code id % shard.count == shard.index}, the shard being this node's position among
+ * the live nodes. Both answers are cached locally between heartbeats so job code never hits the DB
+ * to ask.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class JobCoordinator {
+
+    private static final String LEADER_LEASE = "leader";
+
+    private final SchedulerCoordinationRepository coordinationRepository;
+    private final IdGenerator idGenerator;
+
+    @Value("${app.scheduler.node-id:}")
+    private String configuredNodeId;
+
+    @Value("${app.scheduler.lease-ttl-ms:30000}")
+    private long leaseTtlMillis;
+
+    private String nodeId;
+    private volatile long leaderUntilNanos;
+    private volatile Shard shard;
+
+    public record Shard(int index, int count) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        nodeId = resolveNodeId();
+        heartbeat();
+        log.info("Scheduler node {} joined: leader={}, shard={}", nodeId, isLeader(), shard);
+    }
+
+    // Lease TTL is three heartbeats, so one slow beat does not lose leadership.
+    @Scheduled(fixedDelayString = "${app.scheduler.heartbeat-ms:10000}")
+    public void heartbeat() {
+        if (nodeId == null) {
+            return;
+        }
+        try {
+            long started = System.nanoTime();
+            coordinationRepository.heartbeat(nodeId);
+
+            boolean wasLeader = isLeader();
+            if (coordinationRepository.tryAcquireLease(LEADER_LEASE, nodeId, leaseTtlMillis)) {
+                // Measured from before the renewal so our view always expires before the DB lease does.
+                leaderUntilNanos = started + leaseTtlMillis * 1_000_000L;
+                if (!wasLeader) {
+                    log.info("Scheduler node {} became leader", nodeId);
+                    coordinationRepository.purgeDeadNodes(leaseTtlMillis * 10);
+                }
+            } else if (wasLeader) {
+                log.warn("Scheduler node {} lost leadership", nodeId);
+                leaderUntilNanos = 0;
+            }
+
+            List<String> liveNodes = coordinationRepository.findLiveNodes(leaseTtlMillis);
+            int index = liveNodes.indexOf(nodeId);
+            Shard next = index >= 0 ? new Shard(index, liveNodes.size()) : null;
+            if (!Objects.equals(next, shard)) {
+                log.info("Scheduler node {} now owns shard {}", nodeId, next);
+                warnIfIdsMayCollide(next);
+            }
+            shard = next;
+        } catch (Exception e) {
+            // Without a fresh heartbeat we cannot vouch for our view; stand down until the next one.
+            log.error("Scheduler heartbeat failed for node {}: {}", nodeId, e.getMessage());
+            leaderUntilNanos = 0;
+            shard = null;
+        }
+    }
+
+    public boolean isLeader() {
+        return leaderUntilNanos != 0 && System.nanoTime() - leaderUntilNanos < 0;
+    }
+
+    /** This node's slice of sharded work, or empty until the node has registered. */
+    public Optional<Shard> currentShard() {
+        return Optional.ofNullable(shard);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (nodeId == null) {
+            return;
+        }
+        try {
+            coordinationRepository.releaseLease(LEADER_LEASE, nodeId);
+            coordinationRepository.removeNode(nodeId);
+            log.info("Scheduler node {} left", nodeId);
+        } catch (Exception e) {
+            log.warn("Scheduler node {} could not deregister: {}", nodeId, e.getMessage());
+        }
+    }
+
+    // Host-derived id-generator node ids can collide, and colliding ids mean duplicate tx_refs. Only a
+    // warning: a restart within the lease TTL or a rolling deploy briefly shows extra live nodes too.
+    private void warnIfIdsMayCollide(Shard next) {
+        if (next != null && next.count() > 1 && !idGenerator.isNodeConfigured()) {
+            log.warn("{} scheduler nodes are live but app.ids.node-id is not set; "
+                + "give every node a distinct value (APP_NODE_ID) when running several nodes", next.count());
+        }
+    }
+
+    private String resolveNodeId() {
+        if (configuredNodeId != null && !configuredNodeId.isBlank()) {
+            return configuredNodeId;
+        }
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
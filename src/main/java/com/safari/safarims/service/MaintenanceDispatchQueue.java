@@ -0,0 +1,219 @@
+package com.safari.safarims.service;
+
+import com.safari.safarims.common.enums.TicketSeverity;
+import com.safari.safarims.dto.ticket.DispatchStateResponse;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory dispatch state for maintenance: unassigned OPEN tickets ordered by severity then age, and
+ * available mechanics ordered by open-ticket load, both overall and per skill. Enqueue, removal, load
+ * changes and picking the least-loaded qualified mechanic are all O(log n) tree operations.
+ *
+ * This is a cache of the database: {@link MaintenanceDispatchService} rebuilds it from the tickets
+ * table on startup and periodically, and only mutates it after the matching transaction commits.
+ */
+@Component
+public class MaintenanceDispatchQueue {
+
+    public record QueuedTicket(Long id, TicketSeverity severity, LocalDateTime openedAt, Set<String> words) {
+    }
+
+    public record MechanicProfile(Long id, String fullName, Set<String> skills, boolean available) {
+    }
+
+    public record Assignment(Long ticketId, Long mechanicId) {
+    }
+
+    private static final Comparator<QueuedTicket> PRIORITY = Comparator
+        .comparing(QueuedTicket::severity, Comparator.reverseOrder())
+        .thenComparing(QueuedTicket::openedAt)
+        .thenComparing(QueuedTicket::id);
+
+    private static final Comparator<MechanicLoad> LEAST_LOADED = Comparator
+        .comparingInt((MechanicLoad load) -> load.openTickets)
+        .thenComparing(load -> load.profile.id());
+
+    private static final class MechanicLoad {
+        private final MechanicProfile profile;
+        private int openTickets;
+
+        private MechanicLoad(MechanicProfile profile, int openTickets) {
+            this.profile = profile;
+            this.openTickets = openTickets;
+        }
+    }
+
+    private final TreeSet<QueuedTicket> tickets = new TreeSet<>(PRIORITY);
+    private final Map<Long, QueuedTicket> ticketsById = new HashMap<>();
+    private final Map<Long, MechanicLoad> mechanicsById = new HashMap<>();
+    private final TreeSet<MechanicLoad> availableMechanics = new TreeSet<>(LEAST_LOADED);
+    private final Map<String, TreeSet<MechanicLoad>> availableBySkill = new HashMap<>();
+
+    public synchronized void reset(Collection<QueuedTicket> openTickets, Collection<MechanicProfile> mechanics,
+                                   Map<Long, Integer> openTicketsByMechanic) {
+        tickets.clear();
+        ticketsById.clear();
+        mechanicsById.clear();
+        availableMechanics.clear();
+        availableBySkill.clear();
+
+        openTickets.forEach(this::enqueueLocked);
+        for (MechanicProfile profile : mechanics) {
+            MechanicLoad load = new MechanicLoad(profile, openTicketsByMechanic.getOrDefault(profile.id(), 0));
+            mechanicsById.put(profile.id(), load);
+            index(load);
+        }
+    }
+
+    public synchronized void enqueue(QueuedTicket ticket) {
+        enqueueLocked(ticket);
+    }
+
+    public synchronized void remove(Long ticketId) {
+        QueuedTicket ticket = ticketsById.remove(ticketId);
+        if (ticket != null) {
+            tickets.remove(ticket);
+        }
+    }
+
+    public synchronized void adjustLoad(Long mechanicId, int delta) {
+        MechanicLoad load = mechanicsById.get(mechanicId);
+        if (load == null) {
+            // Mechanic created after the last rebuild; the next reconcile picks them up.
+            return;
+        }
+        unindex(load);
+        load.openTickets = Math.max(0, load.openTickets + delta);
+        index(load);
+    }
+
+    /**
+     * Takes the highest-priority ticket some available mechanic is qualified for and reserves it for
+     * the least-loaded such mechanic. A ticket qualifies a mechanic when it mentions one of their
+     * skills; tickets that mention no known skill go to the least-loaded mechanic overall.
+     */
+    public synchronized Optional<Assignment> pollNext() {
+        for (QueuedTicket ticket : tickets) {
+            Optional<MechanicLoad> mechanic = leastLoadedFor(ticket);
+            if (mechanic.isPresent()) {
+                MechanicLoad load = mechanic.get();
+                tickets.remove(ticket);
+                ticketsById.remove(ticket.id());
+                unindex(load);
+                load.openTickets++;
+                index(load);
+                return Optional.of(new Assignment(ticket.id(), load.profile.id()));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /** Undoes a {@link #pollNext()} reservation whose assignment could not be committed. */
+    public synchronized void release(Assignment assignment, QueuedTicket ticket) {
+        adjustLoad(assignment.mechanicId(), -1);
+        if (ticket != null) {
+            enqueueLocked(ticket);
+        }
+    }
+
+    public synchronized DispatchStateResponse snapshot() {
+        return DispatchStateResponse.builder()
+            .queuedTicketIds(tickets.stream().map(QueuedTicket::id).toList())
+            .mechanics(mechanicsById.values().stream()
+                .sorted(LEAST_LOADED)
+                .map(load -> DispatchStateResponse.MechanicLoad.builder()
+                    .mechanicId(load.profile.id())
+                    .fullName(load.profile.fullName())
+                    .skills(load.profile.skills())
+                    .available(load.profile.available())
+                    .openTickets(load.openTickets)
+                    .build())
+                .toList())
+            .build();
+    }
+
+    public static Set<String> words(String... texts) {
+        return Arrays.stream(texts)
+            .filter(text -> text != null && !text.isBlank())
+            .flatMap(text -> Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")))
+            .filter(word -> !word.isEmpty())
+            .collect(Collectors.toSet());
+    }
+
+    public static Set<String> skills(String skills) {
+        if (skills == null) {
+            return Set.of();
+        }
+        return Arrays.stream(skills.toLowerCase(Locale.ROOT).split("[,;/|]"))
+            .map(String::trim)
+            .filter(skill -> !skill.isEmpty())
+            .collect(Collectors.toSet());
+    }
+
+    private void enqueueLocked(QueuedTicket ticket) {
+        QueuedTicket previous = ticketsById.put(ticket.id(), ticket);
+        if (previous != null) {
+            tickets.remove(previous);
+        }
+        tickets.add(ticket);
+    }
+
+    private Optional<MechanicLoad> leastLoadedFor(QueuedTicket ticket) {
+        MechanicLoad best = null;
+        boolean skillMentioned = false;
+        for (Map.Entry<String, TreeSet<MechanicLoad>> skill : availableBySkill.entrySet()) {
+            if (!mentions(ticket, skill.getKey())) {
+                continue;
+            }
+            skillMentioned = true;
+            MechanicLoad candidate = skill.getValue().first();
+            if (best == null || LEAST_LOADED.compare(candidate, best) < 0) {
+                best = candidate;
+            }
+        }
+        if (!skillMentioned && !availableMechanics.isEmpty()) {
+            best = availableMechanics.first();
+        }
+        return Optional.ofNullable(best);
+    }
+
+    // Multi-word skills ("air conditioning") match when every word appears in the ticket.
+    private static boolean mentions(QueuedTicket ticket, String skill) {
+        return ticket.words().containsAll(words(skill));
+    }
+
+    private void index(MechanicLoad load) {
+        if (!load.profile.available()) {
+            return;
+        }
+        availableMechanics.add(load);
+        for (String skill : load.profile.skills()) {
+            availableBySkill.computeIfAbsent(skill, key -> new TreeSet<>(LEAST_LOADED)).add(load);
+        }
+    }
+
+    private void unindex(MechanicLoad load) {
+        availableMechanics.remove(load);
+        for (String skill : load.profile.skills()) {
+            TreeSet<MechanicLoad> bySkill = availableBySkill.get(skill);
+            if (bySkill != null) {
+                bySkill.remove(load);
+                if (bySkill.isEmpty()) {
+                    availableBySkill.remove(skill);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.safari.safarims.service;
+
+import com.safari.safarims.common.enums.TicketStatus;
+import com.safari.safarims.dto.ticket.DispatchStateResponse;
+import com.safari.safarims.dto.ticket.MaintenanceTicketResponse;
+import com.safari.safarims.entity.MaintenanceTicket;
+import com.safari.safarims.entity.Mechanic;
+import com.safari.safarims.event.DomainEvent;
+import com.safari.safarims.event.DomainEventBus;
+import com.safari.safarims.mapper.MaintenanceTicketMapper;
+import com.safari.safarims.repository.MaintenanceTicketRepository;
+import com.safari.safarims.repository.MechanicRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keeps {@link MaintenanceDispatchQueue} in step with the tickets table and assigns queued tickets
+ * to mechanics. Queue mutations from ticket changes are deferred until the transaction commits, so a
+ * rolled-back change never leaks into memory.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MaintenanceDispatchService {
+
+    static final List<TicketStatus> ACTIVE_STATUSES = List.of(
+        TicketStatus.OPEN,
+        TicketStatus.IN_PROGRESS,
+        TicketStatus.ON_HOLD
+    );
+
+    private final MaintenanceTicketRepository ticketRepository;
+    private final MechanicRepository mechanicRepository;
+    private final DomainEventBus eventBus;
+    private final MaintenanceTicketMapper ticketMapper;
+    private final MaintenanceDispatchQueue dispatchQueue;
+    private final PlatformTransactionManager transactionManager;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rehydrate() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            List<MaintenanceDispatchQueue.QueuedTicket> queued = new ArrayList<>();
+            Map<Long, Integer> openByMechanic = new HashMap<>();
+            for (MaintenanceTicket ticket : ticketRepository.findByStatusInOrderBySeverityAndDate(ACTIVE_STATUSES)) {
+                if (ticket.getAssigneeMechanic() != null) {
+                    openByMechanic.merge(ticket.getAssigneeMechanic().getId(), 1, Integer::sum);
+                } else if (ticket.getStatus() == TicketStatus.OPEN) {
+                    queued.add(toQueued(ticket));
+                }
+            }
+            List<MaintenanceDispatchQueue.MechanicProfile> mechanics = mechanicRepository.findAll().stream()
+                .map(MaintenanceDispatchService::toProfile)
+                .toList();
+            dispatchQueue.reset(queued, mechanics, openByMechanic);
+            log.info("Maintenance dispatch queue rebuilt: {} queued tickets, {} mechanics", queued.size(), mechanics.size());
+        });
+    }
+
+    /** Assigns up to {@code max} queued tickets, each to the least-loaded qualified mechanic. */
+    public List<MaintenanceTicketResponse> dispatchPending(int max) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<MaintenanceTicketResponse> dispatched = new ArrayList<>();
+        while (dispatched.size() < max) {
+            Optional<MaintenanceDispatchQueue.Assignment> next = dispatchQueue.pollNext();
+            if (next.isEmpty()) {
+                break;
+            }
+            MaintenanceDispatchQueue.Assignment assignment = next.get();
+            try {
+                MaintenanceTicketResponse response = transaction.execute(status -> assign(assignment));
+                if (response != null) {
+                    dispatched.add(response);
+                } else {
+                    // Ticket was assigned or closed elsewhere; drop it and give the reservation back.
+                    dispatchQueue.adjustLoad(assignment.mechanicId(), -1);
+                }
+            } catch (Exception e) {
+                log.error("Auto-dispatch of ticket {} to mechanic {} failed: {}",
+                    assignment.ticketId(), assignment.mechanicId(), e.getMessage());
+                dispatchQueue.release(assignment, ticketRepository.findById(assignment.ticketId())
+                    .filter(ticket -> ticket.getStatus() == TicketStatus.OPEN && ticket.getAssigneeMechanic() == null)
+                    .map(MaintenanceDispatchService::toQueued)
+                    .orElse(null));
+                break;
+            }
+        }
+        if (!dispatched.isEmpty()) {
+            log.info("Auto-dispatched {} maintenance tickets", dispatched.size());
+        }
+        return dispatched;
+    }
+
+    public DispatchStateResponse getState() {
+        return dispatchQueue.snapshot();
+    }
+
+    public void ticketOpened(MaintenanceTicket ticket) {
+        MaintenanceDispatchQueue.QueuedTicket queued = toQueued(ticket);
+        AfterCommit.run(() -> dispatchQueue.enqueue(queued));
+    }
+
+    public void ticketAssigned(Long ticketId, Long previousMechanicId, boolean wasActive, Long mechanicId) {
+        AfterCommit.run(() -> {
+            dispatchQueue.remove(ticketId);
+            if (wasActive && previousMechanicId != null) {
+                dispatchQueue.adjustLoad(previousMechanicId, -1);
+            }
+            dispatchQueue.adjustLoad(mechanicId, 1);
+        });
+    }
+
+    public void ticketStatusChanged(MaintenanceTicket ticket, TicketStatus previousStatus) {
+        boolean wasActive = ACTIVE_STATUSES.contains(previousStatus);
+        boolean isActive = ACTIVE_STATUSES.contains(ticket.getStatus());
+        Long mechanicId = ticket.getAssigneeMechanic() != null ? ticket.getAssigneeMechanic().getId() : null;
+        MaintenanceDispatchQueue.QueuedTicket queued =
+            ticket.getStatus() == TicketStatus.OPEN && mechanicId == null ? toQueued(ticket) : null;
+
+        AfterCommit.run(() -> {
+            if (wasActive && !isActive) {
+                dispatchQueue.remove(ticket.getId());
+                if (mechanicId != null) {
+                    dispatchQueue.adjustLoad(mechanicId, -1);
+                }
+            } else if (!wasActive && isActive) {
+                if (mechanicId != null) {
+                    dispatchQueue.adjustLoad(mechanicId, 1);
+                } else if (queued != null) {
+                    dispatchQueue.enqueue(queued);
+                }
+            }
+        });
+    }
+
+    // Claims with a conditional UPDATE before loading the ticket, so a ticket assigned or closed
+    // elsewhere since it was queued (on this node or another) is skipped instead of overwritten.
+    private MaintenanceTicketResponse assign(MaintenanceDispatchQueue.Assignment assignment) {
+        Mechanic mechanic = mechanicRepository.findById(assignment.mechanicId())
+            .orElseThrow(() -> new RuntimeException("Mechanic not found"));
+        if (ticketRepository.claimOpen(assignment.ticketId(), mechanic, LocalDateTime.now(), "auto-dispatch") == 0) {
+            return null;
+        }
+        MaintenanceTicket ticket = ticketRepository.findById(assignment.ticketId())
+            .orElseThrow(() -> new RuntimeException("Ticket not found"));
+
+        eventBus.publish(new DomainEvent.TicketAssigned(ticket.getId(), mechanic.getUser().getId()));
+
+        log.info("Mechanic {} auto-assigned to ticket {}", mechanic.getFullName(), ticket.getId());
+        return ticketMapper.toResponse(ticket);
+    }
+
+    private static MaintenanceDispatchQueue.QueuedTicket toQueued(MaintenanceTicket ticket) {
+        LocalDateTime openedAt = ticket.getOpenedAt() != null ? ticket.getOpenedAt() : LocalDateTime.now();
+        return new MaintenanceDispatchQueue.QueuedTicket(ticket.getId(), ticket.getSeverity(), openedAt,
+            MaintenanceDispatchQueue.words(ticket.getTitle(), ticket.getDescription()));
+    }
+
+    private static MaintenanceDispatchQueue.MechanicProfile toProfile(Mechanic mechanic) {
+        return new MaintenanceDispatchQueue.MechanicProfile(mechanic.getId(), mechanic.getFullName(),
+            MaintenanceDispatchQueue.skills(mechanic.getSkills()), !Boolean.FALSE.equals(mechanic.getIsAvailable()));
+    }
+}
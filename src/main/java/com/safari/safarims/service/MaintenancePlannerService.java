@@ -0,0 +1,237 @@
+package com.safari.safarims.service;
+
+import com.safari.safarims.common.enums.BookingStatus;
+import com.safari.safarims.common.enums.TicketSeverity;
+import com.safari.safarims.dto.jeep.JeepBookingSpan;
+import com.safari.safarims.dto.jeep.MaintenancePlanResponse;
+import com.safari.safarims.dto.report.DateCount;
+import com.safari.safarims.entity.Jeep;
+import com.safari.safarims.repository.AllocationRepository;
+import com.safari.safarims.repository.BookingRepository;
+import com.safari.safarims.repository.JeepRepository;
+import com.safari.safarims.repository.MaintenanceTicketRepository;
+import com.safari.safarims.common.retry.RetryOnConflict;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Plans each jeep's next service from its km/day rate, the time since its last service and its
+ * recent ticket history, then places the service on the quietest day of the window before it is
+ * due. A plan is recomputed only for the jeep whose mileage, tickets or service record changed;
+ * the daily sweep only touches jeeps with no plan or an overdue one.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MaintenancePlannerService {
+
+    private static final List<BookingStatus> NO_DEMAND = List.of(BookingStatus.CANCELLED, BookingStatus.EXPIRED);
+
+    private final JeepRepository jeepRepository;
+    private final MaintenanceTicketRepository ticketRepository;
+    private final BookingRepository bookingRepository;
+    private final AllocationRepository allocationRepository;
+    private final FleetAvailabilityService fleetAvailabilityService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.maintenance.planner.service-interval-km:5000}")
+    private double serviceIntervalKm;
+
+    @Value("${app.maintenance.planner.service-interval-days:90}")
+    private int serviceIntervalDays;
+
+    @Value("${app.maintenance.planner.default-km-per-day:80}")
+    private double defaultKmPerDay;
+
+    @Value("${app.maintenance.planner.history-days:180}")
+    private int historyDays;
+
+    @Value("${app.maintenance.planner.window-days:7}")
+    private int windowDays;
+
+    @Value("${app.maintenance.planner.services-per-day:2}")
+    private int servicesPerDay;
+
+    @Transactional
+    public MaintenancePlanResponse planJeep(Long jeepId) {
+        Jeep jeep = jeepRepository.findById(jeepId)
+            .orElseThrow(() -> new RuntimeException("Jeep not found with id: " + jeepId));
+        return plan(jeep);
+    }
+
+    @RetryOnConflict
+    @Transactional
+    public MaintenancePlanResponse recordMileage(Long jeepId, double mileage) {
+        Jeep jeep = jeepRepository.findById(jeepId)
+            .orElseThrow(() -> new RuntimeException("Jeep not found with id: " + jeepId));
+        if (jeep.getCurrentMileage() != null && mileage < jeep.getCurrentMileage()) {
+            throw new RuntimeException("Mileage cannot go down (current " + jeep.getCurrentMileage() + ")");
+        }
+        jeep.setCurrentMileage(mileage);
+        return plan(jeep);
+    }
+
+    /** Starts a new service interval for the jeep; called when one of its tickets is resolved. */
+    public void recordServiceCompleted(Jeep jeep, LocalDateTime completedAt) {
+        jeep.setLastMaintenance(completedAt);
+        jeep.setLastServiceMileage(jeep.getCurrentMileage());
+        plan(jeep);
+    }
+
+    /** Plans jeeps that have no plan yet or whose planned day has passed. */
+    public int planPending() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<Long> jeepIds = jeepRepository.findIdsNeedingServicePlan(LocalDate.now().atStartOfDay());
+        int planned = 0;
+        for (Long jeepId : jeepIds) {
+            try {
+                transaction.executeWithoutResult(status -> planJeep(jeepId));
+                planned++;
+            } catch (Exception e) {
+                log.error("Error planning service for jeep {}: {}", jeepId, e.getMessage());
+            }
+        }
+        if (planned > 0) {
+            log.info("Planned services for {} jeeps", planned);
+        }
+        return planned;
+    }
+
+    private MaintenancePlanResponse plan(Jeep jeep) {
+        LocalDate today = LocalDate.now();
+
+        List<TicketSeverity> history = ticketRepository.findSeveritiesByVehicleSince(
+            jeep.getId(), today.minusDays(historyDays).atStartOfDay());
+        double wear = 1 + 0.1 * history.stream().mapToDouble(MaintenancePlannerService::weight).sum();
+        // A jeep that keeps breaking down gets shorter intervals, but never below half.
+        double intervalFactor = Math.max(0.5, 1 / wear);
+
+        double kmPerDay = kmPerDay(jeep, today);
+        double kmSinceService = jeep.getCurrentMileage() != null && jeep.getLastServiceMileage() != null
+            ? jeep.getCurrentMileage() - jeep.getLastServiceMileage() : 0;
+        double remainingKm = Math.max(0, serviceIntervalKm * intervalFactor - kmSinceService);
+        LocalDate dueByMileage = today.plusDays((long) Math.ceil(remainingKm / kmPerDay));
+
+        LocalDate lastService = jeep.getLastMaintenance() != null ? jeep.getLastMaintenance().toLocalDate()
+            : jeep.getCreatedAt() != null ? jeep.getCreatedAt().toLocalDate() : today;
+        LocalDate dueByTime = lastService.plusDays(Math.round(serviceIntervalDays * intervalFactor));
+
+        LocalDate due = max(today.plusDays(1), dueByMileage.isBefore(dueByTime) ? dueByMileage : dueByTime);
+        LocalDate windowStart = max(today.plusDays(1), due.minusDays(windowDays));
+        // If the jeep is on tour for the whole window, look up to one window past the due date.
+        LocalDate windowEnd = due.plusDays(windowDays);
+
+        Map<LocalDate, Long> demand = bookingRepository.countByRequestedDateBetween(windowStart, windowEnd, NO_DEMAND)
+            .stream().collect(Collectors.toMap(DateCount::getDate, DateCount::getCount));
+        Map<LocalDate, Integer> services = new HashMap<>();
+        jeepRepository.findOtherServiceDatesBetween(jeep.getId(), windowStart.atStartOfDay(),
+                windowEnd.plusDays(1).atStartOfDay())
+            .forEach(date -> services.merge(date.toLocalDate(), 1, Integer::sum));
+        Set<LocalDate> onTour = tourDays(jeep.getId());
+
+        LocalDate scheduled = pickDay(windowStart, due, demand, services, onTour);
+        if (scheduled == null) {
+            scheduled = pickDay(due.plusDays(1), windowEnd, demand, services, onTour);
+        }
+        if (scheduled == null) {
+            log.warn("No free service day for jeep {} around {}; scheduling on the due date", jeep.getPlateNo(), due);
+            scheduled = due;
+        }
+
+        jeep.setNextMaintenance(scheduled.atStartOfDay());
+        jeepRepository.save(jeep);
+        fleetAvailabilityService.jeepChanged(jeep.getId());
+
+        log.info("Service for jeep {} due {} scheduled on {} ({} km/day, {} recent tickets)",
+            jeep.getPlateNo(), due, scheduled, Math.round(kmPerDay), history.size());
+
+        return MaintenancePlanResponse.builder()
+            .jeepId(jeep.getId())
+            .plateNo(jeep.getPlateNo())
+            .kmPerDay(kmPerDay)
+            .recentTickets(history.size())
+            .dueDate(due)
+            .scheduledDate(scheduled)
+            .bookingsOnScheduledDate(demand.getOrDefault(scheduled, 0L))
+            .servicesOnScheduledDate(services.getOrDefault(scheduled, 0) + 1)
+            .build();
+    }
+
+    /**
+     * Fewest bookings wins. Among equally quiet days, prefer one that already has services booked
+     * (so the workshop batches them), then the later day (so less of the interval is wasted).
+     */
+    private LocalDate pickDay(LocalDate from, LocalDate to, Map<LocalDate, Long> demand,
+                              Map<LocalDate, Integer> services, Set<LocalDate> onTour) {
+        LocalDate best = null;
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            int planned = services.getOrDefault(day, 0);
+            if (onTour.contains(day) || planned >= servicesPerDay) {
+                continue;
+            }
+            if (best == null) {
+                best = day;
+                continue;
+            }
+            long bookings = demand.getOrDefault(day, 0L);
+            long bestBookings = demand.getOrDefault(best, 0L);
+            if (bookings < bestBookings
+                || (bookings == bestBookings && planned >= services.getOrDefault(best, 0))) {
+                best = day;
+            }
+        }
+        return best;
+    }
+
+    private Set<LocalDate> tourDays(Long jeepId) {
+        Set<LocalDate> days = new HashSet<>();
+        for (JeepBookingSpan span : allocationRepository.findActiveJeepSpansByJeepId(jeepId)) {
+            int length = span.getDays() != null && span.getDays() > 0 ? span.getDays() : 1;
+            for (int i = 0; i < length; i++) {
+                days.add(span.getStartDate().plusDays(i));
+            }
+        }
+        return days;
+    }
+
+    private double kmPerDay(Jeep jeep, LocalDate today) {
+        if (jeep.getCurrentMileage() == null || jeep.getLastServiceMileage() == null || jeep.getLastMaintenance() == null) {
+            return defaultKmPerDay;
+        }
+        long days = ChronoUnit.DAYS.between(jeep.getLastMaintenance().toLocalDate(), today);
+        if (days < 7) {
+            // Too little history for a stable rate.
+            return defaultKmPerDay;
+        }
+        double rate = (jeep.getCurrentMileage() - jeep.getLastServiceMileage()) / days;
+        return rate > 0 ? rate : defaultKmPerDay;
+    }
+
+    private static double weight(TicketSeverity severity) {
+        return switch (severity) {
+            case LOW -> 0.5;
+            case MEDIUM -> 1;
+            case HIGH -> 2;
+            case CRITICAL -> 3;
+        };
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
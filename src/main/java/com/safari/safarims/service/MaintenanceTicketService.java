@@ -12,6 +12,9 @@ import com.safari.safarims.repository.MaintenanceTicketRepository;
 import com.safari.safarims.repository.UserRepository;
 import com.safari.safarims.repository.JeepRepository;
 import com.safari.safarims.repository.MechanicRepository;
+import com.safari.safarims.mapper.MaintenanceTicketMapper;
+import com.safari.safarims.event.DomainEvent;
+import com.safari.safarims.event.DomainEventBus;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -31,7 +34,11 @@ public class MaintenanceTicketService {
     private final UserRepository userRepository;
     private final JeepRepository jeepRepository;
     private final MechanicRepository mechanicRepository;
-    private final NotificationService notificationService;
+    private final DomainEventBus eventBus;
+    private final MaintenanceTicketMapper ticketMapper;
+    private final MaintenanceDispatchService dispatchService;
+    private final FleetAvailabilityService fleetAvailabilityService;
+    private final MaintenancePlannerService maintenancePlannerService;
 
     @Transactional
     public MaintenanceTicketResponse createTicket(MaintenanceTicketRequest request) {
@@ -57,22 +64,25 @@ public class MaintenanceTicketService {
         ticket.setUpdatedBy(currentUsername);
 
         MaintenanceTicket saved = ticketRepository.save(ticket);
+        dispatchService.ticketOpened(saved);
 
         // Update vehicle status to UNDER_REPAIR if severity is HIGH or CRITICAL
         if (request.getSeverity() == com.safari.safarims.common.enums.TicketSeverity.HIGH ||
             request.getSeverity() == com.safari.safarims.common.enums.TicketSeverity.CRITICAL) {
             vehicle.setStatus(JeepStatus.UNDER_REPAIR);
             jeepRepository.save(vehicle);
+            fleetAvailabilityService.jeepChanged(vehicle.getId());
         }
 
-        // Notify maintenance officers
-        notificationService.notifyMaintenanceOfficers("New Maintenance Ticket",
-            "New " + request.getSeverity() + " ticket #" + saved.getId() + " filed for vehicle " + vehicle.getPlateNo());
+        // Ticket history shortens the service interval, so the plan may move earlier
+        maintenancePlannerService.planJeep(vehicle.getId());
+
+        eventBus.publish(new DomainEvent.TicketFiled(saved.getId(), request.getSeverity(), vehicle.getPlateNo()));
 
         log.info("Maintenance ticket created: {} for vehicle: {} by {}",
             saved.getId(), vehicle.getPlateNo(), currentUsername);
 
-        return mapToResponse(saved);
+        return ticketMapper.toResponse(saved);
     }
 
     @Transactional
@@ -85,15 +95,17 @@ public class MaintenanceTicketService {
         Mechanic mechanic = mechanicRepository.findById(mechanicId)
             .orElseThrow(() -> new RuntimeException("Mechanic not found"));
 
+        Long previousMechanicId = ticket.getAssigneeMechanic() != null ? ticket.getAssigneeMechanic().getId() : null;
+        boolean wasActive = MaintenanceDispatchService.ACTIVE_STATUSES.contains(ticket.getStatus());
+
         ticket.setAssigneeMechanic(mechanic);
         ticket.setStatus(TicketStatus.IN_PROGRESS);
         ticket.setUpdatedBy(currentUsername);
 
         ticketRepository.save(ticket);
+        dispatchService.ticketAssigned(ticketId, previousMechanicId, wasActive, mechanicId);
 
-        // Notify mechanic
-        notificationService.notifyUser(mechanic.getUser().getId(), "MAINTENANCE",
-            "Ticket Assignment", "You have been assigned to maintenance ticket #" + ticket.getId());
+        eventBus.publish(new DomainEvent.TicketAssigned(ticket.getId(), mechanic.getUser().getId()));
 
         log.info("Mechanic {} assigned to ticket {} by {}",
             mechanic.getFullName(), ticketId, currentUsername);
@@ -106,6 +118,7 @@ public class MaintenanceTicketService {
         MaintenanceTicket ticket = ticketRepository.findById(ticketId)
             .orElseThrow(() -> new RuntimeException("Ticket not found"));
 
+        TicketStatus previousStatus = ticket.getStatus();
         ticket.setStatus(status);
         ticket.setUpdatedBy(currentUsername);
 
@@ -120,48 +133,40 @@ public class MaintenanceTicketService {
             Jeep vehicle = ticket.getVehicle();
             vehicle.setStatus(JeepStatus.AVAILABLE);
             jeepRepository.save(vehicle);
+            fleetAvailabilityService.jeepChanged(vehicle.getId());
+            maintenancePlannerService.recordServiceCompleted(vehicle, ticket.getClosedAt());
         }
 
         ticketRepository.save(ticket);
+        dispatchService.ticketStatusChanged(ticket, previousStatus);
 
-        // Notify relevant parties
-        if (ticket.getAssigneeMechanic() != null) {
-            notificationService.notifyUser(ticket.getAssigneeMechanic().getUser().getId(), "MAINTENANCE",
-                "Ticket Status Updated", "Ticket #" + ticket.getId() + " status changed to " + status);
-        }
-
-        notificationService.notifyMaintenanceOfficers("Ticket Status Updated",
-            "Ticket #" + ticket.getId() + " status changed to " + status);
+        eventBus.publish(new DomainEvent.TicketStatusChanged(ticket.getId(), status,
+            ticket.getAssigneeMechanic() != null ? ticket.getAssigneeMechanic().getUser().getId() : null));
 
         log.info("Ticket {} status updated to {} by {}", ticketId, status, currentUsername);
     }
 
     public List<MaintenanceTicketResponse> getAllTickets() {
         return ticketRepository.findAll().stream()
-            .map(this::mapToResponse)
+            .map(ticketMapper::toResponse)
             .collect(Collectors.toList());
     }
 
     public List<MaintenanceTicketResponse> getOpenTickets() {
-        List<TicketStatus> openStatuses = List.of(
-            TicketStatus.OPEN,
-            TicketStatus.IN_PROGRESS,
-            TicketStatus.ON_HOLD
-        );
-        return ticketRepository.findByStatusInOrderBySeverityAndDate(openStatuses).stream()
-            .map(this::mapToResponse)
+        return ticketRepository.findByStatusInOrderBySeverityAndDate(MaintenanceDispatchService.ACTIVE_STATUSES).stream()
+            .map(ticketMapper::toResponse)
             .collect(Collectors.toList());
     }
 
     public List<MaintenanceTicketResponse> getTicketsByVehicle(Long vehicleId) {
         return ticketRepository.findByVehicleId(vehicleId).stream()
-            .map(this::mapToResponse)
+            .map(ticketMapper::toResponse)
             .collect(Collectors.toList());
     }
 
     public List<MaintenanceTicketResponse> getTicketsByMechanic(Long mechanicId) {
         return ticketRepository.findByAssigneeMechanicId(mechanicId).stream()
-            .map(this::mapToResponse)
+            .map(ticketMapper::toResponse)
             .collect(Collectors.toList());
     }
 
@@ -172,51 +177,13 @@ public class MaintenanceTicketService {
             .orElseThrow(() -> new RuntimeException("Current user not found"));
 
         return ticketRepository.findByFiledByUserId(currentUser.getId()).stream()
-            .map(this::mapToResponse)
+            .map(ticketMapper::toResponse)
             .collect(Collectors.toList());
     }
 
     public MaintenanceTicketResponse getTicketById(Long ticketId) {
         MaintenanceTicket ticket = ticketRepository.findById(ticketId)
             .orElseThrow(() -> new RuntimeException("Ticket not found"));
-        return mapToResponse(ticket);
-    }
-
-    private MaintenanceTicketResponse mapToResponse(MaintenanceTicket ticket) {
-        return MaintenanceTicketResponse.builder()
-            .id(ticket.getId())
-            .vehicleId(ticket.getVehicle().getId())
-            .vehiclePlateNo(ticket.getVehicle().getPlateNo())
-            .vehicleModel(ticket.getVehicle().getModel())
-            .filedByUserId(ticket.getFiledByUser().getId())
-            .filedByUserName(getDisplayName(ticket.getFiledByUser()))
-            .filedByRole(ticket.getFiledByUser().getRole().name())
-            .assigneeMechanicId(ticket.getAssigneeMechanic() != null ? ticket.getAssigneeMechanic().getId() : null)
-            .assigneeMechanicName(ticket.getAssigneeMechanic() != null ? ticket.getAssigneeMechanic().getFullName() : null)
-            .assigneeMechanicPhone(ticket.getAssigneeMechanic() != null ? ticket.getAssigneeMechanic().getPhone() : null)
-            .status(ticket.getStatus())
-            .severity(ticket.getSeverity())
-            .title(ticket.getTitle())
-            .description(ticket.getDescription())
-            .resolutionNotes(ticket.getResolutionNotes())
-            .openedAt(ticket.getOpenedAt())
-            .closedAt(ticket.getClosedAt())
-            .createdAt(ticket.getCreatedAt())
-            .updatedAt(ticket.getUpdatedAt())
-            .createdBy(ticket.getCreatedBy())
-            .updatedBy(ticket.getUpdatedBy())
-            .build();
-    }
-
-    private String getDisplayName(User user) {
-        // Try to get display name from associated profile
-        switch (user.getRole()) {
-            case DRIVER:
-                return user.getUsername(); // Could fetch from Driver entity
-            case GUIDE:
-                return user.getUsername(); // Could fetch from Guide entity
-            default:
-                return user.getUsername();
-        }
+        return ticketMapper.toResponse(ticket);
     }
 }
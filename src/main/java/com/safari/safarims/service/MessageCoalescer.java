@@ -0,0 +1,283 @@
+package com.safari.safarims.service;
+
+import com.safari.safarims.common.enums.UserRole;
+import com.safari.safarims.email.EmailTemplate;
+import com.safari.safarims.email.EmailTemplateEngine;
+import com.safari.safarims.email.RenderedEmail;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Buffers notifications and bulk emails per recipient for {@code app.digest.window-ms}, then sends
+ * what accumulated as one message: a lone item goes out unchanged, several become a digest. During
+ * an expiry or reminder wave a tourist gets one email instead of one per booking, and each officer
+ * one notification row instead of one per event.
+ *
+ * Role broadcasts are buffered per role and fanned out at flush time, so a digest costs one
+ * findByRole. Buffers live in memory; a crash loses at most one window of unsent messages.
+ *
+ * The {@code digest-flush} thread only keeps time. Delivery (SMTP sends and notification inserts)
+ * runs on a bounded {@code digest-deliver} pool, so a wave reaches the SMTP pool many messages at a
+ * time; when that pool's queue is full the submitting thread delivers itself.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MessageCoalescer {
+
+    private static final int TITLE_LENGTH = 200;
+    private static final int BODY_LENGTH = 1000;
+
+    private final NotificationService notificationService;
+    private final EmailService emailService;
+    private final EmailTemplateEngine templateEngine;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.digest.window-ms:30000}")
+    private long windowMs;
+
+    @Value("${app.digest.max-items:50}")
+    private int maxItems;
+
+    @Value("${app.digest.delivery-threads:4}")
+    private int deliveryThreads;
+
+    @Value("${app.digest.delivery-queue:1000}")
+    private int deliveryQueue;
+
+    @Value("${app.digest.shutdown-timeout-ms:30000}")
+    private long shutdownTimeoutMs;
+
+    private sealed interface Recipient permits UserRecipient, RoleRecipient, EmailRecipient {
+    }
+
+    private record UserRecipient(Long userId, String type) implements Recipient {
+    }
+
+    private record RoleRecipient(UserRole role, String type) implements Recipient {
+    }
+
+    private record EmailRecipient(String toEmail) implements Recipient {
+    }
+
+    private record NotificationItem(String title, String body) {
+    }
+
+    private record EmailItem(EmailTemplate template, String language, String[] values) {
+    }
+
+    // Guarded by its own monitor; once flushed it takes no more items and add() starts a new one.
+    private static final class Buffer {
+        private final List<Object> items = new ArrayList<>();
+        private boolean flushed;
+
+        List<Object> close() {
+            flushed = true;
+            return List.copyOf(items);
+        }
+    }
+
+    private final ConcurrentHashMap<Recipient, Buffer> buffers = new ConcurrentHashMap<>();
+    private ScheduledExecutorService flusher;
+    private ThreadPoolExecutor deliveries;
+
+    @PostConstruct
+    public void start() {
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "digest-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger threadCount = new AtomicInteger();
+        deliveries = new ThreadPoolExecutor(deliveryThreads, deliveryThreads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(deliveryQueue), runnable -> {
+                Thread thread = new Thread(runnable, "digest-deliver-" + threadCount.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            });
+        meterRegistry.gauge("digest.deliveries.queued", deliveries.getQueue(), Collection::size);
+    }
+
+    // The flusher only holds timers: cancelling them is safe because every open buffer is flushed
+    // right here, and everything handed to the delivery pool is waited for or run inline.
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        flusher.shutdownNow();
+        buffers.forEach(this::flush);
+        deliveries.shutdown();
+        if (!deliveries.awaitTermination(shutdownTimeoutMs, TimeUnit.MILLISECONDS)) {
+            List<Runnable> pending = new ArrayList<>();
+            deliveries.getQueue().drainTo(pending);
+            log.warn("Digest deliveries still queued after {} ms; sending {} on the shutdown thread",
+                shutdownTimeoutMs, pending.size());
+            pending.forEach(Runnable::run);
+        }
+    }
+
+    public void notifyUser(Long userId, String type, String title, String body) {
+        add(new UserRecipient(userId, type), new NotificationItem(title, body));
+    }
+
+    public void notifyRole(UserRole role, String type, String title, String body) {
+        add(new RoleRecipient(role, type), new NotificationItem(title, body));
+    }
+
+    public void emailPaymentReminder(String toEmail, String language, Long bookingId, BigDecimal amount) {
+        add(new EmailRecipient(toEmail), new EmailItem(EmailTemplate.PAYMENT_REMINDER, language,
+            new String[]{String.valueOf(bookingId), EmailService.formatAmount(amount)}));
+    }
+
+    public void emailPaymentExpiry(String toEmail, String language, Long bookingId) {
+        add(new EmailRecipient(toEmail), new EmailItem(EmailTemplate.PAYMENT_EXPIRY, language,
+            new String[]{String.valueOf(bookingId)}));
+    }
+
+    private void add(Recipient recipient, Object item) {
+        meterRegistry.counter("digest.items", "channel", channel(recipient)).increment();
+        if (windowMs <= 0 || flusher.isShutdown()) {
+            deliver(recipient, List.of(item));
+            return;
+        }
+        while (true) {
+            Buffer buffer = buffers.computeIfAbsent(recipient, this::openBuffer);
+            List<Object> full = null;
+            synchronized (buffer) {
+                if (buffer.flushed) {
+                    continue; // lost a race with its flush; the next computeIfAbsent opens a fresh one
+                }
+                buffer.items.add(item);
+                if (buffer.items.size() >= maxItems) {
+                    full = buffer.close();
+                }
+            }
+            if (full != null) {
+                buffers.remove(recipient, buffer);
+                deliverLater(recipient, full);
+            } else if (flusher.isShutdown()) {
+                // stop() may have flushed every buffer before this one was opened, and its timer was
+                // rejected, so nothing else would deliver it
+                flush(recipient, buffer);
+            }
+            return;
+        }
+    }
+
+    private Buffer openBuffer(Recipient recipient) {
+        Buffer buffer = new Buffer();
+        try {
+            flusher.schedule(() -> flush(recipient, buffer), windowMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException shuttingDown) {
+            log.debug("Digest flusher stopped; {} is flushed on shutdown", recipient);
+        }
+        return buffer;
+    }
+
+    private void flush(Recipient recipient, Buffer buffer) {
+        buffers.remove(recipient, buffer);
+        List<Object> items;
+        synchronized (buffer) {
+            if (buffer.flushed) {
+                return;
+            }
+            items = buffer.close();
+        }
+        deliverLater(recipient, items);
+    }
+
+    // Rejected when the queue is full or the pool has shut down; either way the caller delivers.
+    private void deliverLater(Recipient recipient, List<Object> items) {
+        try {
+            deliveries.execute(() -> deliverSafely(recipient, items));
+        } catch (RejectedExecutionException saturated) {
+            deliverSafely(recipient, items);
+        }
+    }
+
+    private void deliverSafely(Recipient recipient, List<Object> items) {
+        try {
+            deliver(recipient, items);
+        } catch (Exception e) {
+            log.error("Dropping {} buffered message(s) for {}: {}", items.size(), recipient, e.getMessage());
+        }
+    }
+
+    private void deliver(Recipient recipient, List<Object> items) {
+        meterRegistry.counter("digest.messages", "channel", channel(recipient),
+            "kind", items.size() == 1 ? "single" : "digest").increment();
+        switch (recipient) {
+            case UserRecipient user -> {
+                NotificationItem merged = merge(items);
+                notificationService.notifyUser(user.userId(), user.type(), merged.title(), merged.body());
+            }
+            case RoleRecipient role -> {
+                NotificationItem merged = merge(items);
+                notificationService.notifyRole(role.role(), role.type(), merged.title(), merged.body());
+            }
+            case EmailRecipient email -> {
+                if (items.size() == 1) {
+                    EmailItem item = (EmailItem) items.get(0);
+                    emailService.send(email.toEmail(), item.template(), item.language(), item.values());
+                    return;
+                }
+                List<RenderedEmail> parts = items.stream()
+                    .map(EmailItem.class::cast)
+                    .map(item -> templateEngine.render(item.template(), item.language(), item.values()))
+                    .toList();
+                emailService.sendDigest(email.toEmail(), ((EmailItem) items.get(0)).language(), parts);
+            }
+        }
+    }
+
+    private static NotificationItem merge(List<Object> items) {
+        List<NotificationItem> notifications = items.stream().map(NotificationItem.class::cast).toList();
+        if (notifications.size() == 1) {
+            return notifications.get(0);
+        }
+        String firstTitle = notifications.get(0).title();
+        boolean sameTitle = notifications.stream().allMatch(n -> n.title().equals(firstTitle));
+        String title = sameTitle
+            ? firstTitle + " (" + notifications.size() + ")"
+            : notifications.size() + " updates";
+
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < notifications.size(); i++) {
+            String line = sameTitle ? notifications.get(i).body() : notifications.get(i).title() + ": " + notifications.get(i).body();
+            String more = "\n... and " + (notifications.size() - i) + " more";
+            if (body.length() + line.length() + 1 > BODY_LENGTH - more.length()) {
+                body.append(more);
+                break;
+            }
+            if (!body.isEmpty()) {
+                body.append('\n');
+            }
+            body.append(line);
+        }
+        return new NotificationItem(truncate(title, TITLE_LENGTH), truncate(body.toString(), BODY_LENGTH));
+    }
+
+    private static String truncate(String value, int length) {
+        return value.length() <= length ? value : value.substring(0, length);
+    }
+
+    private static String channel(Recipient recipient) {
+        return recipient instanceof EmailRecipient ? "email" : "notification";
+    }
+}
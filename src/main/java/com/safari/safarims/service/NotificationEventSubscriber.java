@@ -0,0 +1,106 @@
+package com.safari.safarims.service;
+
+import com.safari.safarims.common.enums.UserRole;
+import com.safari.safarims.event.DomainEvent;
+import com.safari.safarims.event.DomainEvent.AllocationCreated;
+import com.safari.safarims.event.DomainEvent.BookingForwarded;
+import com.safari.safarims.event.DomainEvent.BookingRequested;
+import com.safari.safarims.event.DomainEvent.PaymentExpired;
+import com.safari.safarims.event.DomainEvent.PaymentFailed;
+import com.safari.safarims.event.DomainEvent.PaymentSucceeded;
+import com.safari.safarims.event.DomainEvent.TicketAssigned;
+import com.safari.safarims.event.DomainEvent.TicketFiled;
+import com.safari.safarims.event.DomainEvent.TicketStatusChanged;
+import com.safari.safarims.event.DomainEventSubscriber;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Turns domain events into in-app notifications and emails. Notifications and the expiry email go
+ * through {@link MessageCoalescer}, which batches them per recipient into digests; the booking
+ * confirmation is sent straight away.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationEventSubscriber implements DomainEventSubscriber {
+
+    private final MessageCoalescer coalescer;
+    private final EmailService emailService;
+
+    @Override
+    public void onEvents(List<DomainEvent> batch) {
+        for (DomainEvent event : batch) {
+            try {
+                notify(event);
+            } catch (Exception e) {
+                log.error("Dropping notifications for {}: {}", event, e.getMessage());
+            }
+            try {
+                email(event);
+            } catch (Exception e) {
+                log.error("Email for {} failed: {}", event, e.getMessage());
+            }
+        }
+    }
+
+    private void notify(DomainEvent event) {
+        switch (event) {
+            case BookingRequested e -> coalescer.notifyRole(UserRole.BOOKING_OFFICER, "BOOKING", "New Booking Request",
+                "New booking request #" + e.bookingId() + " from " + e.touristName());
+            case BookingForwarded e -> coalescer.notifyRole(UserRole.TOUR_CREW_MANAGER, "ALLOCATION", "Booking Forwarded",
+                "Booking #" + e.bookingId() + " has been forwarded for allocation");
+            case AllocationCreated e -> {
+                coalescer.notifyRole(UserRole.BOOKING_OFFICER, "BOOKING", "Allocation Created",
+                    "Booking #" + e.bookingId() + " has been allocated");
+                if (e.driverUserId() != null) {
+                    coalescer.notifyUser(e.driverUserId(), "ALLOCATION",
+                        "New Assignment", "You have been assigned to booking #" + e.bookingId());
+                }
+                if (e.guideUserId() != null) {
+                    coalescer.notifyUser(e.guideUserId(), "ALLOCATION",
+                        "New Assignment", "You have been assigned to booking #" + e.bookingId());
+                }
+            }
+            case PaymentSucceeded e -> {
+                coalescer.notifyUser(e.touristUserId(), "BOOKING", "Payment Successful",
+                    "Your payment for booking #" + e.bookingId() + " has been processed successfully");
+                coalescer.notifyRole(UserRole.BOOKING_OFFICER, "BOOKING", "Payment Received",
+                    "Payment received for booking #" + e.bookingId());
+            }
+            case PaymentFailed e -> coalescer.notifyUser(e.touristUserId(), "BOOKING", "Payment Failed",
+                "Payment for booking #" + e.bookingId() + " has failed. Please try again.");
+            case PaymentExpired e -> {
+                coalescer.notifyUser(e.touristUserId(), "BOOKING", "Payment Expired",
+                    "Payment window has expired for booking #" + e.bookingId());
+                coalescer.notifyRole(UserRole.TOUR_CREW_MANAGER, "ALLOCATION", "Booking Expired",
+                    "Booking #" + e.bookingId() + " has expired due to payment timeout");
+            }
+            case TicketFiled e -> coalescer.notifyRole(UserRole.MAINTENANCE_OFFICER, "MAINTENANCE", "New Maintenance Ticket",
+                "New " + e.severity() + " ticket #" + e.ticketId() + " filed for vehicle " + e.plateNo());
+            case TicketAssigned e -> coalescer.notifyUser(e.mechanicUserId(), "MAINTENANCE",
+                "Ticket Assignment", "You have been assigned to maintenance ticket #" + e.ticketId());
+            case TicketStatusChanged e -> {
+                if (e.mechanicUserId() != null) {
+                    coalescer.notifyUser(e.mechanicUserId(), "MAINTENANCE",
+                        "Ticket Status Updated", "Ticket #" + e.ticketId() + " status changed to " + e.status());
+                }
+                coalescer.notifyRole(UserRole.MAINTENANCE_OFFICER, "MAINTENANCE", "Ticket Status Updated",
+                    "Ticket #" + e.ticketId() + " status changed to " + e.status());
+            }
+        }
+    }
+
+    private void email(DomainEvent event) {
+        switch (event) {
+            case PaymentSucceeded e -> emailService.sendBookingConfirmation(e.touristEmail(), e.language(), e.bookingId(),
+                e.reference(), e.packageName(), e.requestedDate(), e.requestedTime(), e.amount());
+            case PaymentExpired e -> coalescer.emailPaymentExpiry(e.touristEmail(), e.language(), e.bookingId());
+            default -> {
+            }
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.safari.safarims.service;
 
+import com.safari.safarims.config.RetentionProperties;
+import com.safari.safarims.dto.notification.NotificationPageResponse;
+import com.safari.safarims.dto.notification.NotificationRow;
 import com.safari.safarims.entity.Notification;
 import com.safari.safarims.entity.User;
 import com.safari.safarims.common.enums.UserRole;
@@ -7,20 +10,27 @@ import com.safari.safarims.repository.NotificationRepository;
 import com.safari.safarims.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class NotificationService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
+    private final RetentionProperties retentionProperties;
 
     @Transactional
     public void notifyUser(Long userId, String type, String title, String body) {
@@ -38,6 +48,12 @@ public class NotificationService {
         log.info("Notification sent to user {}: {}", user.getUsername(), title);
     }
 
+    @Transactional
+    public void notifyRole(UserRole role, String type, String title, String body) {
+        List<User> recipients = userRepository.findByRole(role);
+        recipients.forEach(user -> notifyUser(user.getId(), type, title, body));
+    }
+
     @Transactional
     public void notifyBookingOfficers(String title, String body) {
         List<User> bookingOfficers = userRepository.findByRole(UserRole.BOOKING_OFFICER);
@@ -65,12 +81,33 @@ public class NotificationService {
         guides.forEach(user -> notifyUser(user.getId(), "ALLOCATION", title, body));
     }
 
-    public List<Notification> getUserNotifications(Long userId) {
-        return notificationRepository.findByUserIdOrderByCreatedAtDesc(userId);
-    }
+    /** One page of the user's inbox, newest first. Pass the previous page's nextCursor to continue. */
+    public NotificationPageResponse getInbox(Long userId, String cursor, int size, boolean unreadOnly) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        LocalDateTime since = retentionProperties.hotWindowStart(LocalDate.now());
+        // One extra row tells us whether another page exists without a COUNT.
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<NotificationRow> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = unreadOnly
+                ? notificationRepository.findUnreadFirstPage(userId, since, limit)
+                : notificationRepository.findInboxFirstPage(userId, since, limit);
+        } else {
+            Cursor after = Cursor.decode(cursor);
+            rows = unreadOnly
+                ? notificationRepository.findUnreadPageAfter(userId, since, after.createdAt(), after.id(), limit)
+                : notificationRepository.findInboxPageAfter(userId, since, after.createdAt(), after.id(), limit);
+        }
 
-    public List<Notification> getUnreadNotifications(Long userId) {
-        return notificationRepository.findByUserIdAndReadAtIsNullOrderByCreatedAtDesc(userId);
+        boolean hasMore = rows.size() > pageSize;
+        List<NotificationRow> items = hasMore ? rows.subList(0, pageSize) : rows;
+        NotificationRow last = items.isEmpty() ? null : items.get(items.size() - 1);
+        return NotificationPageResponse.builder()
+            .items(List.copyOf(items))
+            .hasMore(hasMore)
+            .nextCursor(hasMore ? new Cursor(last.getCreatedAt(), last.getId()).encode() : null)
+            .build();
     }
 
     public long getUnreadCount(Long userId) {
@@ -79,23 +116,44 @@ public class NotificationService {
 
     @Transactional
     public void markAsRead(Long notificationId, Long userId) {
+        if (notificationRepository.markAsRead(notificationId, userId, LocalDateTime.now()) > 0) {
+            return;
+        }
+        // Nothing updated: already read, someone else's, or missing.
         Notification notification = notificationRepository.findById(notificationId)
             .orElseThrow(() -> new RuntimeException("Notification not found"));
 
         if (!notification.getUser().getId().equals(userId)) {
             throw new RuntimeException("You can only mark your own notifications as read");
         }
-
-        notification.setReadAt(LocalDateTime.now());
-        notificationRepository.save(notification);
     }
 
     @Transactional
-    public void markAllAsRead(Long userId) {
-        List<Notification> unreadNotifications = getUnreadNotifications(userId);
-        unreadNotifications.forEach(notification -> {
-            notification.setReadAt(LocalDateTime.now());
-        });
-        notificationRepository.saveAll(unreadNotifications);
+    public int markAllAsRead(Long userId) {
+        return notificationRepository.markAllAsRead(userId, LocalDateTime.now());
+    }
+
+    public Long currentUserId() {
+        String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
+        return userRepository.findByUsername(currentUsername)
+            .map(User::getId)
+            .orElseThrow(() -> new RuntimeException("Current user not found"));
+    }
+
+    private record Cursor(LocalDateTime createdAt, Long id) {
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((createdAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                return new Cursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Invalid cursor");
+            }
+        }
     }
 }
@@ -0,0 +1,105 @@
+package com.safari.safarims.service;
+
+import com.safari.safarims.common.enums.BookingStatus;
+import com.safari.safarims.common.enums.PaymentStatus;
+import com.safari.safarims.common.retry.RetryOnConflict;
+import com.safari.safarims.email.EmailTemplateEngine;
+import com.safari.safarims.entity.Booking;
+import com.safari.safarims.entity.Payment;
+import com.safari.safarims.entity.User;
+import com.safari.safarims.event.DomainEvent;
+import com.safari.safarims.event.DomainEventBus;
+import com.safari.safarims.gateway.GatewayResult;
+import com.safari.safarims.repository.BookingRepository;
+import com.safari.safarims.repository.PaymentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+
+/**
+ * Applies a gateway outcome to a PENDING payment. Both the in-process gateway callback and the
+ * webhook end up here, so it is safe to call more than once for the same txRef: only the first
+ * outcome moves the payment, later ones are ignored.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentFinalizationService {
+
+    private final PaymentRepository paymentRepository;
+    private final BookingRepository bookingRepository;
+    private final DomainEventBus eventBus;
+    private final EmailTemplateEngine templateEngine;
+
+    @Value("${app.payments.webhook-secret:}")
+    private String webhookSecret;
+
+    /** Returns false when the payment had already left PENDING. */
+    @RetryOnConflict
+    @Transactional
+    public boolean finalizePayment(String txRef, GatewayResult result) {
+        Payment payment = paymentRepository.findByTxRef(txRef)
+            .orElseThrow(() -> new RuntimeException("Payment not found"));
+
+        if (payment.getStatus() != PaymentStatus.PENDING) {
+            if (result.approved() && payment.getStatus() != PaymentStatus.SUCCESS) {
+                log.warn("Gateway approved payment {} ({}) after it became {}; refund required",
+                    txRef, result.reference(), payment.getStatus());
+            }
+            return false;
+        }
+
+        Booking booking = payment.getBooking();
+        User touristUser = booking.getTourist().getUser();
+        payment.setGatewayRef(result.reference());
+
+        if (result.approved()) {
+            payment.setStatus(PaymentStatus.SUCCESS);
+            payment.setPaidAt(LocalDateTime.now());
+            paymentRepository.save(payment);
+
+            booking.setStatus(BookingStatus.CONFIRMED);
+            bookingRepository.save(booking);
+
+            eventBus.publish(new DomainEvent.PaymentSucceeded(booking.getId(), touristUser.getId(),
+                touristUser.getEmail(), templateEngine.languageFor(booking.getTourist().getPreferredLanguages()),
+                booking.getReference(), booking.getTourPackage().getName(), booking.getRequestedDate(),
+                booking.getRequestedTime(), booking.getTotalAmount()));
+            log.info("Payment processed successfully for booking: {}", booking.getId());
+        } else {
+            payment.setStatus(PaymentStatus.FAILED);
+            payment.setFailureReason(result.reason());
+            paymentRepository.save(payment);
+
+            eventBus.publish(new DomainEvent.PaymentFailed(booking.getId(), touristUser.getId()));
+            log.warn("Payment failed for booking {}: {}", booking.getId(), result.reason());
+        }
+        return true;
+    }
+
+    /** HMAC-SHA256 of the raw body, hex encoded. Webhooks are refused while no secret is configured. */
+    public boolean verifySignature(String payload, String signature) {
+        if (webhookSecret == null || webhookSecret.isBlank() || signature == null) {
+            return false;
+        }
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(webhookSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            byte[] expected = mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+            return MessageDigest.isEqual(expected, HexFormat.of().parseHex(signature.trim().toLowerCase()));
+        } catch (IllegalArgumentException malformed) {
+            return false;
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot verify webhook signature", e);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.safari.safarims.service;
+
+import com.safari.safarims.email.EmailTemplateEngine;
+import com.safari.safarims.entity.Booking;
+import com.safari.safarims.entity.Payment;
+import com.safari.safarims.repository.PaymentReminderRepository;
+import com.safari.safarims.repository.PaymentRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Sends each pending payment exactly one reminder. Due payments are claimed in batches by stamping
+ * reminded_at, loaded with their recipients in one query, and dispatched on a small pool. A reminder
+ * that fails to dispatch keeps its claim until the run ends and is then released, so the next run
+ * retries it rather than the next batch of this one. Dispatch hands the email and
+ * notification to {@link MessageCoalescer}, so a tourist with several due payments gets one digest.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentReminderService {
+
+    private final PaymentReminderRepository paymentReminderRepository;
+    private final PaymentRepository paymentRepository;
+    private final MessageCoalescer coalescer;
+    private final EmailTemplateEngine templateEngine;
+
+    @Value("${app.reminders.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.reminders.dispatch-threads:4}")
+    private int dispatchThreads;
+
+    private ExecutorService dispatchPool;
+
+    @PostConstruct
+    public void startPool() {
+        dispatchPool = Executors.newFixedThreadPool(dispatchThreads);
+    }
+
+    @PreDestroy
+    public void stopPool() {
+        dispatchPool.shutdown();
+    }
+
+    /** Claims and dispatches due reminders in this shard until none are left; returns how many were sent. */
+    public int sendDueReminders(LocalDateTime now, LocalDateTime windowEnd, JobCoordinator.Shard shard) {
+        int sent = 0;
+        // Released only after the loop: released right away, a persistently failing batch would be
+        // claimed again on every iteration and the loop would never end.
+        Queue<Long> failed = new ConcurrentLinkedQueue<>();
+        try {
+            while (true) {
+                List<Long> claimed = paymentReminderRepository.claimDue(now, windowEnd, shard.count(), shard.index(), batchSize);
+                if (claimed.isEmpty()) {
+                    return sent;
+                }
+
+                List<CompletableFuture<Boolean>> dispatches = paymentRepository.findWithRecipientByIdIn(claimed).stream()
+                    .map(payment -> CompletableFuture.supplyAsync(() -> dispatch(payment, failed), dispatchPool))
+                    .toList();
+                CompletableFuture.allOf(dispatches.toArray(CompletableFuture[]::new)).join();
+                sent += (int) dispatches.stream().filter(CompletableFuture::join).count();
+
+                if (claimed.size() < batchSize) {
+                    return sent;
+                }
+            }
+        } finally {
+            failed.forEach(paymentReminderRepository::releaseClaim);
+        }
+    }
+
+    private boolean dispatch(Payment payment, Queue<Long> failed) {
+        try {
+            Booking booking = payment.getBooking();
+            coalescer.emailPaymentReminder(
+                booking.getTourist().getUser().getEmail(),
+                templateEngine.languageFor(booking.getTourist().getPreferredLanguages()),
+                booking.getId(),
+                payment.getAmount()
+            );
+            coalescer.notifyUser(
+                booking.getTourist().getUser().getId(),
+                "PAYMENT",
+                "Payment Reminder",
+                "Your payment for booking #" + booking.getId() + " will expire soon"
+            );
+            log.info("Payment reminder queued for booking {} (payment {})", booking.getId(), payment.getId());
+            return true;
+        } catch (Exception e) {
+            log.error("Error sending payment reminder for payment {}: {}", payment.getId(), e.getMessage());
+            failed.add(payment.getId());
+            return false;
+        }
+    }
+}
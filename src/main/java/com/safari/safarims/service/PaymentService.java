@@ -4,20 +4,39 @@ import com.safari.safarims.dto.payment.PaymentRequest;
 import com.safari.safarims.dto.payment.PaymentResponse;
 import com.safari.safarims.entity.Payment;
 import com.safari.safarims.entity.Booking;
+import com.safari.safarims.entity.User;
 import com.safari.safarims.common.enums.PaymentStatus;
 import com.safari.safarims.common.enums.BookingStatus;
 import com.safari.safarims.repository.PaymentRepository;
 import com.safari.safarims.repository.BookingRepository;
+import com.safari.safarims.mapper.PaymentMapper;
+import com.safari.safarims.common.id.IdGenerator;
+import com.safari.safarims.common.retry.RetryOnConflict;
+import com.safari.safarims.email.EmailTemplateEngine;
+import com.safari.safarims.event.DomainEvent;
+import com.safari.safarims.event.DomainEventBus;
+import com.safari.safarims.gateway.GatewayCharge;
+import com.safari.safarims.gateway.GatewayResult;
+import com.safari.safarims.gateway.PaymentGateway;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Random;
-import java.util.UUID;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,9 +46,33 @@ public class PaymentService {
 
     private final PaymentRepository paymentRepository;
     private final BookingRepository bookingRepository;
-    private final EmailService emailService;
-    private final NotificationService notificationService;
+    private final PaymentMapper paymentMapper;
+    private final DomainEventBus eventBus;
+    private final PaymentGateway paymentGateway;
+    private final PaymentFinalizationService paymentFinalizationService;
+    private final IdGenerator idGenerator;
+    private final EmailTemplateEngine templateEngine;
 
+    @Value("${app.payments.gateway-timeout-ms:10000}")
+    private long gatewayTimeoutMs;
+
+    @Value("${app.payments.callback-threads:4}")
+    private int callbackThreads;
+
+    // Runs finalizePayment when a gateway future completes, off the gateway's own threads
+    private ExecutorService callbackExecutor;
+
+    @PostConstruct
+    public void startCallbackExecutor() {
+        callbackExecutor = Executors.newFixedThreadPool(callbackThreads);
+    }
+
+    @PreDestroy
+    public void stopCallbackExecutor() {
+        callbackExecutor.shutdown();
+    }
+
+    @RetryOnConflict
     @Transactional
     public PaymentResponse processPayment(PaymentRequest request) {
         // Validate booking
@@ -52,9 +95,15 @@ public class PaymentService {
             throw new RuntimeException("Payment already completed for this booking");
         }
 
+        // Once submitted, the outcome belongs to the gateway: a retry must not charge the card again.
+        // A timed-out charge stays PENDING until the webhook or reconcilePayment settles it.
+        if (existingPayment != null && existingPayment.getSubmittedAt() != null) {
+            return paymentMapper.toResponse(existingPayment);
+        }
+
         // Create or update payment
         Payment payment;
-        if (existingPayment != null && existingPayment.getStatus() == PaymentStatus.PENDING) {
+        if (existingPayment != null) {
             payment = existingPayment;
         } else {
             payment = Payment.builder()
@@ -62,58 +111,24 @@ public class PaymentService {
                 .amount(request.getAmount() != null ? request.getAmount() : booking.getTotalAmount())
                 .method(request.getMethod() != null ? request.getMethod() : "MOCK_PAYMENT")
                 .status(PaymentStatus.PENDING)
-                .txRef(generateTransactionReference())
+                .txRef(idGenerator.nextReference("TXN-"))
                 .expiresAt(LocalDateTime.now().plusSeconds(booking.getPaymentWindowSeconds()))
                 .build();
         }
+        payment.setSubmittedAt(LocalDateTime.now());
 
-        // Mock payment processing
-        boolean paymentSuccess = mockPaymentProcessing(request);
-
-        if (paymentSuccess) {
-            payment.setStatus(PaymentStatus.SUCCESS);
-            payment.setPaidAt(LocalDateTime.now());
-
-            // Update booking status
-            booking.setStatus(BookingStatus.CONFIRMED);
-            bookingRepository.save(booking);
-
-            // Send confirmation notifications
-            emailService.sendBookingConfirmation(
-                booking.getTourist().getUser().getEmail(),
-                buildBookingConfirmationDetails(booking)
-            );
-
-            notificationService.notifyUser(
-                booking.getTourist().getUser().getId(),
-                "BOOKING",
-                "Payment Successful",
-                "Your payment for booking #" + booking.getId() + " has been processed successfully"
-            );
-
-            notificationService.notifyBookingOfficers(
-                "Payment Received",
-                "Payment received for booking #" + booking.getId()
-            );
+        Payment saved = savePending(payment);
 
-            log.info("Payment processed successfully for booking: {}", booking.getId());
-        } else {
-            payment.setStatus(PaymentStatus.FAILED);
-
-            notificationService.notifyUser(
-                booking.getTourist().getUser().getId(),
-                "BOOKING",
-                "Payment Failed",
-                "Payment for booking #" + booking.getId() + " has failed. Please try again."
-            );
-
-            log.warn("Payment failed for booking: {}", booking.getId());
-        }
+        // The gateway is only called once this transaction has committed, so no connection or
+        // booking row lock is held while the provider thinks. The outcome arrives in finalizePayment.
+        GatewayCharge charge = new GatewayCharge(saved.getTxRef(), saved.getAmount(), request.getCardNumber(),
+            request.getCardHolderName(), request.getExpiryMonth(), request.getExpiryYear(), request.getCvv());
+        AfterCommit.run(() -> submitToGateway(charge));
 
-        Payment saved = paymentRepository.save(payment);
-        return mapToResponse(saved);
+        return paymentMapper.toResponse(saved);
     }
 
+    @RetryOnConflict
     @Transactional
     public void expirePayment(Long paymentId) {
         Payment payment = paymentRepository.findById(paymentId)
@@ -130,105 +145,101 @@ public class PaymentService {
         booking.setStatus(BookingStatus.EXPIRED);
         bookingRepository.save(booking);
 
-        // Send expiry notifications
-        emailService.sendPaymentExpiry(
-            booking.getTourist().getUser().getEmail(),
-            booking.getId().toString()
-        );
-
-        notificationService.notifyUser(
-            booking.getTourist().getUser().getId(),
-            "BOOKING",
-            "Payment Expired",
-            "Payment window has expired for booking #" + booking.getId()
-        );
-
-        notificationService.notifyCrewManagers(
-            "Booking Expired",
-            "Booking #" + booking.getId() + " has expired due to payment timeout"
-        );
+        User touristUser = booking.getTourist().getUser();
+        eventBus.publish(new DomainEvent.PaymentExpired(booking.getId(), touristUser.getId(), touristUser.getEmail(),
+            templateEngine.languageFor(booking.getTourist().getPreferredLanguages())));
 
         log.info("Payment expired for booking: {}", booking.getId());
     }
 
+    /**
+     * Asks the gateway what became of a submitted payment whose outcome never arrived and applies it.
+     * A charge the gateway has no record of fails, so the tourist can pay again. Must not be called
+     * inside a transaction. Returns true when the payment left PENDING.
+     */
+    public boolean reconcilePayment(String txRef) {
+        Optional<GatewayResult> status;
+        try {
+            status = paymentGateway.status(txRef).get(gatewayTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("Gateway status for payment {} unavailable ({}); retrying later", txRef, rootMessage(e));
+            return false;
+        }
+        GatewayResult result = status.orElseGet(() -> GatewayResult.declined(null, "Charge never reached the gateway"));
+        boolean settled = paymentFinalizationService.finalizePayment(txRef, result);
+        if (settled) {
+            log.info("Reconciled payment {} with the gateway: {}", txRef, result.approved() ? "approved" : result.reason());
+        }
+        return settled;
+    }
+
     public List<PaymentResponse> getPaymentsByBooking(Long bookingId) {
-        return paymentRepository.findByBookingId(bookingId).stream()
-            .map(this::mapToResponse)
+        return paymentRepository.findRowsByBookingId(bookingId).stream()
+            .map(paymentMapper::toResponse)
             .collect(Collectors.toList());
     }
 
     public PaymentResponse getPaymentById(Long paymentId) {
         Payment payment = paymentRepository.findById(paymentId)
             .orElseThrow(() -> new RuntimeException("Payment not found"));
-        return mapToResponse(payment);
+        return paymentMapper.toResponse(payment);
     }
 
     public PaymentResponse getPaymentByTxRef(String txRef) {
         Payment payment = paymentRepository.findByTxRef(txRef)
             .orElseThrow(() -> new RuntimeException("Payment not found"));
-        return mapToResponse(payment);
+        return paymentMapper.toResponse(payment);
     }
 
     public List<PaymentResponse> getPendingPayments() {
-        return paymentRepository.findByStatus(PaymentStatus.PENDING).stream()
-            .map(this::mapToResponse)
+        return paymentRepository.findRowsByStatus(PaymentStatus.PENDING).stream()
+            .map(paymentMapper::toResponse)
             .collect(Collectors.toList());
     }
 
-    private boolean mockPaymentProcessing(PaymentRequest request) {
-        // Mock payment logic - randomly succeed/fail based on card number
-        if (request.getCardNumber() != null) {
-            // Cards ending in even numbers succeed, odd numbers fail
-            String lastDigit = request.getCardNumber().substring(request.getCardNumber().length() - 1);
-            int digit = Integer.parseInt(lastDigit);
-            return digit % 2 == 0;
+    // The unique filtered index on PENDING payments (V21) settles concurrent first submits the read
+    // above cannot see. The loser retries in a fresh transaction and gets the winner's payment back.
+    private Payment savePending(Payment payment) {
+        try {
+            return paymentRepository.saveAndFlush(payment);
+        } catch (DataIntegrityViolationException e) {
+            if (String.valueOf(e.getMostSpecificCause().getMessage()).contains("ux_payment_pending_booking")) {
+                throw new OptimisticLockingFailureException("Payment already pending for booking " + payment.getBooking().getId(), e);
+            }
+            throw e;
         }
-
-        // Default to random success (80% success rate)
-        Random random = new Random();
-        return random.nextDouble() < 0.8;
     }
 
-    private String generateTransactionReference() {
-        return "TXN-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    private void submitToGateway(GatewayCharge charge) {
+        paymentGateway.authorize(charge)
+            .thenCompose(authorization -> authorization.approved()
+                ? paymentGateway.capture(authorization.reference(), charge.amount())
+                : CompletableFuture.completedFuture(authorization))
+            .orTimeout(gatewayTimeoutMs, TimeUnit.MILLISECONDS)
+            .whenCompleteAsync((result, error) -> {
+                if (error != null) {
+                    // A timeout or transport error says nothing about the charge itself: it may have
+                    // gone through. Leave the payment PENDING for the webhook or reconciliation.
+                    log.warn("Gateway outcome for payment {} unknown ({}); awaiting webhook or reconciliation",
+                        charge.txRef(), rootMessage(error));
+                    return;
+                }
+                try {
+                    paymentFinalizationService.finalizePayment(charge.txRef(), result);
+                } catch (Exception e) {
+                    log.error("Could not finalize payment {}: {}", charge.txRef(), e.getMessage());
+                }
+            }, callbackExecutor);
     }
 
-    private String buildBookingConfirmationDetails(Booking booking) {
-        return String.format("""
-            Booking ID: %d
-            Package: %s
-            Date: %s
-            Time: %s
-            Amount: $%.2f
-            Status: CONFIRMED
-            """,
-            booking.getId(),
-            booking.getTourPackage().getName(),
-            booking.getRequestedDate(),
-            booking.getRequestedTime(),
-            booking.getTotalAmount()
-        );
-    }
-
-    private PaymentResponse mapToResponse(Payment payment) {
-        boolean isExpired = payment.getExpiresAt() != null &&
-                           LocalDateTime.now().isAfter(payment.getExpiresAt()) &&
-                           payment.getStatus() == PaymentStatus.PENDING;
-
-        return PaymentResponse.builder()
-            .id(payment.getId())
-            .bookingId(payment.getBooking().getId())
-            .touristName(payment.getBooking().getTourist().getFullName())
-            .packageName(payment.getBooking().getTourPackage().getName())
-            .amount(payment.getAmount())
-            .status(payment.getStatus())
-            .method(payment.getMethod())
-            .txRef(payment.getTxRef())
-            .paidAt(payment.getPaidAt())
-            .expiresAt(payment.getExpiresAt())
-            .createdAt(payment.getCreatedAt())
-            .updatedAt(payment.getUpdatedAt())
-            .isExpired(isExpired)
-            .build();
+    private static String rootMessage(Throwable error) {
+        Throwable cause = error;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause instanceof TimeoutException ? "timed out" : String.valueOf(cause.getMessage());
     }
 }
@@ -0,0 +1,127 @@
+package com.safari.safarims.service;
+
+import com.safari.safarims.config.RetentionProperties;
+import com.safari.safarims.repository.PartitionMaintenanceRepository;
+import com.safari.safarims.repository.PartitionMaintenanceRepository.PartitionedTable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the monthly sliding window over notifications and outbound_emails: keeps future partitions
+ * split ahead of time, applies per-type notification retention, switches months that fall out of
+ * the hot window into the archive tables, truncates expired archive months and merges boundaries
+ * that no longer hold rows. Switches, truncates and merges of empty partitions are metadata-only,
+ * so the job does not scale with row counts except for the per-type deletes.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RetentionService {
+
+    private final PartitionMaintenanceRepository partitionRepository;
+    private final RetentionProperties retentionProperties;
+
+    public void runRetention() {
+        LocalDate today = LocalDate.now();
+        LocalDate currentMonth = today.withDayOfMonth(1);
+
+        splitFutureMonths(currentMonth);
+        applyTypeRetention(today.atStartOfDay());
+
+        LocalDate hotStart = retentionProperties.hotWindowStart(today).toLocalDate();
+        LocalDate archiveStart = currentMonth.minusMonths(retentionProperties.getArchiveMonths());
+        for (PartitionedTable table : PartitionedTable.values()) {
+            switchOutBefore(table, hotStart);
+            truncateArchiveBefore(table, archiveStart);
+        }
+        mergeEmptyBoundariesBefore(archiveStart);
+    }
+
+    private void splitFutureMonths(LocalDate currentMonth) {
+        List<LocalDate> boundaries = partitionRepository.boundaries();
+        for (int ahead = 0; ahead <= retentionProperties.getFutureMonths(); ahead++) {
+            LocalDate month = currentMonth.plusMonths(ahead);
+            if (!boundaries.contains(month)) {
+                partitionRepository.split(month);
+                log.info("Added partition boundary {}", month);
+            }
+        }
+    }
+
+    private void applyTypeRetention(LocalDateTime now) {
+        int batch = retentionProperties.getDeleteBatchSize();
+        for (Map.Entry<String, Duration> policy : retentionProperties.getNotificationTypes().entrySet()) {
+            LocalDateTime cutoff = now.minus(policy.getValue());
+            int deleted = 0;
+            for (boolean archive : new boolean[] {false, true}) {
+                int removed;
+                do {
+                    removed = partitionRepository.deleteNotifications(archive, policy.getKey(), cutoff, batch);
+                    deleted += removed;
+                } while (removed == batch);
+            }
+            if (deleted > 0) {
+                log.info("Deleted {} {} notifications older than {}", deleted, policy.getKey(), cutoff);
+            }
+        }
+    }
+
+    // Partition i + 1 holds [boundary i, boundary i + 1); partition 1 holds everything before boundary 1.
+    private void switchOutBefore(PartitionedTable table, LocalDate hotStart) {
+        List<LocalDate> boundaries = partitionRepository.boundaries();
+        Map<Integer, Long> hotRows = partitionRepository.rowsByPartition(table.hot());
+        Map<Integer, Long> archiveRows = partitionRepository.rowsByPartition(table.archive());
+        for (int partition = 1; partition <= boundaries.size() && !boundaries.get(partition - 1).isAfter(hotStart); partition++) {
+            if (hotRows.getOrDefault(partition, 0L) == 0) {
+                continue;
+            }
+            if (archiveRows.getOrDefault(partition, 0L) > 0) {
+                // Rows back-dated into an already archived month; SWITCH needs an empty target.
+                log.warn("Skipping archive of {} partition {}: archive partition is not empty", table.hot(), partition);
+                continue;
+            }
+            partitionRepository.switchToArchive(table, partition);
+            log.info("Archived {} rows of {} partition {}", hotRows.get(partition), table.hot(), partition);
+        }
+    }
+
+    private void truncateArchiveBefore(PartitionedTable table, LocalDate archiveStart) {
+        List<LocalDate> boundaries = partitionRepository.boundaries();
+        Map<Integer, Long> archiveRows = partitionRepository.rowsByPartition(table.archive());
+        for (int partition = 1; partition <= boundaries.size() && !boundaries.get(partition - 1).isAfter(archiveStart); partition++) {
+            if (archiveRows.getOrDefault(partition, 0L) > 0) {
+                partitionRepository.truncateArchive(table, partition);
+                log.info("Purged {} rows of {} partition {}", archiveRows.get(partition), table.archive(), partition);
+            }
+        }
+    }
+
+    // Merging the first boundary folds partition 2 into partition 1; only done when both are empty everywhere.
+    private void mergeEmptyBoundariesBefore(LocalDate archiveStart) {
+        List<LocalDate> boundaries = partitionRepository.boundaries();
+        while (boundaries.size() > 1 && !boundaries.get(1).isAfter(archiveStart) && firstTwoPartitionsEmpty()) {
+            partitionRepository.merge(boundaries.get(0));
+            log.info("Merged partition boundary {}", boundaries.get(0));
+            boundaries = partitionRepository.boundaries();
+        }
+    }
+
+    private boolean firstTwoPartitionsEmpty() {
+        for (PartitionedTable table : PartitionedTable.values()) {
+            for (String name : List.of(table.hot(), table.archive())) {
+                Map<Integer, Long> rows = partitionRepository.rowsByPartition(name);
+                if (rows.getOrDefault(1, 0L) > 0 || rows.getOrDefault(2, 0L) > 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
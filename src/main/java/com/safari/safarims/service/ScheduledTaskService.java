@@ -1,19 +1,22 @@
 package com.safari.safarims.service;
 
 import com.safari.safarims.entity.Payment;
-import com.safari.safarims.entity.Booking;
 import com.safari.safarims.common.enums.PaymentStatus;
 import com.safari.safarims.common.enums.BookingStatus;
+import com.safari.safarims.common.enums.StatsKind;
 import com.safari.safarims.repository.PaymentRepository;
-import com.safari.safarims.repository.BookingRepository;
+import com.safari.safarims.repository.DailyStatsRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -21,17 +24,34 @@ import java.util.List;
 public class ScheduledTaskService {
 
     private final PaymentRepository paymentRepository;
-    private final BookingRepository bookingRepository;
+    private final DailyStatsRepository dailyStatsRepository;
     private final PaymentService paymentService;
     private final OtpService otpService;
-    private final EmailService emailService;
-    private final NotificationService notificationService;
+    private final PaymentReminderService paymentReminderService;
+    private final BookingEscalationService bookingEscalationService;
+    private final MaintenanceDispatchService maintenanceDispatchService;
+    private final FleetAvailabilityService fleetAvailabilityService;
+    private final MaintenancePlannerService maintenancePlannerService;
+    private final RetentionService retentionService;
+    private final IdempotencyService idempotencyService;
+    private final JobCoordinator jobCoordinator;
 
+    // Longer than app.payments.gateway-timeout-ms, so the in-process callback has had its chance
+    @Value("${app.payments.reconcile-after-ms:12000}")
+    private long reconcileAfterMs;
+
+    @Value("${app.payments.reconcile-batch-size:100}")
+    private int reconcileBatchSize;
+
+    // Not transactional: each expirePayment commits (and retries on a version conflict) on its own,
+    // so one payment racing a tourist's checkout no longer rolls back the whole batch.
     @Scheduled(fixedRate = 30000) // Run every 30 seconds
-    @Transactional
     public void checkPaymentExpiry() {
+        JobCoordinator.Shard shard = jobCoordinator.currentShard().orElse(null);
+        if (shard == null) return;
         LocalDateTime now = LocalDateTime.now();
-        List<Payment> expired = paymentRepository.findExpiredPayments(PaymentStatus.PENDING, now);
+        List<Payment> expired = paymentRepository.findExpiredPaymentsInShard(
+            PaymentStatus.PENDING, now, shard.count(), shard.index());
         if (expired.isEmpty()) return;
         for (Payment payment : expired) {
             try {
@@ -43,38 +63,43 @@ public class ScheduledTaskService {
         }
     }
 
+    // Settles payments whose gateway outcome was lost to a timeout or error, before they would expire
+    @Scheduled(fixedDelayString = "${app.payments.reconcile-interval-ms:5000}")
+    public void reconcilePayments() {
+        JobCoordinator.Shard shard = jobCoordinator.currentShard().orElse(null);
+        if (shard == null) return;
+        LocalDateTime submittedBefore = LocalDateTime.now().minusNanos(reconcileAfterMs * 1_000_000L);
+        List<String> unsettled = paymentRepository.findUnsettledTxRefsInShard(PaymentStatus.PENDING, submittedBefore,
+            shard.count(), shard.index(), Limit.of(reconcileBatchSize));
+        for (String txRef : unsettled) {
+            try {
+                paymentService.reconcilePayment(txRef);
+            } catch (Exception e) {
+                log.error("Error reconciling payment {}: {}", txRef, e.getMessage());
+            }
+        }
+    }
+
     @Scheduled(fixedRate = 60000) // Run every minute
-    @Transactional
     public void sendPaymentReminders() {
+        JobCoordinator.Shard shard = jobCoordinator.currentShard().orElse(null);
+        if (shard == null) return;
         LocalDateTime now = LocalDateTime.now();
         LocalDateTime windowEnd = now.plusMinutes(2); // same 2‑minute lead time as original logic
-        List<Payment> expiringSoon = paymentRepository.findPaymentsExpiringBetween(PaymentStatus.PENDING, now, windowEnd);
-        if (expiringSoon.isEmpty()) return;
-
-        for (Payment payment : expiringSoon) {
-            try {
-                Booking booking = payment.getBooking();
-                emailService.sendPaymentReminder(
-                    booking.getTourist().getUser().getEmail(),
-                    booking.getId().toString(),
-                    payment.getAmount().toString()
-                );
-                notificationService.notifyUser(
-                    booking.getTourist().getUser().getId(),
-                    "PAYMENT",
-                    "Payment Reminder",
-                    "Your payment for booking #" + booking.getId() + " will expire soon"
-                );
-                log.info("Payment reminder queued for booking {} (payment {})", booking.getId(), payment.getId());
-            } catch (Exception e) {
-                log.error("Error sending payment reminder for payment {}: {}", payment.getId(), e.getMessage());
+        try {
+            int sent = paymentReminderService.sendDueReminders(now, windowEnd, shard);
+            if (sent > 0) {
+                log.info("Sent {} payment reminders", sent);
             }
+        } catch (Exception e) {
+            log.error("Error sending payment reminders: {}", e.getMessage());
         }
     }
 
     @Scheduled(cron = "0 0 2 * * ?") // Run daily at 2 AM
     @Transactional
     public void cleanupExpiredOtps() {
+        if (!jobCoordinator.isLeader()) return;
         try {
             otpService.cleanupExpiredOtps();
             log.info("Cleaned up expired OTPs");
@@ -84,33 +109,90 @@ public class ScheduledTaskService {
     }
 
     @Scheduled(fixedRate = 300000) // Run every 5 minutes
-    @Transactional
     public void checkForwardedBookings() {
-        // Check for bookings that have been forwarded to crew but not allocated within reasonable time
-        List<Booking> forwardedBookings = bookingRepository.findByStatus(BookingStatus.FORWARDED_TO_CREW);
-        LocalDateTime threshold = LocalDateTime.now().minusHours(24); // 24 hours threshold
-
-        for (Booking booking : forwardedBookings) {
-            if (booking.getUpdatedAt().isBefore(threshold)) {
-                // Notify crew managers about pending allocation
-                notificationService.notifyCrewManagers(
-                    "Pending Allocation Reminder",
-                    "Booking #" + booking.getId() + " has been pending allocation for over 24 hours"
-                );
-                log.info("Reminded crew managers about pending booking: {}", booking.getId());
+        if (!jobCoordinator.isLeader()) return;
+        try {
+            bookingEscalationService.escalateStaleBookings();
+        } catch (Exception e) {
+            log.error("Error escalating forwarded bookings: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.maintenance.auto-dispatch-ms:60000}")
+    public void autoDispatchTickets() {
+        if (!jobCoordinator.isLeader()) return;
+        try {
+            maintenanceDispatchService.dispatchPending(Integer.MAX_VALUE);
+        } catch (Exception e) {
+            log.error("Error auto-dispatching maintenance tickets: {}", e.getMessage());
+        }
+    }
+
+    // Every node: picks up ticket changes committed through other nodes
+    @Scheduled(fixedDelayString = "${app.maintenance.reconcile-ms:300000}",
+        initialDelayString = "${app.maintenance.reconcile-ms:300000}")
+    public void reconcileDispatchQueue() {
+        try {
+            maintenanceDispatchService.rehydrate();
+        } catch (Exception e) {
+            log.error("Error rebuilding maintenance dispatch queue: {}", e.getMessage());
+        }
+    }
+
+    // Every node: moves the calendar origin to today and picks up changes made through other nodes
+    @Scheduled(cron = "${app.fleet.calendar-rebuild-cron:0 5 * * * ?}")
+    public void rebuildFleetCalendar() {
+        try {
+            fleetAvailabilityService.rebuild();
+        } catch (Exception e) {
+            log.error("Error rebuilding fleet calendar: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "0 30 2 * * ?") // Run daily at 2:30 AM
+    public void planMaintenance() {
+        if (!jobCoordinator.isLeader()) return;
+        try {
+            maintenancePlannerService.planPending();
+        } catch (Exception e) {
+            log.error("Error planning maintenance: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "0 15 3 * * ?") // Run daily at 3:15 AM
+    public void applyRetention() {
+        if (!jobCoordinator.isLeader()) return;
+        try {
+            retentionService.runRetention();
+        } catch (Exception e) {
+            log.error("Error applying notification/email retention: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "0 30 * * * ?") // Run hourly at :30
+    public void purgeIdempotencyKeys() {
+        if (!jobCoordinator.isLeader()) return;
+        try {
+            int purged = idempotencyService.purgeExpired();
+            if (purged > 0) {
+                log.info("Purged {} expired idempotency keys", purged);
             }
+        } catch (Exception e) {
+            log.error("Error purging idempotency keys: {}", e.getMessage());
         }
     }
 
     @Scheduled(cron = "0 0 1 * * ?") // Run daily at 1 AM
     public void generateDailyReport() {
+        if (!jobCoordinator.isLeader()) return;
         try {
-            long newBookings = bookingRepository.findByStatus(BookingStatus.REQUESTED).size();
-            long confirmedBookings = bookingRepository.findByStatus(BookingStatus.CONFIRMED).size();
-            long cancelledBookings = bookingRepository.findByStatus(BookingStatus.CANCELLED).size();
-            long successfulPayments = paymentRepository.findByStatus(PaymentStatus.SUCCESS).size();
+            Map<String, Long> bookings = dailyStatsRepository.totalsByStatus(StatsKind.BOOKING);
+            Map<String, Long> payments = dailyStatsRepository.totalsByStatus(StatsKind.PAYMENT);
             log.info("Daily Report - New: {}, Confirmed: {}, Cancelled: {}, Payments: {}",
-                newBookings, confirmedBookings, cancelledBookings, successfulPayments);
+                bookings.getOrDefault(BookingStatus.REQUESTED.name(), 0L),
+                bookings.getOrDefault(BookingStatus.CONFIRMED.name(), 0L),
+                bookings.getOrDefault(BookingStatus.CANCELLED.name(), 0L),
+                payments.getOrDefault(PaymentStatus.SUCCESS.name(), 0L));
         } catch (Exception e) {
             log.error("Error generating daily report: {}", e.getMessage());
         }
@@ -4,6 +4,7 @@ import com.safari.safarims.dto.tourpackage.TourPackageRequest;
 import com.safari.safarims.dto.tourpackage.TourPackageResponse;
 import com.safari.safarims.entity.TourPackage;
 import com.safari.safarims.repository.TourPackageRepository;
+import com.safari.safarims.mapper.TourPackageMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -19,23 +20,24 @@ import java.util.stream.Collectors;
 public class TourPackageService {
 
     private final TourPackageRepository tourPackageRepository;
+    private final TourPackageMapper tourPackageMapper;
 
     public List<TourPackageResponse> getAllActivePackages() {
         return tourPackageRepository.findByIsActiveTrue().stream()
-            .map(this::mapToResponse)
+            .map(tourPackageMapper::toResponse)
             .collect(Collectors.toList());
     }
 
     public List<TourPackageResponse> getAllPackages() {
         return tourPackageRepository.findAll().stream()
-            .map(this::mapToResponse)
+            .map(tourPackageMapper::toResponse)
             .collect(Collectors.toList());
     }
 
     public TourPackageResponse getPackageById(Long id) {
         TourPackage tourPackage = tourPackageRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Tour package not found with id: " + id));
-        return mapToResponse(tourPackage);
+        return tourPackageMapper.toResponse(tourPackage);
     }
 
     @Transactional
@@ -57,7 +59,7 @@ public class TourPackageService {
         TourPackage saved = tourPackageRepository.save(tourPackage);
         log.info("Tour package created: {} by {}", saved.getName(), currentUser);
 
-        return mapToResponse(saved);
+        return tourPackageMapper.toResponse(saved);
     }
 
     @Transactional
@@ -78,7 +80,7 @@ public class TourPackageService {
         TourPackage updated = tourPackageRepository.save(tourPackage);
         log.info("Tour package updated: {} by {}", updated.getName(), currentUser);
 
-        return mapToResponse(updated);
+        return tourPackageMapper.toResponse(updated);
     }
 
     @Transactional
@@ -98,23 +100,7 @@ public class TourPackageService {
 
     public List<TourPackageResponse> searchPackages(String name) {
         return tourPackageRepository.findByNameContainingIgnoreCase(name).stream()
-            .map(this::mapToResponse)
+            .map(tourPackageMapper::toResponse)
             .collect(Collectors.toList());
     }
-
-    private TourPackageResponse mapToResponse(TourPackage tourPackage) {
-        return TourPackageResponse.builder()
-            .id(tourPackage.getId())
-            .name(tourPackage.getName())
-            .days(tourPackage.getDays())
-            .maxPeople(tourPackage.getMaxPeople())
-            .price(tourPackage.getPrice())
-            .description(tourPackage.getDescription())
-            .isActive(tourPackage.getIsActive())
-            .createdAt(tourPackage.getCreatedAt())
-            .updatedAt(tourPackage.getUpdatedAt())
-            .createdBy(tourPackage.getCreatedBy())
-            .updatedBy(tourPackage.getUpdatedBy())
-            .build();
-    }
 }
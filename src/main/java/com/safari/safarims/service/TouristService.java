@@ -0,0 +1,75 @@
+package com.safari.safarims.service;
+
+import com.safari.safarims.entity.Language;
+import com.safari.safarims.entity.Tourist;
+import com.safari.safarims.repository.LanguageRepository;
+import com.safari.safarims.repository.TouristRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TouristService {
+
+    private final TouristRepository touristRepository;
+    private final LanguageRepository languageRepository;
+
+    @Transactional(readOnly = true)
+    public List<String> getPreferredLanguages() {
+        return isoCodes(currentTourist().getPreferredLanguages());
+    }
+
+    /** Replaces the current tourist's preferred languages; the list order is their ranking. */
+    @Transactional
+    public List<String> updatePreferredLanguages(List<String> isoCodes) {
+        Tourist tourist = currentTourist();
+        List<Language> languages = tourist.getPreferredLanguages();
+        if (languages == null) {
+            tourist.setPreferredLanguages(resolveLanguages(isoCodes));
+        } else {
+            // Kept as the same list so Hibernate rewrites the rows by priority instead of recreating them
+            languages.clear();
+            languages.addAll(resolveLanguages(isoCodes));
+        }
+        touristRepository.save(tourist);
+        log.info("Tourist {} ranked preferred languages {}", tourist.getId(), isoCodes);
+        return isoCodes(tourist.getPreferredLanguages());
+    }
+
+    /** Looks up languages by ISO code, keeping the given order and dropping repeats. */
+    public List<Language> resolveLanguages(List<String> isoCodes) {
+        List<Language> languages = new ArrayList<>();
+        if (isoCodes == null) {
+            return languages;
+        }
+        Set<String> seen = new LinkedHashSet<>();
+        for (String isoCode : isoCodes) {
+            String code = isoCode.trim().toLowerCase(Locale.ROOT);
+            if (seen.add(code)) {
+                languages.add(languageRepository.findByIsoCode(code)
+                    .orElseThrow(() -> new RuntimeException("Unknown language: " + isoCode)));
+            }
+        }
+        return languages;
+    }
+
+    private Tourist currentTourist() {
+        String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
+        return touristRepository.findByUserUsername(currentUsername)
+            .orElseThrow(() -> new RuntimeException("Tourist profile not found"));
+    }
+
+    private static List<String> isoCodes(List<Language> languages) {
+        return languages == null ? List.of() : languages.stream().map(Language::getIsoCode).toList();
+    }
+}
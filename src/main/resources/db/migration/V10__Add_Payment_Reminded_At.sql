@@ -0,0 +1,12 @@
+-- V10 Persist reminder state on payments
+-- reminded_at is stamped when the reminder job claims a payment, so each pending payment is reminded once.
+
+IF COL_LENGTH('payments', 'reminded_at') IS NULL
+    ALTER TABLE payments ADD reminded_at DATETIME2 NULL;
+GO
+
+-- Reminder claim: status = 'PENDING' AND reminded_at IS NULL are literals in the claim statement,
+-- so the filtered index matches and only covers payments still waiting for their reminder.
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name='idx_payment_unreminded_expires')
+    CREATE INDEX idx_payment_unreminded_expires ON payments(expires_at) INCLUDE (booking_id)
+    WHERE status = 'PENDING' AND reminded_at IS NULL;
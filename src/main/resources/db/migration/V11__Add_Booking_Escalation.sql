@@ -0,0 +1,12 @@
+-- V11 Escalation tracking for bookings waiting on crew allocation
+-- escalation_level counts the tiers already notified while the booking sits in FORWARDED_TO_CREW.
+
+IF COL_LENGTH('bookings', 'escalation_level') IS NULL
+    ALTER TABLE bookings ADD escalation_level INT NOT NULL CONSTRAINT df_booking_escalation_level DEFAULT 0;
+IF COL_LENGTH('bookings', 'escalated_at') IS NULL
+    ALTER TABLE bookings ADD escalated_at DATETIME2 NULL;
+GO
+
+-- Escalation sweep: status = ? AND escalation_level = ? AND updated_at < ?
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name='idx_booking_status_escalation_updated')
+    CREATE INDEX idx_booking_status_escalation_updated ON bookings(status, escalation_level, updated_at);
@@ -0,0 +1,19 @@
+-- V12 Predictive maintenance planning
+-- last_service_mileage is the odometer reading at the last completed service; together with
+-- last_maintenance it gives each jeep's km/day rate.
+
+IF COL_LENGTH('jeeps', 'last_service_mileage') IS NULL
+    ALTER TABLE jeeps ADD last_service_mileage FLOAT NULL;
+GO
+
+-- Planner: jeeps with no or an overdue plan, and planned services per day in a window
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name='idx_jeep_next_maintenance')
+    CREATE INDEX idx_jeep_next_maintenance ON jeeps(next_maintenance);
+
+-- Planner: recent ticket history per vehicle
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name='idx_ticket_vehicle_opened')
+    CREATE INDEX idx_ticket_vehicle_opened ON maintenance_tickets(vehicle_id, opened_at) INCLUDE (severity);
+
+-- Planner: upcoming booking volume per day
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name='idx_booking_requested_date')
+    CREATE INDEX idx_booking_requested_date ON bookings(requested_date) INCLUDE (status);
@@ -0,0 +1,145 @@
+-- V13 Monthly partitioning for notifications and outbound_emails, plus archive tables
+-- Both tables (and their archives) share pf_monthly / ps_monthly. The retention job keeps a
+-- sliding window: it SPLITs future months ahead of time, SWITCHes months that leave the hot
+-- window into the *_archive tables (metadata only), truncates archive months past retention and
+-- MERGEs boundaries that no longer hold rows anywhere.
+--
+-- The clustered key becomes (created_at, id) so every index is aligned and switchable. id stays
+-- IDENTITY and is still unique; an aligned nonclustered index on id serves lookups by id.
+
+-- Boundaries: the first of each month from the oldest row (at most five years back) to three
+-- months ahead. RANGE RIGHT, so each partition holds [boundary, next boundary).
+IF NOT EXISTS (SELECT 1 FROM sys.partition_functions WHERE name = 'pf_monthly')
+BEGIN
+    DECLARE @now DATE = CAST(SYSDATETIME() AS DATE);
+    DECLARE @oldest DATE = (
+        SELECT CAST(MIN(created_at) AS DATE) FROM (
+            SELECT MIN(created_at) AS created_at FROM notifications
+            UNION ALL
+            SELECT MIN(created_at) FROM outbound_emails
+        ) oldest);
+    IF @oldest IS NULL OR @oldest > @now SET @oldest = @now;
+    IF @oldest < DATEADD(YEAR, -5, @now) SET @oldest = DATEADD(YEAR, -5, @now);
+
+    DECLARE @month DATE = DATEFROMPARTS(YEAR(@oldest), MONTH(@oldest), 1);
+    DECLARE @last DATE = DATEADD(MONTH, 3, DATEFROMPARTS(YEAR(@now), MONTH(@now), 1));
+    DECLARE @values NVARCHAR(MAX) = N'';
+    WHILE @month <= @last
+    BEGIN
+        SET @values = @values + CASE WHEN @values = N'' THEN N'' ELSE N', ' END
+            + N'''' + CONVERT(NVARCHAR(10), @month, 23) + N'''';
+        SET @month = DATEADD(MONTH, 1, @month);
+    END;
+
+    DECLARE @sql NVARCHAR(MAX) =
+        N'CREATE PARTITION FUNCTION pf_monthly (DATETIME2) AS RANGE RIGHT FOR VALUES (' + @values + N')';
+    EXEC sp_executesql @sql;
+END;
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.partition_schemes WHERE name = 'ps_monthly')
+    CREATE PARTITION SCHEME ps_monthly AS PARTITION pf_monthly ALL TO ([PRIMARY]);
+GO
+
+-- Notifications: re-cluster onto the partition scheme
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE object_id = OBJECT_ID('notifications') AND name = 'pk_notifications')
+BEGIN
+    IF EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'idx_notification_user')
+        DROP INDEX idx_notification_user ON notifications;
+    IF EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'idx_notification_unread_user')
+        DROP INDEX idx_notification_unread_user ON notifications;
+    IF EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'idx_notification_user_created')
+        DROP INDEX idx_notification_user_created ON notifications;
+
+    DECLARE @pk SYSNAME = (SELECT name FROM sys.key_constraints
+                           WHERE parent_object_id = OBJECT_ID('notifications') AND type = 'PK');
+    IF @pk IS NOT NULL
+    BEGIN
+        DECLARE @dropPk NVARCHAR(400) = N'ALTER TABLE notifications DROP CONSTRAINT ' + QUOTENAME(@pk);
+        EXEC sp_executesql @dropPk;
+    END;
+
+    ALTER TABLE notifications ADD CONSTRAINT pk_notifications
+        PRIMARY KEY CLUSTERED (created_at, id) ON ps_monthly(created_at);
+END;
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'idx_notification_id')
+    CREATE INDEX idx_notification_id ON notifications(id) ON ps_monthly(created_at);
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'idx_notification_user_created')
+    CREATE INDEX idx_notification_user_created ON notifications(user_id, created_at DESC) ON ps_monthly(created_at);
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'idx_notification_unread_user')
+    CREATE INDEX idx_notification_unread_user ON notifications(user_id, created_at DESC)
+    WHERE read_at IS NULL ON ps_monthly(created_at);
+-- Retention: per-type deletes
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'idx_notification_type_created')
+    CREATE INDEX idx_notification_type_created ON notifications(type, created_at) ON ps_monthly(created_at);
+GO
+
+-- Outbound emails: re-cluster onto the partition scheme
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE object_id = OBJECT_ID('outbound_emails') AND name = 'pk_outbound_emails')
+BEGIN
+    DECLARE @pk SYSNAME = (SELECT name FROM sys.key_constraints
+                           WHERE parent_object_id = OBJECT_ID('outbound_emails') AND type = 'PK');
+    IF @pk IS NOT NULL
+    BEGIN
+        DECLARE @dropPk NVARCHAR(400) = N'ALTER TABLE outbound_emails DROP CONSTRAINT ' + QUOTENAME(@pk);
+        EXEC sp_executesql @dropPk;
+    END;
+
+    ALTER TABLE outbound_emails ADD CONSTRAINT pk_outbound_emails
+        PRIMARY KEY CLUSTERED (created_at, id) ON ps_monthly(created_at);
+END;
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'idx_outbound_email_id')
+    CREATE INDEX idx_outbound_email_id ON outbound_emails(id) ON ps_monthly(created_at);
+-- findByStatusOrderByCreatedAtDesc
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'idx_outbound_email_status_created')
+    CREATE INDEX idx_outbound_email_status_created ON outbound_emails(status, created_at DESC) ON ps_monthly(created_at);
+-- findByToEmailOrderByCreatedAtDesc
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'idx_outbound_email_to_created')
+    CREATE INDEX idx_outbound_email_to_created ON outbound_emails(to_email, created_at DESC) ON ps_monthly(created_at);
+GO
+
+-- Archive tables: same columns, clustered key and indexes, so a partition SWITCH is metadata only.
+-- No foreign key to users, so archived rows never block deleting a user.
+IF OBJECT_ID('notifications_archive', 'U') IS NULL
+BEGIN
+    CREATE TABLE notifications_archive (
+        id BIGINT IDENTITY(1,1) NOT NULL,
+        user_id BIGINT NOT NULL,
+        type NVARCHAR(50) NOT NULL,
+        title NVARCHAR(200) NOT NULL,
+        body NVARCHAR(1000) NOT NULL,
+        read_at DATETIME2 NULL,
+        created_at DATETIME2 NOT NULL,
+        CONSTRAINT pk_notifications_archive PRIMARY KEY CLUSTERED (created_at, id) ON ps_monthly(created_at)
+    );
+    CREATE INDEX idx_notification_archive_id ON notifications_archive(id) ON ps_monthly(created_at);
+    CREATE INDEX idx_notification_archive_user_created ON notifications_archive(user_id, created_at DESC) ON ps_monthly(created_at);
+    CREATE INDEX idx_notification_archive_unread_user ON notifications_archive(user_id, created_at DESC)
+        WHERE read_at IS NULL ON ps_monthly(created_at);
+    CREATE INDEX idx_notification_archive_type_created ON notifications_archive(type, created_at) ON ps_monthly(created_at);
+END;
+GO
+
+IF OBJECT_ID('outbound_emails_archive', 'U') IS NULL
+BEGIN
+    CREATE TABLE outbound_emails_archive (
+        id BIGINT IDENTITY(1,1) NOT NULL,
+        to_email NVARCHAR(100) NOT NULL,
+        subject NVARCHAR(200) NOT NULL,
+        body NVARCHAR(MAX) NOT NULL,
+        template_name NVARCHAR(50) NULL,
+        sent_at DATETIME2 NULL,
+        status NVARCHAR(20) NOT NULL,
+        error_message NVARCHAR(500) NULL,
+        created_at DATETIME2 NOT NULL,
+        CONSTRAINT pk_outbound_emails_archive PRIMARY KEY CLUSTERED (created_at, id) ON ps_monthly(created_at)
+    );
+    CREATE INDEX idx_outbound_email_archive_id ON outbound_emails_archive(id) ON ps_monthly(created_at);
+    CREATE INDEX idx_outbound_email_archive_status_created ON outbound_emails_archive(status, created_at DESC) ON ps_monthly(created_at);
+    CREATE INDEX idx_outbound_email_archive_to_created ON outbound_emails_archive(to_email, created_at DESC) ON ps_monthly(created_at);
+END;
+GO
@@ -0,0 +1,16 @@
+-- V14 Optimistic locking
+-- bookings.version already exists (V3) and is now a JPA @Version column. Payments, allocations and
+-- jeeps gain one so concurrent writers fail with a conflict instead of overwriting each other;
+-- Hibernate issues UPDATE ... WHERE id = ? AND version = ? for all four.
+
+IF COL_LENGTH('payments', 'version') IS NULL
+    ALTER TABLE payments ADD version INT NOT NULL CONSTRAINT df_payments_version DEFAULT 0;
+GO
+
+IF COL_LENGTH('allocations', 'version') IS NULL
+    ALTER TABLE allocations ADD version INT NOT NULL CONSTRAINT df_allocations_version DEFAULT 0;
+GO
+
+IF COL_LENGTH('jeeps', 'version') IS NULL
+    ALTER TABLE jeeps ADD version INT NOT NULL CONSTRAINT df_jeeps_version DEFAULT 0;
+GO
@@ -0,0 +1,40 @@
+-- V15 At most one ACTIVE allocation per booking, driver, guide and jeep
+-- The service-level checks read before they write, so two concurrent allocations can both pass
+-- them. These unique filtered indexes make the insert itself the claim: the loser gets a duplicate
+-- key error instead of a double booking. They replace the plain V7 filtered indexes, which covered
+-- the same lookups. Resource columns are nullable, and a unique index treats NULLs as equal, hence
+-- the IS NOT NULL in each filter.
+
+IF EXISTS (SELECT booking_id FROM allocations WHERE status = 'ACTIVE' GROUP BY booking_id HAVING COUNT(*) > 1)
+    OR EXISTS (SELECT driver_id FROM allocations WHERE status = 'ACTIVE' AND driver_id IS NOT NULL GROUP BY driver_id HAVING COUNT(*) > 1)
+    OR EXISTS (SELECT guide_id FROM allocations WHERE status = 'ACTIVE' AND guide_id IS NOT NULL GROUP BY guide_id HAVING COUNT(*) > 1)
+    OR EXISTS (SELECT jeep_id FROM allocations WHERE status = 'ACTIVE' AND jeep_id IS NOT NULL GROUP BY jeep_id HAVING COUNT(*) > 1)
+BEGIN
+    THROW 50015, 'allocations already holds double-booked ACTIVE rows; cancel the duplicates before migrating', 1;
+END
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name='ux_allocation_active_booking')
+    CREATE UNIQUE INDEX ux_allocation_active_booking ON allocations(booking_id) WHERE status = 'ACTIVE';
+GO
+
+IF EXISTS (SELECT 1 FROM sys.indexes WHERE name='idx_allocation_active_driver')
+    DROP INDEX idx_allocation_active_driver ON allocations;
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name='ux_allocation_active_driver')
+    CREATE UNIQUE INDEX ux_allocation_active_driver ON allocations(driver_id)
+    WHERE status = 'ACTIVE' AND driver_id IS NOT NULL;
+GO
+
+IF EXISTS (SELECT 1 FROM sys.indexes WHERE name='idx_allocation_active_guide')
+    DROP INDEX idx_allocation_active_guide ON allocations;
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name='ux_allocation_active_guide')
+    CREATE UNIQUE INDEX ux_allocation_active_guide ON allocations(guide_id)
+    WHERE status = 'ACTIVE' AND guide_id IS NOT NULL;
+GO
+
+IF EXISTS (SELECT 1 FROM sys.indexes WHERE name='idx_allocation_active_jeep')
+    DROP INDEX idx_allocation_active_jeep ON allocations;
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name='ux_allocation_active_jeep')
+    CREATE UNIQUE INDEX ux_allocation_active_jeep ON allocations(jeep_id)
+    WHERE status = 'ACTIVE' AND jeep_id IS NOT NULL;
+GO
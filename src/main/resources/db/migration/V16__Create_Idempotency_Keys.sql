@@ -0,0 +1,21 @@
+-- V16 Idempotency-Key store
+-- One narrow row per (caller, endpoint, key). Both the key and the request fingerprint are SHA-256
+-- hashes, so the row size does not depend on what clients send. status_code stays NULL while the
+-- first request is still running; other nodes seeing such a row answer 409 instead of re-running it.
+
+IF OBJECT_ID('idempotency_keys', 'U') IS NULL
+BEGIN
+    CREATE TABLE idempotency_keys (
+        key_hash BINARY(32) NOT NULL CONSTRAINT pk_idempotency_keys PRIMARY KEY,
+        request_hash BINARY(32) NOT NULL,
+        status_code SMALLINT NULL,
+        response_body NVARCHAR(MAX) NULL,
+        created_at DATETIME2 NOT NULL,
+        expires_at DATETIME2 NOT NULL
+    );
+END;
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name='idx_idempotency_keys_expires')
+    CREATE INDEX idx_idempotency_keys_expires ON idempotency_keys(expires_at);
+GO
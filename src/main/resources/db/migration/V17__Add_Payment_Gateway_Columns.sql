@@ -0,0 +1,15 @@
+-- V17 Asynchronous payment gateway
+-- submitted_at marks a payment handed to the gateway (so a client retry does not charge twice),
+-- gateway_ref keeps the provider's capture/authorization id, failure_reason its decline text.
+
+IF COL_LENGTH('payments', 'submitted_at') IS NULL
+    ALTER TABLE payments ADD submitted_at DATETIME2 NULL;
+GO
+
+IF COL_LENGTH('payments', 'gateway_ref') IS NULL
+    ALTER TABLE payments ADD gateway_ref NVARCHAR(100) NULL;
+GO
+
+IF COL_LENGTH('payments', 'failure_reason') IS NULL
+    ALTER TABLE payments ADD failure_reason NVARCHAR(255) NULL;
+GO
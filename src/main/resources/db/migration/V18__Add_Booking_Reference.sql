@@ -0,0 +1,10 @@
+-- V18 Human-facing booking references
+-- Issued by IdGenerator for new bookings; rows created before this stay NULL, hence the filtered index.
+
+IF COL_LENGTH('bookings', 'reference') IS NULL
+    ALTER TABLE bookings ADD reference NVARCHAR(20) NULL;
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ux_bookings_reference' AND object_id = OBJECT_ID('bookings'))
+    CREATE UNIQUE INDEX ux_bookings_reference ON bookings(reference) WHERE reference IS NOT NULL;
+GO
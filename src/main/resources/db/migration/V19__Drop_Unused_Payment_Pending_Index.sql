@@ -0,0 +1,7 @@
+-- V19 Drop idx_payment_pending_expires (V7)
+-- The expiry queries bind status as a parameter, so SQL Server never matches this filtered index;
+-- they use idx_payment_status_expires, and the reminder claim has idx_payment_unreminded_expires.
+
+IF EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'idx_payment_pending_expires' AND object_id = OBJECT_ID('payments'))
+    DROP INDEX idx_payment_pending_expires ON payments;
+GO
@@ -0,0 +1,20 @@
+-- V20 Order tourists' preferred languages
+-- priority is the tourist's own ranking (0 = first choice), mapped as the JPA @OrderColumn. Rows from
+-- before this migration never recorded an order; they are numbered by language_id once.
+
+IF COL_LENGTH('tourist_preferred_languages', 'priority') IS NULL
+    ALTER TABLE tourist_preferred_languages ADD priority INT NULL;
+GO
+
+UPDATE tpl
+   SET priority = ranked.priority
+  FROM tourist_preferred_languages tpl
+  JOIN (SELECT tourist_id, language_id,
+               ROW_NUMBER() OVER (PARTITION BY tourist_id ORDER BY language_id) - 1 AS priority
+          FROM tourist_preferred_languages) ranked
+    ON ranked.tourist_id = tpl.tourist_id AND ranked.language_id = tpl.language_id
+ WHERE tpl.priority IS NULL;
+GO
+
+ALTER TABLE tourist_preferred_languages ALTER COLUMN priority INT NOT NULL;
+GO
@@ -0,0 +1,14 @@
+-- V21 At most one PENDING payment per booking
+-- processPayment reads for an existing payment before inserting one, so two concurrent submits
+-- without an Idempotency-Key could both insert and both be charged. This filtered unique index
+-- makes the insert the claim: the loser gets a duplicate key error and retries onto the winner.
+
+IF EXISTS (SELECT booking_id FROM payments WHERE status = 'PENDING' GROUP BY booking_id HAVING COUNT(*) > 1)
+BEGIN
+    THROW 50021, 'payments already holds several PENDING rows for one booking; settle the duplicates before migrating', 1;
+END
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name='ux_payment_pending_booking')
+    CREATE UNIQUE INDEX ux_payment_pending_booking ON payments(booking_id) WHERE status = 'PENDING';
+GO
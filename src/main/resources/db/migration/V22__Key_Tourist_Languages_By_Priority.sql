@@ -0,0 +1,17 @@
+-- V22 Key tourist_preferred_languages by (tourist_id, priority)
+-- Hibernate reorders an @OrderColumn list by rewriting language_id in place, row by row, which the
+-- old (tourist_id, language_id) unique constraint rejects midway through a swap. Duplicate languages
+-- are now kept out by TouristService instead. priority defaults to 0 so writers that predate V20
+-- can still add a tourist's first language.
+
+IF NOT EXISTS (SELECT 1 FROM sys.default_constraints WHERE name='df_tpl_priority')
+    ALTER TABLE tourist_preferred_languages ADD CONSTRAINT df_tpl_priority DEFAULT 0 FOR priority;
+GO
+
+IF EXISTS (SELECT 1 FROM sys.key_constraints WHERE name='uq_tpl_tourist_language')
+    ALTER TABLE tourist_preferred_languages DROP CONSTRAINT uq_tpl_tourist_language;
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.key_constraints WHERE name='uq_tpl_tourist_priority')
+    ALTER TABLE tourist_preferred_languages ADD CONSTRAINT uq_tpl_tourist_priority UNIQUE (tourist_id, priority);
+GO
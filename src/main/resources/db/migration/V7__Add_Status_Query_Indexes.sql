@@ -0,0 +1,38 @@
+-- V7 Composite / filtered indexes for the status-driven hot queries
+-- V3 only indexes single foreign keys; every query below was scanning its table.
+-- Filtered indexes are only matched when the query predicate is a literal, so they are
+-- reserved for queries that hard-code the filter value (JPQL literals, IS NULL checks).
+-- Parameterised status filters get plain composite indexes keyed on status first.
+
+-- Bookings: findByStatus / findByStatusIn (ORDER BY created_at DESC)
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name='idx_booking_status_created')
+    CREATE INDEX idx_booking_status_created ON bookings(status, created_at DESC);
+
+-- Payments: findExpiredPayments / findPaymentsExpiringBetween (status = :status AND expires_at range)
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name='idx_payment_status_expires')
+    CREATE INDEX idx_payment_status_expires ON payments(status, expires_at) INCLUDE (booking_id);
+
+-- Payments: pending payments that carry an expiry (literal PENDING filter)
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name='idx_payment_pending_expires')
+    CREATE INDEX idx_payment_pending_expires ON payments(expires_at) INCLUDE (booking_id)
+    WHERE status = 'PENDING' AND expires_at IS NOT NULL;
+
+-- Allocations: findActiveAllocationsBy{Jeep,Driver,Guide}Id (status = 'ACTIVE' literal in JPQL)
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name='idx_allocation_active_jeep')
+    CREATE INDEX idx_allocation_active_jeep ON allocations(jeep_id) WHERE status = 'ACTIVE';
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name='idx_allocation_active_driver')
+    CREATE INDEX idx_allocation_active_driver ON allocations(driver_id) WHERE status = 'ACTIVE';
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name='idx_allocation_active_guide')
+    CREATE INDEX idx_allocation_active_guide ON allocations(guide_id) WHERE status = 'ACTIVE';
+
+-- Maintenance tickets: findByStatusInOrderBySeverityAndDate
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name='idx_ticket_status_severity_opened')
+    CREATE INDEX idx_ticket_status_severity_opened ON maintenance_tickets(status, severity DESC, opened_at);
+
+-- Notifications: countByUserIdAndReadAtIsNull / findByUserIdAndReadAtIsNullOrderByCreatedAtDesc
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name='idx_notification_unread_user')
+    CREATE INDEX idx_notification_unread_user ON notifications(user_id, created_at DESC) WHERE read_at IS NULL;
+
+-- Notifications: findByUserIdOrderByCreatedAtDesc
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name='idx_notification_user_created')
+    CREATE INDEX idx_notification_user_created ON notifications(user_id, created_at DESC);
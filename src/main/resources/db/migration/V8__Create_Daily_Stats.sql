@@ -0,0 +1,30 @@
+-- V8 Materialised daily counters for reporting
+-- One row per (creation day, package, kind, current status). Maintained incrementally by the
+-- Hibernate listener on booking/payment state transitions; rebuilt per date range by the backfill job.
+
+IF OBJECT_ID('daily_stats','U') IS NULL
+BEGIN
+    CREATE TABLE daily_stats (
+        stat_date DATE NOT NULL,
+        package_id BIGINT NOT NULL,
+        kind NVARCHAR(10) NOT NULL,
+        status NVARCHAR(30) NOT NULL,
+        item_count INT NOT NULL,
+        amount DECIMAL(14,2) NOT NULL,
+        CONSTRAINT pk_daily_stats PRIMARY KEY (stat_date, package_id, kind, status)
+    );
+END;
+
+-- Seed from the current state so the counters start consistent
+INSERT INTO daily_stats (stat_date, package_id, kind, status, item_count, amount)
+SELECT CAST(b.created_at AS DATE), b.package_id, 'BOOKING', b.status, COUNT(*), SUM(ISNULL(b.total_amount, 0))
+FROM bookings b
+WHERE b.created_at IS NOT NULL
+GROUP BY CAST(b.created_at AS DATE), b.package_id, b.status;
+
+INSERT INTO daily_stats (stat_date, package_id, kind, status, item_count, amount)
+SELECT CAST(p.created_at AS DATE), b.package_id, 'PAYMENT', p.status, COUNT(*), SUM(p.amount)
+FROM payments p
+JOIN bookings b ON b.id = p.booking_id
+WHERE p.created_at IS NOT NULL
+GROUP BY CAST(p.created_at AS DATE), b.package_id, p.status;
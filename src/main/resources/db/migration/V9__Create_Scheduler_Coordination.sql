@@ -0,0 +1,23 @@
+-- V9 Scheduler coordination across app nodes
+-- scheduler_leases: named, time-bounded leases (ShedLock-style). The 'leader' lease elects the node that
+-- runs singleton jobs. scheduler_nodes: heartbeat table used to split sharded jobs across live nodes.
+-- All timestamps are database UTC time so app-node clock skew does not matter.
+
+IF OBJECT_ID('scheduler_leases','U') IS NULL
+BEGIN
+    CREATE TABLE scheduler_leases (
+        name NVARCHAR(64) NOT NULL PRIMARY KEY,
+        lock_until DATETIME2 NOT NULL,
+        locked_at DATETIME2 NOT NULL,
+        locked_by NVARCHAR(255) NOT NULL
+    );
+END;
+
+IF OBJECT_ID('scheduler_nodes','U') IS NULL
+BEGIN
+    CREATE TABLE scheduler_nodes (
+        node_id NVARCHAR(255) NOT NULL PRIMARY KEY,
+        started_at DATETIME2 NOT NULL,
+        heartbeat_at DATETIME2 NOT NULL
+    );
+END;
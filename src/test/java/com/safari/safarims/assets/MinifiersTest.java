@@ -0,0 +1,147 @@
+package com.safari.safarims.assets;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The minifiers must only drop comments and layout whitespace; everything inside string, template,
+ * regex and preformatted content has to come out byte for byte.
+ */
+class MinifiersTest {
+
+    @Test
+    void cssDropsCommentsAndLayoutWhitespace() {
+        String css = """
+            /* layout */
+            .card  >  .title ,
+            .card .body {
+                margin : 0 auto;
+                color: red;
+            }
+            """;
+
+        assertThat(Minifiers.css(css)).isEqualTo(".card>.title,.card .body{margin :0 auto;color:red}");
+    }
+
+    @Test
+    void cssKeepsStringsAndMediaQuerySpacing() {
+        String css = """
+            .hero { background: url('data:image/svg+xml,<svg a="1  2"/>/* not a comment */'); }
+            @media screen and (max-width: 768px) { .nav { display: none; } }
+            """;
+
+        assertThat(Minifiers.css(css)).isEqualTo(
+            ".hero{background:url('data:image/svg+xml,<svg a=\"1  2\"/>/* not a comment */')}"
+                + "@media screen and (max-width:768px){.nav{display:none}}");
+    }
+
+    @Test
+    void jsDropsCommentsAndIndentationButKeepsLineBreaks() {
+        String js = """
+            // setup
+            function total(a, b) {
+                /* sum */ return a + b   // trailing
+            }
+            let x = 1
+            let y = 2
+            """;
+
+        assertThat(Minifiers.js(js)).isEqualTo("""
+            function total(a, b) {
+             return a + b
+            }
+            let x = 1
+            let y = 2""");
+    }
+
+    @Test
+    void jsLeavesStringAndTemplateContentAlone() {
+        String js = """
+            const url = "https://example.com/a//b"; const s = '/* kept */';
+            const html = `
+                <div>   // not a comment
+                </div>`;
+            """;
+
+        assertThat(Minifiers.js(js)).isEqualTo("""
+            const url = "https://example.com/a//b"; const s = '/* kept */';
+            const html = `
+                <div>   // not a comment
+                </div>`;""");
+    }
+
+    @Test
+    void jsTellsRegexLiteralsFromDivision() {
+        String js = """
+            const slashes = text.replace(/\\/\\//g, '/');
+            const quote = /'/.test(s);
+            function isBlank(s) { return /^\\s*$/.test(s) }
+            const ratio = a / b / c; // divided
+            """;
+
+        assertThat(Minifiers.js(js)).isEqualTo("""
+            const slashes = text.replace(/\\/\\//g, '/');
+            const quote = /'/.test(s);
+            function isBlank(s) { return /^\\s*$/.test(s) }
+            const ratio = a / b / c;""");
+    }
+
+    @Test
+    void htmlDropsCommentsAndIndentationButKeepsPreformattedContent() {
+        String html = """
+            <!DOCTYPE html>
+            <html>
+                <!-- navigation -->
+                <!--[if IE]><p>old</p><![endif]-->
+                <body>
+                    <pre>
+              keep   this
+                    </pre>
+                    <textarea name="notes">  a
+                b  </textarea>
+                </body>
+            </html>
+            """;
+
+        assertThat(Minifiers.html(html)).isEqualTo("""
+            <!DOCTYPE html>
+            <html>
+            <!--[if IE]><p>old</p><![endif]-->
+            <body>
+            <pre>
+              keep   this
+                    </pre>
+            <textarea name="notes">  a
+                b  </textarea>
+            </body>
+            </html>
+            """);
+    }
+
+    @Test
+    void htmlMinifiesInlineScriptAndStyleOnly() {
+        String html = """
+            <style>
+                body { margin: 0; }
+            </style>
+            <script>
+                // boot
+                init();
+            </script>
+            <script src="/assets/main.js"></script>
+            <script type="application/ld+json">
+                {"name": "Safari // Tours"}
+            </script>
+            """;
+
+        assertThat(Minifiers.html(html)).isEqualTo("""
+            <style>body{margin:0}</style>
+            <script>init();</script>
+            <script src="/assets/main.js"></script>
+            <script type="application/ld+json">
+                {"name": "Safari // Tours"}
+            </script>
+            """);
+    }
+}
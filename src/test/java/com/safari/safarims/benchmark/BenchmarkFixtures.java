@@ -0,0 +1,136 @@
+package com.safari.safarims.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.safari.safarims.common.enums.AllocationStatus;
+import com.safari.safarims.common.enums.BookingStatus;
+import com.safari.safarims.common.enums.JeepStatus;
+import com.safari.safarims.common.enums.PaymentStatus;
+import com.safari.safarims.common.enums.UserRole;
+import com.safari.safarims.entity.Allocation;
+import com.safari.safarims.entity.Booking;
+import com.safari.safarims.entity.Driver;
+import com.safari.safarims.entity.Guide;
+import com.safari.safarims.entity.Jeep;
+import com.safari.safarims.entity.Payment;
+import com.safari.safarims.entity.TourPackage;
+import com.safari.safarims.entity.Tourist;
+import com.safari.safarims.entity.User;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Optional;
+import java.util.function.BiFunction;
+
+/**
+ * Fully populated entity graphs and cheap repository stubs shared by the benchmarks, so each
+ * benchmark measures the code under test rather than fixture or mocking overhead.
+ */
+public final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    /** Benchmarks run outside Spring, where logback defaults to DEBUG on the console. */
+    public static void quietLogging() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+    }
+
+    public static Booking booking(long id) {
+        User user = User.builder()
+            .id(1000 + id)
+            .username("tourist" + id)
+            .email("tourist" + id + "@safari.local")
+            .fullName("Tourist " + id)
+            .phone("+94700000000")
+            .role(UserRole.TOURIST)
+            .build();
+        Tourist tourist = Tourist.builder().id(2000 + id).user(user).fullName("Tourist " + id).build();
+        TourPackage tourPackage = TourPackage.builder()
+            .id(3L)
+            .name("River Edge Explorer")
+            .days(2)
+            .maxPeople(10)
+            .price(new BigDecimal("420.00"))
+            .isActive(true)
+            .build();
+
+        Booking booking = Booking.builder()
+            .id(id)
+            .tourist(tourist)
+            .tourPackage(tourPackage)
+            .requestedDate(LocalDate.of(2026, 12, 1))
+            .requestedTime(LocalTime.of(6, 0))
+            .status(BookingStatus.REQUESTED)
+            .totalAmount(tourPackage.getPrice())
+            .notes("Window seat please")
+            .build();
+        booking.setCreatedAt(LocalDateTime.now());
+        booking.setUpdatedAt(LocalDateTime.now());
+        booking.setCreatedBy(user.getUsername());
+        booking.setUpdatedBy(user.getUsername());
+        return booking;
+    }
+
+    public static Allocation allocation(long id) {
+        Booking booking = booking(id);
+        Driver driver = Driver.builder().id(10L).fullName("John Driver").phone("+94711111111").licenseNo("LIC-10").build();
+        Guide guide = Guide.builder().id(20L).fullName("Sarah Guide").phone("+94722222222").build();
+        Jeep jeep = Jeep.builder().id(30L).plateNo("WP-CAB-1234").model("Land Cruiser").capacity(6)
+            .status(JeepStatus.ALLOCATED).build();
+
+        Allocation allocation = Allocation.builder()
+            .id(id)
+            .booking(booking)
+            .driver(driver)
+            .guide(guide)
+            .jeep(jeep)
+            .status(AllocationStatus.ACTIVE)
+            .notes("Morning shift")
+            .build();
+        allocation.setCreatedAt(LocalDateTime.now());
+        allocation.setUpdatedAt(LocalDateTime.now());
+        allocation.setCreatedBy("crew_manager");
+        allocation.setUpdatedBy("crew_manager");
+        return allocation;
+    }
+
+    public static Payment payment(long id) {
+        Payment payment = Payment.builder()
+            .id(id)
+            .booking(booking(id))
+            .amount(new BigDecimal("420.00"))
+            .status(PaymentStatus.PENDING)
+            .txRef("TXN-" + id)
+            .expiresAt(LocalDateTime.now().plusMinutes(5))
+            .build();
+        payment.setCreatedAt(LocalDateTime.now());
+        payment.setUpdatedAt(LocalDateTime.now());
+        return payment;
+    }
+
+    /**
+     * Minimal Spring Data repository stand-in: {@code save} echoes its argument, {@code find*}
+     * methods return empty, and {@code handler} may override any method by name.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T repository(Class<T> type, BiFunction<String, Object[], Object> handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Object result = handler.apply(method.getName(), args);
+            if (result != null) {
+                return result;
+            }
+            if (method.getName().startsWith("save")) {
+                return args[0];
+            }
+            if (method.getReturnType() == Optional.class) {
+                return Optional.empty();
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,97 @@
+package com.safari.safarims.common.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Drives the generator with a hand-set clock to check ordering, sequence exhaustion within one
+ * millisecond and a wall clock that steps backwards.
+ */
+class IdGeneratorTest {
+
+    private static final long T = IdGenerator.EPOCH_MILLIS + 1_000_000L;
+    private static final int NODE = 37;
+
+    private final AtomicLong clock = new AtomicLong(T);
+    private final IdGenerator generator = new IdGenerator(NODE, clock::get);
+
+    @Test
+    void idsAreStrictlyIncreasingAndCarryTheirNode() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            if (i % 100 == 0) {
+                clock.addAndGet(3);
+            }
+            ids.add(generator.nextId());
+        }
+        for (int i = 1; i < ids.size(); i++) {
+            assertThat(ids.get(i)).isGreaterThan(ids.get(i - 1));
+        }
+        assertThat(ids).allSatisfy(id -> assertThat(node(id)).isEqualTo(NODE));
+    }
+
+    @Test
+    void exhaustedSequenceBorrowsTheNextMillisecond() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 4097; i++) {
+            ids.add(generator.nextId());
+        }
+        for (int i = 0; i < 4096; i++) {
+            assertThat(millis(ids.get(i))).isEqualTo(T);
+            assertThat(sequence(ids.get(i))).isEqualTo(i);
+        }
+        assertThat(millis(ids.get(4096))).isEqualTo(T + 1);
+        assertThat(sequence(ids.get(4096))).isZero();
+
+        // Once the real clock passes the borrowed millisecond the sequence starts over
+        clock.set(T + 5);
+        long next = generator.nextId();
+        assertThat(millis(next)).isEqualTo(T + 5);
+        assertThat(sequence(next)).isZero();
+    }
+
+    @Test
+    void clockSteppingBackwardsNeverRepeatsOrReordersIds() {
+        long before = generator.nextId();
+        clock.set(T - 60_000);
+        long after = generator.nextId();
+
+        assertThat(after).isGreaterThan(before);
+        assertThat(millis(after)).isEqualTo(T);
+        assertThat(sequence(after)).isEqualTo(sequence(before) + 1);
+    }
+
+    @Test
+    void referencesSortInIssueOrder() {
+        String first = generator.nextReference("TXN-");
+        clock.addAndGet(1);
+        String second = generator.nextReference("TXN-");
+
+        assertThat(first).startsWith("TXN-").hasSize(4 + 13);
+        assertThat(second).isGreaterThan(first);
+    }
+
+    @Test
+    void rejectsNodeIdsOutsideTenBits() {
+        assertThatThrownBy(() -> new IdGenerator(IdGenerator.MAX_NODE_ID + 1, clock::get))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static long millis(long id) {
+        return (id >>> 22) + IdGenerator.EPOCH_MILLIS;
+    }
+
+    private static long node(long id) {
+        return (id >>> 12) & IdGenerator.MAX_NODE_ID;
+    }
+
+    private static long sequence(long id) {
+        return id & 4095;
+    }
+}
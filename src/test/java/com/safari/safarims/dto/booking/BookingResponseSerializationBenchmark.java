@@ -0,0 +1,74 @@
+package com.safari.safarims.dto.booking;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safari.safarims.common.enums.BookingStatus;
+import com.safari.safarims.config.AppConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson cost of the booking list endpoints, using the application's own ObjectMapper configuration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookingResponseSerializationBenchmark {
+
+    @Param({"20", "500"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<BookingResponse> bookings;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new AppConfig().objectMapper();
+        bookings = new ArrayList<>(size);
+        LocalDateTime now = LocalDateTime.now();
+        for (long i = 0; i < size; i++) {
+            bookings.add(BookingResponse.builder()
+                .id(i)
+                .touristId(1000 + i)
+                .touristName("Tourist " + i)
+                .packageId(3L)
+                .packageName("River Edge Explorer")
+                .packageDays(2)
+                .packageMaxPeople(10)
+                .requestedDate(LocalDate.of(2026, 12, 1))
+                .requestedTime(LocalTime.of(6, 0))
+                .status(BookingStatus.FORWARDED_TO_CREW)
+                .editWindowSeconds(10)
+                .paymentWindowSeconds(20)
+                .version(1)
+                .totalAmount(new BigDecimal("420.00"))
+                .notes("Window seat please")
+                .createdAt(now)
+                .updatedAt(now)
+                .createdBy("tourist" + i)
+                .updatedBy("booking_officer")
+                .canEdit(false)
+                .editWindowExpires(now.plusSeconds(10))
+                .build());
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bookings);
+    }
+}
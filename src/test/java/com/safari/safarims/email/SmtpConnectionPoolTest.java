@@ -0,0 +1,170 @@
+package com.safari.safarims.email;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Sends bursts through the pool against a local GreenMail SMTP server with AUTH, and compares
+ * throughput with one JavaMailSenderImpl connection per message.
+ */
+@Slf4j
+class SmtpConnectionPoolTest {
+
+    private static final int CONNECTIONS = 4;
+    private static final int MESSAGES = 2000;
+    private static final int THREADS = 16;
+
+    @RegisterExtension
+    static final GreenMailExtension GREEN_MAIL = new GreenMailExtension(ServerSetupTest.SMTP)
+        .withConfiguration(GreenMailConfiguration.aConfig().withUser("safari", "secret"));
+
+    private JavaMailSenderImpl mailSender;
+    private SimpleMeterRegistry meterRegistry;
+    private SmtpConnectionPool pool;
+
+    @BeforeEach
+    void setUp() {
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+        mailSender.setUsername("safari");
+        mailSender.setPassword("secret");
+        Properties properties = new Properties();
+        properties.put("mail.smtp.auth", "true");
+        mailSender.setJavaMailProperties(properties);
+
+        meterRegistry = new SimpleMeterRegistry();
+        pool = new SmtpConnectionPool(mailSender, meterRegistry);
+        ReflectionTestUtils.setField(pool, "connections", CONNECTIONS);
+        ReflectionTestUtils.setField(pool, "batchSize", 50);
+        ReflectionTestUtils.setField(pool, "maxMessagesPerConnection", 10_000);
+        ReflectionTestUtils.setField(pool, "validateAfterIdleMs", 0L);
+        ReflectionTestUtils.setField(pool, "idleCloseMs", 60_000L);
+        ReflectionTestUtils.setField(pool, "sendTimeoutMs", 30_000L);
+        ReflectionTestUtils.setField(pool, "queueCapacity", MESSAGES);
+        pool.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        pool.stop();
+    }
+
+    @Test
+    void burstReusesPooledConnections() throws Exception {
+        double pooledRate = sendConcurrently(MESSAGES, this::sendPooled);
+
+        assertThat(GREEN_MAIL.waitForIncomingEmail(30_000, MESSAGES)).isTrue();
+        assertThat(meterRegistry.counter("smtp.messages", "outcome", "sent").count()).isEqualTo(MESSAGES);
+        assertThat(meterRegistry.counter("smtp.connections.opened").count()).isLessThanOrEqualTo(CONNECTIONS);
+
+        restartServer();
+        int direct = MESSAGES / 10;
+        double directRate = sendConcurrently(direct, i -> mailSender.send(message(i)));
+        assertThat(GREEN_MAIL.waitForIncomingEmail(30_000, direct)).isTrue();
+
+        log.info("SMTP throughput: pooled {} msg/s over {} connections, one connection per message {} msg/s",
+            Math.round(pooledRate), CONNECTIONS, Math.round(directRate));
+    }
+
+    @Test
+    void reconnectsAfterServerRestart() throws Exception {
+        sendPooled(0);
+        assertThat(GREEN_MAIL.waitForIncomingEmail(10_000, 1)).isTrue();
+
+        restartServer(); // drops every open connection
+
+        sendPooled(1);
+        assertThat(GREEN_MAIL.waitForIncomingEmail(10_000, 1)).isTrue();
+        assertThat(GREEN_MAIL.getReceivedMessages()[0].getSubject()).isEqualTo("Reminder 1");
+        assertThat(meterRegistry.counter("smtp.messages", "outcome", "failed").count()).isZero();
+    }
+
+    @Test
+    void timedOutMessageIsWithdrawnWithinOneDeadline() throws Exception {
+        pool.stop();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SmtpConnectionPool stalled = new SmtpConnectionPool(mailSender, registry);
+        ReflectionTestUtils.setField(stalled, "connections", 0); // nothing drains the queue
+        ReflectionTestUtils.setField(stalled, "sendTimeoutMs", 300L);
+        ReflectionTestUtils.setField(stalled, "queueCapacity", 10);
+        stalled.start();
+
+        long started = System.nanoTime();
+        assertThatThrownBy(() -> stalled.send(message(0)))
+            .isInstanceOf(MessagingException.class)
+            .hasMessageContaining("Timed out");
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isLessThan(550);
+        assertThat(registry.get("smtp.queue").gauge().value()).isZero();
+        stalled.stop();
+    }
+
+    // reset() also forgets the AUTH user
+    private static void restartServer() {
+        GREEN_MAIL.reset();
+        GREEN_MAIL.setUser("safari", "secret");
+    }
+
+    private void sendPooled(int i) throws Exception {
+        pool.send(message(i));
+    }
+
+    private MimeMessage message(int i) throws Exception {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setFrom("noreply@safari.com");
+        helper.setTo("tourist" + (i % 50) + "@safari.local");
+        helper.setSubject("Reminder " + i);
+        helper.setText("Your payment for booking #" + i + " is still pending.",
+            "<p>Your payment for booking <strong>#" + i + "</strong> is still pending.</p>");
+        return message;
+    }
+
+    private static double sendConcurrently(int count, Send send) throws Exception {
+        ExecutorService senders = Executors.newFixedThreadPool(THREADS);
+        long started = System.nanoTime();
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int n = i;
+            results.add(senders.submit(() -> {
+                send.send(n);
+                return null;
+            }));
+        }
+        for (Future<?> result : results) {
+            result.get();
+        }
+        double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+        senders.shutdown();
+        assertThat(senders.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+        return count / seconds;
+    }
+
+    @FunctionalInterface
+    private interface Send {
+        void send(int i) throws Exception;
+    }
+}
@@ -0,0 +1,241 @@
+package com.safari.safarims.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MSSQLServerContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives register -> verify -> book -> forward -> allocate -> pay through the REST controllers
+ * against a Testcontainers SQL Server pre-loaded with a generated season, and reports throughput
+ * plus p50/p99 per step.
+ *
+ * Opt-in only: {@code mvn test -Dtest=BookingLifecycleLoadTest -Dload.enabled=true}. Tune with
+ * {@code load.flows}, {@code load.concurrency}, {@code load.season.tourists} and
+ * {@code load.season.bookings}.
+ */
+@Slf4j
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledIfSystemProperty(named = "load.enabled", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class BookingLifecycleLoadTest {
+
+    @Container
+    static final MSSQLServerContainer<?> SQL_SERVER =
+        new MSSQLServerContainer<>("mcr.microsoft.com/mssql/server:2022-latest").acceptLicense();
+
+    private static final int FLOWS = Integer.getInteger("load.flows", 200);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 16);
+    private static final int SEASON_TOURISTS = Integer.getInteger("load.season.tourists", 10_000);
+    private static final int SEASON_BOOKINGS = Integer.getInteger("load.season.bookings", 100_000);
+
+    private static final Pattern OTP = Pattern.compile("is: (\\d{6})");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", SQL_SERVER::getJdbcUrl);
+        registry.add("spring.datasource.username", SQL_SERVER::getUsername);
+        registry.add("spring.datasource.password", SQL_SERVER::getPassword);
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("logging.level.org.springframework.security", () -> "WARN");
+    }
+
+    @LocalServerPort
+    private int port;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+
+    private static SeasonDataGenerator.Seeded season;
+
+    @BeforeAll
+    static void generateSeason() throws Exception {
+        // The Spring context (and Flyway) is not up yet at this point, so migrate explicitly first.
+        Flyway.configure()
+            .dataSource(SQL_SERVER.getJdbcUrl(), SQL_SERVER.getUsername(), SQL_SERVER.getPassword())
+            .locations("classpath:db/migration")
+            .load()
+            .migrate();
+
+        SeasonDataGenerator generator = new SeasonDataGenerator(
+            SQL_SERVER.getJdbcUrl(), SQL_SERVER.getUsername(), SQL_SERVER.getPassword(), "season", 42L);
+        season = generator.generate(new SeasonDataGenerator.Volume(
+            SEASON_TOURISTS, 12, FLOWS, FLOWS, FLOWS, 4, 4, SEASON_BOOKINGS, 3));
+    }
+
+    @Test
+    void bookingLifecycleUnderLoad() throws Exception {
+        List<String> officerTokens = new ArrayList<>();
+        for (String officer : season.bookingOfficers()) {
+            officerTokens.add(login(officer));
+        }
+        List<String> crewTokens = new ArrayList<>();
+        for (String crew : season.crewManagers()) {
+            crewTokens.add(login(crew));
+        }
+
+        List<StepStats> steps = List.of(
+            new StepStats("register", FLOWS), new StepStats("verify", FLOWS), new StepStats("book", FLOWS),
+            new StepStats("forward", FLOWS), new StepStats("allocate", FLOWS), new StepStats("pay", FLOWS));
+
+        long started = System.nanoTime();
+        ExecutorService clients = Executors.newFixedThreadPool(CONCURRENCY);
+        for (int i = 0; i < FLOWS; i++) {
+            int flow = i;
+            clients.submit(() -> runFlow(flow, steps,
+                officerTokens.get(flow % officerTokens.size()), crewTokens.get(flow % crewTokens.size())));
+        }
+        clients.shutdown();
+        assertThat(clients.awaitTermination(30, TimeUnit.MINUTES)).isTrue();
+        long wall = System.nanoTime() - started;
+
+        StringBuilder report = new StringBuilder()
+            .append(String.format("%nBooking lifecycle: %d flows, concurrency %d, season of %d bookings, %.1f s%n",
+                FLOWS, CONCURRENCY, SEASON_BOOKINGS, wall / 1_000_000_000.0));
+        steps.forEach(step -> report.append(step.report(wall)).append('\n'));
+        log.info(report.toString());
+    }
+
+    private void runFlow(int flow, List<StepStats> steps, String officerToken, String crewToken) {
+        String username = "load_tourist_" + flow;
+        String email = username + "@load.local";
+        try {
+            JsonNode registered = timed(steps.get(0), () -> post("/api/v1/auth/register/tourist", null, Map.of(
+                "username", username, "email", email, "password", SeasonDataGenerator.PASSWORD,
+                "fullName", "Load Tourist " + flow, "phone", "+94700000000")));
+            if (registered == null) return;
+
+            JsonNode verified = timed(steps.get(1), () -> post("/api/v1/auth/verify-signup", null,
+                Map.of("email", email, "otp", latestOtp(email))));
+            if (verified == null) return;
+            String touristToken = verified.get("accessToken").asText();
+
+            JsonNode booking = timed(steps.get(2), () -> post("/api/v1/bookings", touristToken, Map.of(
+                "packageId", season.packageIds().get(flow % season.packageIds().size()),
+                "requestedDate", LocalDate.now().plusDays(1 + flow % 60).toString(),
+                "requestedTime", "06:00")));
+            if (booking == null) return;
+            long bookingId = booking.get("id").asLong();
+
+            if (timed(steps.get(3), () -> post("/api/v1/bookings/" + bookingId + "/forward-to-crew", officerToken, Map.of())) == null) {
+                return;
+            }
+
+            if (timed(steps.get(4), () -> post("/api/v1/allocations", crewToken, Map.of(
+                "bookingId", bookingId,
+                "driverId", season.driverIds().get(flow),
+                "guideId", season.guideIds().get(flow),
+                "jeepId", season.jeepIds().get(flow)))) == null) {
+                return;
+            }
+
+            // No endpoint moves ALLOCATED -> PENDING_PAYMENT yet; stand in for the officer's confirmation step.
+            markPendingPayment(bookingId);
+
+            timed(steps.get(5), () -> post("/api/v1/payments/" + bookingId + "/pay", touristToken,
+                Map.of("cardNumber", "4242424242424242", "cardHolderName", "Load Tourist " + flow)));
+        } catch (Exception e) {
+            log.warn("Flow {} aborted: {}", flow, e.getMessage());
+        }
+    }
+
+    private JsonNode timed(StepStats step, ThrowingCall call) {
+        long start = System.nanoTime();
+        JsonNode result = null;
+        try {
+            result = call.execute();
+        } catch (Exception e) {
+            log.debug("Step {} failed: {}", step.name(), e.getMessage());
+        }
+        step.record(System.nanoTime() - start, result != null);
+        return result;
+    }
+
+    private JsonNode post(String path, String token, Object body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+            .timeout(Duration.ofSeconds(30))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        HttpResponse<String> response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(path + " returned " + response.statusCode());
+        }
+        return response.body().isEmpty() ? objectMapper.createObjectNode() : objectMapper.readTree(response.body());
+    }
+
+    private String login(String username) throws Exception {
+        return post("/api/v1/auth/login", null,
+            Map.of("usernameOrEmail", username, "password", SeasonDataGenerator.PASSWORD)).get("accessToken").asText();
+    }
+
+    // With app.email.enabled=false the OTP mail is persisted to outbound_emails, which is our inbox.
+    private String latestOtp(String email) throws Exception {
+        try (Connection connection = connect();
+             PreparedStatement select = connection.prepareStatement(
+                 "SELECT TOP 1 body FROM outbound_emails WHERE to_email = ? AND template_name = 'OTP_TEMPLATE' ORDER BY id DESC")) {
+            select.setString(1, email);
+            try (ResultSet rs = select.executeQuery()) {
+                if (!rs.next()) {
+                    throw new IllegalStateException("No OTP email for " + email);
+                }
+                Matcher matcher = OTP.matcher(rs.getString(1));
+                if (!matcher.find()) {
+                    throw new IllegalStateException("OTP not found in email body for " + email);
+                }
+                return matcher.group(1);
+            }
+        }
+    }
+
+    private void markPendingPayment(long bookingId) throws Exception {
+        try (Connection connection = connect();
+             PreparedStatement update = connection.prepareStatement(
+                 "UPDATE bookings SET status = 'PENDING_PAYMENT' WHERE id = ? AND status = 'ALLOCATED'")) {
+            update.setLong(1, bookingId);
+            update.executeUpdate();
+        }
+    }
+
+    private static Connection connect() throws Exception {
+        return DriverManager.getConnection(SQL_SERVER.getJdbcUrl(), SQL_SERVER.getUsername(), SQL_SERVER.getPassword());
+    }
+
+    @FunctionalInterface
+    private interface ThrowingCall {
+        JsonNode execute() throws Exception;
+    }
+}
@@ -0,0 +1,329 @@
+package com.safari.safarims.load;
+
+import com.safari.safarims.common.enums.BookingStatus;
+import com.safari.safarims.common.enums.PaymentStatus;
+import com.safari.safarims.common.enums.UserRole;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeds a realistic season of data straight through JDBC. Inserts are batched and the SQL Server
+ * driver is switched to bulk-copy mode, so millions of bookings, payments and notifications load
+ * in minutes instead of going through JPA one entity at a time.
+ *
+ * All generated rows carry the run tag in a unique column so repeated runs never collide.
+ */
+@Slf4j
+public class SeasonDataGenerator {
+
+    public static final String PASSWORD = "Season@123";
+
+    private static final int BATCH_SIZE = 10_000;
+
+    private final String jdbcUrl;
+    private final String username;
+    private final String password;
+    private final String tag;
+    private final Random random;
+
+    public SeasonDataGenerator(String jdbcUrl, String username, String password, String tag, long seed) {
+        this.jdbcUrl = jdbcUrl + (jdbcUrl.contains("useBulkCopyForBatchInsert") ? "" : ";useBulkCopyForBatchInsert=true");
+        this.username = username;
+        this.password = password;
+        this.tag = tag;
+        this.random = new Random(seed);
+    }
+
+    public record Volume(int tourists, int packages, int jeeps, int drivers, int guides,
+                         int bookingOfficers, int crewManagers, int bookings, int notificationsPerBooking) {
+    }
+
+    public record Seeded(List<Long> packageIds, List<Long> driverIds, List<Long> guideIds, List<Long> jeepIds,
+                         List<String> bookingOfficers, List<String> crewManagers) {
+    }
+
+    public Seeded generate(Volume volume) throws SQLException {
+        long started = System.nanoTime();
+        String passwordHash = new BCryptPasswordEncoder().encode(PASSWORD);
+
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, username, password)) {
+            List<Long> touristUserIds = insertUsers(connection, "tourist", UserRole.TOURIST, volume.tourists(), passwordHash);
+            List<Long> driverUserIds = insertUsers(connection, "driver", UserRole.DRIVER, volume.drivers(), passwordHash);
+            List<Long> guideUserIds = insertUsers(connection, "guide", UserRole.GUIDE, volume.guides(), passwordHash);
+            insertUsers(connection, "officer", UserRole.BOOKING_OFFICER, volume.bookingOfficers(), passwordHash);
+            insertUsers(connection, "crew", UserRole.TOUR_CREW_MANAGER, volume.crewManagers(), passwordHash);
+
+            List<Long> touristIds = insertProfiles(connection, "tourists", touristUserIds);
+            List<Long> driverIds = insertProfiles(connection, "drivers", driverUserIds);
+            List<Long> guideIds = insertProfiles(connection, "guides", guideUserIds);
+            List<Long> packageIds = insertPackages(connection, volume.packages());
+            List<Long> jeepIds = insertJeeps(connection, volume.jeeps());
+
+            long lastBookingId = maxId(connection, "bookings");
+            insertBookings(connection, volume.bookings(), touristIds, packageIds);
+            insertPaymentsAndNotifications(connection, lastBookingId, volume.notificationsPerBooking());
+
+            log.info("Season '{}' generated in {} ms: {} bookings", tag,
+                (System.nanoTime() - started) / 1_000_000, volume.bookings());
+
+            return new Seeded(packageIds, driverIds, guideIds, jeepIds,
+                usernames("officer", volume.bookingOfficers()), usernames("crew", volume.crewManagers()));
+        }
+    }
+
+    private List<Long> insertUsers(Connection connection, String kind, UserRole role, int count, String passwordHash)
+            throws SQLException {
+        long before = maxId(connection, "users");
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try (PreparedStatement insert = connection.prepareStatement("""
+                INSERT INTO users (username, email, password_hash, full_name, phone, role,
+                                   email_verified, enabled, locked, created_by, updated_by, created_at, updated_at)
+                VALUES (?, ?, ?, ?, ?, ?, 1, 1, 0, 'GENERATOR', 'GENERATOR', ?, ?)
+                """)) {
+            for (int i = 0; i < count; i++) {
+                String username = username(kind, i);
+                insert.setString(1, username);
+                insert.setString(2, username + "@season.local");
+                insert.setString(3, passwordHash);
+                insert.setString(4, "Season " + kind + " " + i);
+                insert.setString(5, "+94" + (700000000 + i));
+                insert.setString(6, role.name());
+                insert.setTimestamp(7, now);
+                insert.setTimestamp(8, now);
+                addToBatch(insert, i + 1);
+            }
+            insert.executeBatch();
+        }
+        return idsAfter(connection, "users", before);
+    }
+
+    private List<Long> insertProfiles(Connection connection, String table, List<Long> userIds) throws SQLException {
+        long before = maxId(connection, table);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String sql = switch (table) {
+            case "tourists" -> "INSERT INTO tourists (user_id, full_name, nationality, created_at, updated_at) VALUES (?, ?, 'LK', ?, ?)";
+            case "drivers" -> "INSERT INTO drivers (user_id, full_name, phone, license_no, is_available, created_at, updated_at) VALUES (?, ?, '+94700000000', ?, 1, ?, ?)";
+            case "guides" -> "INSERT INTO guides (user_id, full_name, phone, is_available, created_at, updated_at) VALUES (?, ?, '+94700000000', 1, ?, ?)";
+            default -> throw new IllegalArgumentException("Unknown profile table: " + table);
+        };
+        try (PreparedStatement insert = connection.prepareStatement(sql)) {
+            for (int i = 0; i < userIds.size(); i++) {
+                int p = 1;
+                insert.setLong(p++, userIds.get(i));
+                insert.setString(p++, "Season " + table + " " + i);
+                if (table.equals("drivers")) {
+                    insert.setString(p++, tag + "-LIC-" + i);
+                }
+                insert.setTimestamp(p++, now);
+                insert.setTimestamp(p, now);
+                addToBatch(insert, i + 1);
+            }
+            insert.executeBatch();
+        }
+        return idsAfter(connection, table, before);
+    }
+
+    private List<Long> insertPackages(Connection connection, int count) throws SQLException {
+        long before = maxId(connection, "tour_packages");
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try (PreparedStatement insert = connection.prepareStatement("""
+                INSERT INTO tour_packages (name, description, days, price, max_people, difficulty_level,
+                                           included_activities, is_active, created_at, updated_at)
+                VALUES (?, 'Generated season package', ?, ?, ?, 'MODERATE', 'Jeep safari', 1, ?, ?)
+                """)) {
+            for (int i = 0; i < count; i++) {
+                insert.setString(1, tag + " Package " + i);
+                insert.setInt(2, 1 + i % 3);
+                insert.setBigDecimal(3, BigDecimal.valueOf(100 + random.nextInt(400)));
+                insert.setInt(4, 4 + i % 7);
+                insert.setTimestamp(5, now);
+                insert.setTimestamp(6, now);
+                addToBatch(insert, i + 1);
+            }
+            insert.executeBatch();
+        }
+        return idsAfter(connection, "tour_packages", before);
+    }
+
+    private List<Long> insertJeeps(Connection connection, int count) throws SQLException {
+        long before = maxId(connection, "jeeps");
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try (PreparedStatement insert = connection.prepareStatement("""
+                INSERT INTO jeeps (plate_no, model, capacity, status, fuel_capacity, current_mileage, created_at, updated_at)
+                VALUES (?, 'Land Cruiser', ?, 'AVAILABLE', 90, ?, ?, ?)
+                """)) {
+            for (int i = 0; i < count; i++) {
+                insert.setString(1, tag + "-" + i);
+                insert.setInt(2, 4 + i % 5);
+                insert.setDouble(3, 20_000 + random.nextInt(150_000));
+                insert.setTimestamp(4, now);
+                insert.setTimestamp(5, now);
+                addToBatch(insert, i + 1);
+            }
+            insert.executeBatch();
+        }
+        return idsAfter(connection, "jeeps", before);
+    }
+
+    private void insertBookings(Connection connection, int count, List<Long> touristIds, List<Long> packageIds)
+            throws SQLException {
+        LocalDate seasonStart = LocalDate.now().plusDays(1);
+        try (PreparedStatement insert = connection.prepareStatement("""
+                INSERT INTO bookings (tourist_id, package_id, requested_date, requested_time, status,
+                                      edit_window_seconds, payment_window_seconds, version, total_amount,
+                                      created_at, updated_at, created_by, updated_by)
+                VALUES (?, ?, ?, ?, ?, 10, 20, 1, ?, ?, ?, 'GENERATOR', 'GENERATOR')
+                """)) {
+            for (int i = 0; i < count; i++) {
+                LocalDateTime createdAt = LocalDateTime.now().minusMinutes(random.nextInt(180 * 24 * 60));
+                insert.setLong(1, touristIds.get(random.nextInt(touristIds.size())));
+                insert.setLong(2, packageIds.get(random.nextInt(packageIds.size())));
+                insert.setObject(3, seasonStart.plusDays(random.nextInt(180)));
+                insert.setObject(4, LocalTime.of(5 + random.nextInt(4) * 3, 0));
+                insert.setString(5, nextBookingStatus().name());
+                insert.setBigDecimal(6, BigDecimal.valueOf(100 + random.nextInt(400)));
+                insert.setTimestamp(7, Timestamp.valueOf(createdAt));
+                insert.setTimestamp(8, Timestamp.valueOf(createdAt));
+                addToBatch(insert, i + 1);
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private void insertPaymentsAndNotifications(Connection connection, long afterBookingId, int notificationsPerBooking)
+            throws SQLException {
+        try (Connection writer = DriverManager.getConnection(jdbcUrl, username, password);
+             PreparedStatement bookings = connection.prepareStatement("""
+                 SELECT b.id, b.status, b.total_amount, b.created_at, t.user_id
+                 FROM bookings b JOIN tourists t ON t.id = b.tourist_id
+                 WHERE b.id > ? ORDER BY b.id
+                 """);
+             PreparedStatement payments = writer.prepareStatement("""
+                 INSERT INTO payments (booking_id, amount, status, method, tx_ref, paid_at, expires_at, created_at, updated_at)
+                 VALUES (?, ?, ?, 'MOCK_PAYMENT', ?, ?, ?, ?, ?)
+                 """);
+             PreparedStatement notifications = writer.prepareStatement("""
+                 INSERT INTO notifications (user_id, type, title, body, read_at, created_at)
+                 VALUES (?, 'BOOKING', ?, ?, ?, ?)
+                 """)) {
+            bookings.setFetchSize(BATCH_SIZE);
+            bookings.setLong(1, afterBookingId);
+
+            int paymentRows = 0;
+            int notificationRows = 0;
+            try (ResultSet rs = bookings.executeQuery()) {
+                while (rs.next()) {
+                    long bookingId = rs.getLong(1);
+                    BookingStatus status = BookingStatus.valueOf(rs.getString(2));
+                    LocalDateTime createdAt = rs.getTimestamp(4).toLocalDateTime();
+
+                    PaymentStatus paymentStatus = paymentStatusFor(status);
+                    if (paymentStatus != null) {
+                        LocalDateTime expiresAt = paymentStatus == PaymentStatus.PENDING
+                            ? LocalDateTime.now().plusMinutes(random.nextInt(10))
+                            : createdAt.plusSeconds(20);
+                        payments.setLong(1, bookingId);
+                        payments.setBigDecimal(2, rs.getBigDecimal(3));
+                        payments.setString(3, paymentStatus.name());
+                        payments.setString(4, tag + "-" + bookingId);
+                        payments.setTimestamp(5, paymentStatus == PaymentStatus.SUCCESS
+                            ? Timestamp.valueOf(createdAt.plusSeconds(15)) : null);
+                        payments.setTimestamp(6, Timestamp.valueOf(expiresAt));
+                        payments.setTimestamp(7, Timestamp.valueOf(createdAt));
+                        payments.setTimestamp(8, Timestamp.valueOf(createdAt));
+                        addToBatch(payments, ++paymentRows);
+                    }
+
+                    for (int n = 0; n < notificationsPerBooking; n++) {
+                        LocalDateTime sentAt = createdAt.plusMinutes(n);
+                        notifications.setLong(1, rs.getLong(5));
+                        notifications.setString(2, "Booking " + status);
+                        notifications.setString(3, "Booking #" + bookingId + " is now " + status);
+                        notifications.setTimestamp(4, random.nextInt(10) < 8 ? Timestamp.valueOf(sentAt.plusHours(1)) : null);
+                        notifications.setTimestamp(5, Timestamp.valueOf(sentAt));
+                        addToBatch(notifications, ++notificationRows);
+                    }
+                }
+            }
+            payments.executeBatch();
+            notifications.executeBatch();
+            log.info("Season '{}': {} payments, {} notifications", tag, paymentRows, notificationRows);
+        }
+    }
+
+    // Rough shape of a finished season: most bookings confirmed, a tail stuck in each workflow state.
+    private BookingStatus nextBookingStatus() {
+        int roll = random.nextInt(100);
+        if (roll < 60) return BookingStatus.CONFIRMED;
+        if (roll < 70) return BookingStatus.CANCELLED;
+        if (roll < 80) return BookingStatus.EXPIRED;
+        if (roll < 85) return BookingStatus.REQUESTED;
+        if (roll < 90) return BookingStatus.FORWARDED_TO_CREW;
+        if (roll < 95) return BookingStatus.ALLOCATED;
+        return BookingStatus.PENDING_PAYMENT;
+    }
+
+    private static PaymentStatus paymentStatusFor(BookingStatus status) {
+        return switch (status) {
+            case CONFIRMED -> PaymentStatus.SUCCESS;
+            case EXPIRED -> PaymentStatus.EXPIRED;
+            case PENDING_PAYMENT -> PaymentStatus.PENDING;
+            default -> null;
+        };
+    }
+
+    private static void addToBatch(PreparedStatement statement, int rows) throws SQLException {
+        statement.addBatch();
+        if (rows % BATCH_SIZE == 0) {
+            statement.executeBatch();
+        }
+    }
+
+    private static long maxId(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static List<Long> idsAfter(Connection connection, String table, long afterId) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (PreparedStatement select = connection.prepareStatement("SELECT id FROM " + table + " WHERE id > ? ORDER BY id")) {
+            select.setLong(1, afterId);
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getLong(1));
+                }
+            }
+        }
+        return ids;
+    }
+
+    private List<String> usernames(String kind, int count) {
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            names.add(username(kind, i));
+        }
+        return names;
+    }
+
+    private String username(String kind, int i) {
+        return tag + "_" + kind + "_" + i;
+    }
+}
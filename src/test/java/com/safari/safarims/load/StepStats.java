@@ -0,0 +1,58 @@
+package com.safari.safarims.load;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latency and error counters for one step of the booking lifecycle. Samples go into a
+ * pre-sized array slot per call, so recording from many client threads never contends on a lock.
+ */
+class StepStats {
+
+    private final String name;
+    private final AtomicLongArray samples;
+    private final AtomicInteger recorded = new AtomicInteger();
+    private final AtomicInteger errors = new AtomicInteger();
+
+    StepStats(String name, int capacity) {
+        this.name = name;
+        this.samples = new AtomicLongArray(capacity);
+    }
+
+    void record(long nanos, boolean success) {
+        if (!success) {
+            errors.incrementAndGet();
+            return;
+        }
+        int slot = recorded.getAndIncrement();
+        if (slot < samples.length()) {
+            samples.set(slot, nanos);
+        }
+    }
+
+    String name() {
+        return name;
+    }
+
+    String report(long wallNanos) {
+        int count = Math.min(recorded.get(), samples.length());
+        long[] sorted = new long[count];
+        for (int i = 0; i < count; i++) {
+            sorted[i] = samples.get(i);
+        }
+        Arrays.sort(sorted);
+
+        double seconds = wallNanos / 1_000_000_000.0;
+        return String.format("%-12s ok=%-7d err=%-5d %9.1f ops/s  p50=%8.2f ms  p99=%8.2f ms",
+            name, count, errors.get(), count / seconds, percentile(sorted, 0.50), percentile(sorted, 0.99));
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,259 @@
+package com.safari.safarims.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.MSSQLServerContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the V7 and V15 indexes: each hot repository query must be answered with an index seek on the
+ * expected index and must never fall back to scanning its base table. Plans are captured with
+ * SHOWPLAN_XML against a deterministic data set, so the test is repeatable run to run.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class QueryPlanRegressionTest {
+
+    @Container
+    static final MSSQLServerContainer<?> SQL_SERVER =
+        new MSSQLServerContainer<>("mcr.microsoft.com/mssql/server:2022-latest").acceptLicense();
+
+    private static final int ROWS = 20000;
+
+    @BeforeAll
+    static void migrateAndSeed() throws SQLException {
+        Flyway.configure()
+            .dataSource(SQL_SERVER.getJdbcUrl(), SQL_SERVER.getUsername(), SQL_SERVER.getPassword())
+            .locations("classpath:db/migration")
+            .load()
+            .migrate();
+
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute(seedSql());
+            for (String table : List.of("bookings", "payments", "allocations", "maintenance_tickets", "notifications")) {
+                statement.execute("UPDATE STATISTICS " + table + " WITH FULLSCAN");
+            }
+        }
+    }
+
+    @Test
+    void bookingsByStatusSeekStatusIndex() throws Exception {
+        assertSeek("""
+            EXEC sp_executesql N'SELECT b.* FROM bookings b WHERE b.status IN (@P0) ORDER BY b.created_at DESC',
+                 N'@P0 nvarchar(4000)', N'FORWARDED_TO_CREW'
+            """, "bookings", "idx_booking_status_created");
+    }
+
+    @Test
+    void expiredPaymentsSeekStatusExpiryIndex() throws Exception {
+        assertSeek("""
+            EXEC sp_executesql N'SELECT p.*, b.* FROM payments p JOIN bookings b ON b.id = p.booking_id
+                                 WHERE p.status = @P0 AND p.expires_at IS NOT NULL AND p.expires_at < @P1',
+                 N'@P0 nvarchar(4000), @P1 datetime2', N'PENDING', '2030-01-01T00:00:00'
+            """, "payments", "idx_payment_status_expires");
+    }
+
+    @Test
+    void paymentsExpiringBetweenSeekStatusExpiryIndex() throws Exception {
+        assertSeek("""
+            EXEC sp_executesql N'SELECT p.*, b.* FROM payments p JOIN bookings b ON b.id = p.booking_id
+                                 WHERE p.status = @P0 AND p.expires_at IS NOT NULL AND p.expires_at BETWEEN @P1 AND @P2',
+                 N'@P0 nvarchar(4000), @P1 datetime2, @P2 datetime2', N'PENDING', '2029-01-01T00:00:00', '2029-01-01T00:02:00'
+            """, "payments", "idx_payment_status_expires");
+    }
+
+    @Test
+    void activeAllocationsByJeepSeekFilteredIndex() throws Exception {
+        assertSeek("""
+            EXEC sp_executesql N'SELECT a.* FROM allocations a WHERE a.status = ''ACTIVE'' AND a.jeep_id = @P0',
+                 N'@P0 bigint', 7
+            """, "allocations", "ux_allocation_active_jeep");
+    }
+
+    @Test
+    void activeAllocationsByDriverSeekFilteredIndex() throws Exception {
+        assertSeek("""
+            EXEC sp_executesql N'SELECT a.* FROM allocations a WHERE a.status = ''ACTIVE'' AND a.driver_id = @P0',
+                 N'@P0 bigint', 7
+            """, "allocations", "ux_allocation_active_driver");
+    }
+
+    @Test
+    void activeAllocationsByGuideSeekFilteredIndex() throws Exception {
+        assertSeek("""
+            EXEC sp_executesql N'SELECT a.* FROM allocations a WHERE a.status = ''ACTIVE'' AND a.guide_id = @P0',
+                 N'@P0 bigint', 7
+            """, "allocations", "ux_allocation_active_guide");
+    }
+
+    @Test
+    void openTicketsSeekStatusSeverityIndex() throws Exception {
+        assertSeek("""
+            EXEC sp_executesql N'SELECT t.* FROM maintenance_tickets t WHERE t.status IN (@P0, @P1, @P2)
+                                 ORDER BY t.severity DESC, t.opened_at ASC',
+                 N'@P0 nvarchar(4000), @P1 nvarchar(4000), @P2 nvarchar(4000)', N'OPEN', N'IN_PROGRESS', N'ON_HOLD'
+            """, "maintenance_tickets", "idx_ticket_status_severity_opened");
+    }
+
+    @Test
+    void unreadCountSeekFilteredIndex() throws Exception {
+        assertSeek("""
+            EXEC sp_executesql N'SELECT COUNT(n.id) FROM notifications n WHERE n.user_id = @P0 AND n.read_at IS NULL',
+                 N'@P0 bigint', 7
+            """, "notifications", "idx_notification_unread_user");
+    }
+
+    private static void assertSeek(String sql, String table, String expectedIndex) throws Exception {
+        List<PlanOperator> operators = captureOperators(sql);
+
+        assertThat(operators)
+            .as("plan for %s", table)
+            .anyMatch(op -> op.physicalOp().equals("Index Seek") && op.index().equals(expectedIndex));
+        assertThat(operators)
+            .as("scans on %s", table)
+            .noneMatch(op -> op.table().equals(table) && op.physicalOp().endsWith("Scan"));
+    }
+
+    private static List<PlanOperator> captureOperators(String sql) throws Exception {
+        String planXml;
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("SET SHOWPLAN_XML ON");
+            try (ResultSet rs = statement.executeQuery(sql)) {
+                assertThat(rs.next()).isTrue();
+                planXml = rs.getString(1);
+            } finally {
+                statement.execute("SET SHOWPLAN_XML OFF");
+            }
+        }
+
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(false);
+        Document plan = factory.newDocumentBuilder().parse(new InputSource(new StringReader(planXml)));
+
+        List<PlanOperator> operators = new ArrayList<>();
+        NodeList relOps = plan.getElementsByTagName("RelOp");
+        for (int i = 0; i < relOps.getLength(); i++) {
+            Element relOp = (Element) relOps.item(i);
+            Element object = accessedObject(relOp);
+            if (object == null) {
+                continue;
+            }
+            operators.add(new PlanOperator(
+                relOp.getAttribute("PhysicalOp"),
+                unquote(object.getAttribute("Table")),
+                unquote(object.getAttribute("Index"))
+            ));
+        }
+        return operators;
+    }
+
+    // Only the operator's own IndexScan/TableScan child names the object it reads; nested RelOps are skipped.
+    private static Element accessedObject(Element relOp) {
+        for (Node child = relOp.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child instanceof Element access
+                && (access.getTagName().equals("IndexScan") || access.getTagName().equals("TableScan"))) {
+                for (Node grandChild = access.getFirstChild(); grandChild != null; grandChild = grandChild.getNextSibling()) {
+                    if (grandChild instanceof Element object && object.getTagName().equals("Object")) {
+                        return object;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String unquote(String identifier) {
+        return identifier.replace("[", "").replace("]", "");
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(SQL_SERVER.getJdbcUrl(), SQL_SERVER.getUsername(), SQL_SERVER.getPassword());
+    }
+
+    // 1% of every table sits in the "hot" state the queries look for, like a real season.
+    private static String seedSql() {
+        return """
+            SET NOCOUNT ON;
+
+            WITH n AS (SELECT TOP (200) ROW_NUMBER() OVER (ORDER BY (SELECT NULL)) AS i FROM sys.all_objects)
+            INSERT INTO users (username, email, password_hash, full_name, phone, role, created_at, updated_at)
+            SELECT CONCAT('plan_user_', i), CONCAT('plan_user_', i, '@safari.local'), 'x', CONCAT('Plan User ', i),
+                   '+10000000000', 'TOURIST', SYSDATETIME(), SYSDATETIME()
+            FROM n;
+
+            INSERT INTO tourists (user_id, full_name, created_at, updated_at)
+            SELECT id, full_name, SYSDATETIME(), SYSDATETIME() FROM users WHERE username LIKE 'plan_user_%';
+            INSERT INTO drivers (user_id, full_name, phone, license_no, created_at, updated_at)
+            SELECT id, full_name, phone, CONCAT('LIC-', id), SYSDATETIME(), SYSDATETIME() FROM users WHERE username LIKE 'plan_user_%';
+            INSERT INTO guides (user_id, full_name, phone, created_at, updated_at)
+            SELECT id, full_name, phone, SYSDATETIME(), SYSDATETIME() FROM users WHERE username LIKE 'plan_user_%';
+            INSERT INTO jeeps (plate_no, model, capacity, status, created_at, updated_at)
+            SELECT CONCAT('PLAN-', id), 'Land Cruiser', 6, 'AVAILABLE', SYSDATETIME(), SYSDATETIME() FROM users WHERE username LIKE 'plan_user_%';
+
+            DECLARE @tourists INT = (SELECT COUNT(*) FROM tourists);
+            DECLARE @package BIGINT = (SELECT MIN(id) FROM tour_packages);
+            DECLARE @firstTourist BIGINT = (SELECT MIN(id) FROM tourists);
+            DECLARE @firstDriver BIGINT = (SELECT MIN(id) FROM drivers);
+            DECLARE @firstGuide BIGINT = (SELECT MIN(id) FROM guides);
+            DECLARE @firstJeep BIGINT = (SELECT MIN(id) FROM jeeps);
+            DECLARE @firstUser BIGINT = (SELECT MIN(user_id) FROM tourists);
+
+            WITH n AS (SELECT TOP (%1$d) ROW_NUMBER() OVER (ORDER BY (SELECT NULL)) AS i
+                       FROM sys.all_objects a CROSS JOIN sys.all_objects b)
+            INSERT INTO bookings (tourist_id, package_id, requested_date, requested_time, status,
+                                  edit_window_seconds, payment_window_seconds, version, total_amount, created_at, updated_at)
+            SELECT @firstTourist + i %% @tourists, @package, '2029-01-01', '06:00',
+                   CASE WHEN i %% 100 = 0 THEN 'FORWARDED_TO_CREW' ELSE 'CONFIRMED' END,
+                   10, 20, 1, 150.00, DATEADD(SECOND, i, '2028-01-01'), DATEADD(SECOND, i, '2028-01-01')
+            FROM n;
+
+            INSERT INTO payments (booking_id, amount, status, method, tx_ref, paid_at, expires_at, created_at, updated_at)
+            SELECT id, 150.00,
+                   CASE WHEN id %% 100 = 0 THEN 'PENDING' ELSE 'SUCCESS' END,
+                   'MOCK_PAYMENT', CONCAT('TXN-PLAN-', id), NULL,
+                   DATEADD(SECOND, id, '2029-01-01'), created_at, updated_at
+            FROM bookings;
+
+            INSERT INTO allocations (booking_id, driver_id, guide_id, jeep_id, status, created_at, updated_at)
+            -- Active rows (every 100th id) each get their own resources to satisfy the V15 unique indexes
+            SELECT id, @firstDriver + (id / 100) %% @tourists, @firstGuide + (id / 100) %% @tourists,
+                   @firstJeep + (id / 100) %% @tourists,
+                   CASE WHEN id %% 100 = 0 THEN 'ACTIVE' ELSE 'COMPLETED' END, created_at, updated_at
+            FROM bookings;
+
+            INSERT INTO maintenance_tickets (vehicle_id, filed_by_user_id, status, severity, title, description,
+                                             opened_at, created_at, updated_at)
+            SELECT @firstJeep + id %% @tourists, @firstUser + id %% @tourists,
+                   CASE WHEN id %% 100 = 0 THEN 'OPEN' ELSE 'CLOSED' END,
+                   CASE id %% 4 WHEN 0 THEN 'LOW' WHEN 1 THEN 'MEDIUM' WHEN 2 THEN 'HIGH' ELSE 'CRITICAL' END,
+                   'Plan ticket', 'Plan ticket', created_at, created_at, updated_at
+            FROM bookings;
+
+            INSERT INTO notifications (user_id, type, title, body, read_at, created_at)
+            SELECT @firstUser + id %% @tourists, 'BOOKING', 'Plan notification', 'Plan notification',
+                   CASE WHEN id %% 100 = 0 THEN NULL ELSE created_at END, created_at
+            FROM bookings;
+            """.formatted(ROWS);
+    }
+
+    private record PlanOperator(String physicalOp, String table, String index) {
+    }
+}
@@ -0,0 +1,52 @@
+package com.safari.safarims.security;
+
+import com.safari.safarims.benchmark.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and validation run on every login and every authenticated request respectively.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtUtilBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.quietLogging();
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", "SafariSystemSecretKeyThatIsVeryLongAndSecure12345");
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpiration", 86_400_000L);
+        ReflectionTestUtils.setField(jwtUtil, "refreshExpiration", 604_800_000L);
+        token = jwtUtil.generateToken("booking_officer", "BOOKING_OFFICER");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("booking_officer", "BOOKING_OFFICER");
+    }
+
+    /** Mirrors JwtAuthenticationFilter: username, validity and role are each extracted per request. */
+    @Benchmark
+    public String authenticateRequest() {
+        String username = jwtUtil.extractUsername(token);
+        return jwtUtil.validateToken(token, username) ? jwtUtil.extractRole(token) : null;
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtUtil.validateToken(token, "booking_officer");
+    }
+}
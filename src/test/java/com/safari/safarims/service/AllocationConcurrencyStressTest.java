@@ -0,0 +1,158 @@
+package com.safari.safarims.service;
+
+import com.safari.safarims.dto.allocation.AllocationRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MSSQLServerContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fires thousands of concurrent createAllocation calls at a small pool of drivers, guides and jeeps
+ * and checks that no resource or booking ends up with two ACTIVE allocations, and that jeep status
+ * agrees with the allocations that actually committed.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest
+class AllocationConcurrencyStressTest {
+
+    @Container
+    static final MSSQLServerContainer<?> SQL_SERVER =
+        new MSSQLServerContainer<>("mcr.microsoft.com/mssql/server:2022-latest").acceptLicense();
+
+    private static final int BOOKINGS = 400;
+    private static final int RESOURCES = 12;
+    private static final int ATTEMPTS = 4000;
+    private static final int THREADS = 64;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", SQL_SERVER::getJdbcUrl);
+        registry.add("spring.datasource.username", SQL_SERVER::getUsername);
+        registry.add("spring.datasource.password", SQL_SERVER::getPassword);
+        registry.add("spring.jpa.show-sql", () -> "false");
+    }
+
+    @Autowired
+    private AllocationService allocationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void parallelAllocationsNeverDoubleBook() throws Exception {
+        jdbcTemplate.execute(seedSql());
+        List<Long> bookingIds = ids("SELECT b.id FROM bookings b JOIN tourists t ON t.id = b.tourist_id " +
+            "JOIN users u ON u.id = t.user_id WHERE u.username LIKE 'stress_tourist_%'");
+        List<Long> driverIds = ids("SELECT id FROM drivers WHERE license_no LIKE 'STRESS-%'");
+        List<Long> guideIds = ids("SELECT g.id FROM guides g JOIN users u ON u.id = g.user_id WHERE u.username LIKE 'stress_staff_%'");
+        List<Long> jeepIds = ids("SELECT id FROM jeeps WHERE plate_no LIKE 'STRESS-%'");
+
+        AtomicInteger succeeded = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        for (int i = 0; i < ATTEMPTS; i++) {
+            Random random = new Random(i);
+            AllocationRequest request = new AllocationRequest();
+            request.setBookingId(bookingIds.get(random.nextInt(bookingIds.size())));
+            request.setDriverId(driverIds.get(random.nextInt(driverIds.size())));
+            request.setGuideId(guideIds.get(random.nextInt(guideIds.size())));
+            request.setJeepId(jeepIds.get(random.nextInt(jeepIds.size())));
+            pool.submit(() -> {
+                SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken("stress_crew", null, List.of()));
+                try {
+                    start.await();
+                    allocationService.createAllocation(request);
+                    succeeded.incrementAndGet();
+                } catch (Exception expected) {
+                    // Losing a race is the point of the exercise
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(10, TimeUnit.MINUTES)).isTrue();
+
+        for (String column : List.of("booking_id", "driver_id", "guide_id", "jeep_id")) {
+            Integer doubleBooked = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM (SELECT " + column + " FROM allocations WHERE status = 'ACTIVE' AND " + column +
+                " IS NOT NULL GROUP BY " + column + " HAVING COUNT(*) > 1) d", Integer.class);
+            assertThat(doubleBooked).as("double-booked %s", column).isZero();
+        }
+
+        Integer active = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM allocations WHERE status = 'ACTIVE'", Integer.class);
+        assertThat(active).isEqualTo(succeeded.get()).isPositive().isLessThanOrEqualTo(RESOURCES);
+
+        // Every claimed jeep backs an ACTIVE allocation and every ACTIVE allocation holds a claimed jeep
+        Integer inconsistentJeeps = jdbcTemplate.queryForObject("""
+            SELECT COUNT(*) FROM jeeps j
+             WHERE j.plate_no LIKE 'STRESS-%'
+               AND CASE WHEN j.status = 'ALLOCATED' THEN 1 ELSE 0 END
+                <> CASE WHEN EXISTS (SELECT 1 FROM allocations a WHERE a.jeep_id = j.id AND a.status = 'ACTIVE') THEN 1 ELSE 0 END
+            """, Integer.class);
+        assertThat(inconsistentJeeps).isZero();
+
+        Integer allocatedBookings = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM bookings WHERE status = 'ALLOCATED'", Integer.class);
+        assertThat(allocatedBookings).isEqualTo(active);
+    }
+
+    private List<Long> ids(String sql) {
+        return jdbcTemplate.queryForList(sql, Long.class);
+    }
+
+    // A few resources and many bookings, so nearly every attempt collides with another one.
+    private static String seedSql() {
+        return """
+            SET NOCOUNT ON;
+
+            WITH n AS (SELECT TOP (%1$d) ROW_NUMBER() OVER (ORDER BY (SELECT NULL)) AS i FROM sys.all_objects)
+            INSERT INTO users (username, email, password_hash, full_name, phone, role, created_at, updated_at)
+            SELECT CONCAT('stress_tourist_', i), CONCAT('stress_tourist_', i, '@safari.local'), 'x',
+                   CONCAT('Stress Tourist ', i), '+10000000000', 'TOURIST', SYSDATETIME(), SYSDATETIME()
+            FROM n;
+
+            WITH n AS (SELECT TOP (%2$d) ROW_NUMBER() OVER (ORDER BY (SELECT NULL)) AS i FROM sys.all_objects)
+            INSERT INTO users (username, email, password_hash, full_name, phone, role, created_at, updated_at)
+            SELECT CONCAT('stress_staff_', i), CONCAT('stress_staff_', i, '@safari.local'), 'x',
+                   CONCAT('Stress Staff ', i), '+10000000000', 'DRIVER', SYSDATETIME(), SYSDATETIME()
+            FROM n;
+
+            INSERT INTO tourists (user_id, full_name, created_at, updated_at)
+            SELECT id, full_name, SYSDATETIME(), SYSDATETIME() FROM users WHERE username LIKE 'stress_tourist_%%';
+            INSERT INTO drivers (user_id, full_name, phone, license_no, created_at, updated_at)
+            SELECT id, full_name, phone, CONCAT('STRESS-', id), SYSDATETIME(), SYSDATETIME() FROM users WHERE username LIKE 'stress_staff_%%';
+            INSERT INTO guides (user_id, full_name, phone, created_at, updated_at)
+            SELECT id, full_name, phone, SYSDATETIME(), SYSDATETIME() FROM users WHERE username LIKE 'stress_staff_%%';
+            INSERT INTO jeeps (plate_no, model, capacity, status, created_at, updated_at)
+            SELECT CONCAT('STRESS-', id), 'Land Cruiser', 6, 'AVAILABLE', SYSDATETIME(), SYSDATETIME() FROM users WHERE username LIKE 'stress_staff_%%';
+
+            DECLARE @package BIGINT = (SELECT MIN(id) FROM tour_packages);
+            INSERT INTO bookings (tourist_id, package_id, requested_date, requested_time, status,
+                                  edit_window_seconds, payment_window_seconds, version, total_amount, created_at, updated_at)
+            SELECT t.id, @package, DATEADD(DAY, 30, CAST(SYSDATETIME() AS DATE)), '06:00', 'FORWARDED_TO_CREW',
+                   10, 20, 1, 150.00, SYSDATETIME(), SYSDATETIME()
+            FROM tourists t JOIN users u ON u.id = t.user_id WHERE u.username LIKE 'stress_tourist_%%';
+            """.formatted(BOOKINGS, RESOURCES);
+    }
+}
@@ -0,0 +1,166 @@
+package com.safari.safarims.service;
+
+import com.safari.safarims.benchmark.BenchmarkFixtures;
+import com.safari.safarims.common.enums.BookingStatus;
+import com.safari.safarims.common.enums.PaymentStatus;
+import com.safari.safarims.dto.allocation.AllocationResponse;
+import com.safari.safarims.dto.booking.BookingResponse;
+import com.safari.safarims.dto.payment.PaymentResponse;
+import com.safari.safarims.entity.Allocation;
+import com.safari.safarims.entity.Booking;
+import com.safari.safarims.entity.Payment;
+import com.safari.safarims.mapper.AllocationMapper;
+import com.safari.safarims.mapper.AllocationMapperImpl;
+import com.safari.safarims.mapper.BookingMapper;
+import com.safari.safarims.mapper.BookingMapperImpl;
+import com.safari.safarims.mapper.PaymentMapper;
+import com.safari.safarims.mapper.PaymentMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to response mapping, paid once per row on every list endpoint. The {@code handWritten*}
+ * methods keep the original getter-chain builders as a baseline for the generated mappers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DtoMappingBenchmark {
+
+    private BookingMapper bookingMapper;
+    private AllocationMapper allocationMapper;
+    private PaymentMapper paymentMapper;
+
+    private Booking booking;
+    private Allocation allocation;
+    private Payment payment;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.quietLogging();
+        bookingMapper = new BookingMapperImpl();
+        allocationMapper = new AllocationMapperImpl();
+        paymentMapper = new PaymentMapperImpl();
+
+        booking = BenchmarkFixtures.booking(1L);
+        allocation = BenchmarkFixtures.allocation(2L);
+        payment = BenchmarkFixtures.payment(3L);
+    }
+
+    @Benchmark
+    public BookingResponse bookingMapper() {
+        return bookingMapper.toResponse(booking);
+    }
+
+    @Benchmark
+    public BookingResponse bookingHandWritten() {
+        return handWritten(booking);
+    }
+
+    @Benchmark
+    public AllocationResponse allocationMapper() {
+        return allocationMapper.toResponse(allocation);
+    }
+
+    @Benchmark
+    public AllocationResponse allocationHandWritten() {
+        return handWritten(allocation);
+    }
+
+    @Benchmark
+    public PaymentResponse paymentMapper() {
+        return paymentMapper.toResponse(payment);
+    }
+
+    @Benchmark
+    public PaymentResponse paymentHandWritten() {
+        return handWritten(payment);
+    }
+
+    private static BookingResponse handWritten(Booking booking) {
+        LocalDateTime editWindowExpires = booking.getCreatedAt().plusSeconds(booking.getEditWindowSeconds());
+        boolean canEdit = booking.getStatus() == BookingStatus.REQUESTED && LocalDateTime.now().isBefore(editWindowExpires);
+
+        return BookingResponse.builder()
+            .id(booking.getId())
+            .touristId(booking.getTourist().getId())
+            .touristName(booking.getTourist().getFullName())
+            .packageId(booking.getTourPackage().getId())
+            .packageName(booking.getTourPackage().getName())
+            .packageDays(booking.getTourPackage().getDays())
+            .packageMaxPeople(booking.getTourPackage().getMaxPeople())
+            .requestedDate(booking.getRequestedDate())
+            .requestedTime(booking.getRequestedTime())
+            .status(booking.getStatus())
+            .editWindowSeconds(booking.getEditWindowSeconds())
+            .paymentWindowSeconds(booking.getPaymentWindowSeconds())
+            .version(booking.getVersion())
+            .totalAmount(booking.getTotalAmount())
+            .notes(booking.getNotes())
+            .createdAt(booking.getCreatedAt())
+            .updatedAt(booking.getUpdatedAt())
+            .createdBy(booking.getCreatedBy())
+            .updatedBy(booking.getUpdatedBy())
+            .canEdit(canEdit)
+            .editWindowExpires(editWindowExpires)
+            .build();
+    }
+
+    private static AllocationResponse handWritten(Allocation allocation) {
+        return AllocationResponse.builder()
+            .id(allocation.getId())
+            .bookingId(allocation.getBooking().getId())
+            .touristName(allocation.getBooking().getTourist().getFullName())
+            .packageName(allocation.getBooking().getTourPackage().getName())
+            .requestedDate(allocation.getBooking().getRequestedDate())
+            .requestedTime(allocation.getBooking().getRequestedTime())
+            .driverId(allocation.getDriver() != null ? allocation.getDriver().getId() : null)
+            .driverName(allocation.getDriver() != null ? allocation.getDriver().getFullName() : null)
+            .driverPhone(allocation.getDriver() != null ? allocation.getDriver().getPhone() : null)
+            .driverLicense(allocation.getDriver() != null ? allocation.getDriver().getLicenseNo() : null)
+            .guideId(allocation.getGuide() != null ? allocation.getGuide().getId() : null)
+            .guideName(allocation.getGuide() != null ? allocation.getGuide().getFullName() : null)
+            .guidePhone(allocation.getGuide() != null ? allocation.getGuide().getPhone() : null)
+            .jeepId(allocation.getJeep() != null ? allocation.getJeep().getId() : null)
+            .jeepPlateNo(allocation.getJeep() != null ? allocation.getJeep().getPlateNo() : null)
+            .jeepModel(allocation.getJeep() != null ? allocation.getJeep().getModel() : null)
+            .jeepCapacity(allocation.getJeep() != null ? allocation.getJeep().getCapacity() : null)
+            .status(allocation.getStatus())
+            .notes(allocation.getNotes())
+            .createdAt(allocation.getCreatedAt())
+            .updatedAt(allocation.getUpdatedAt())
+            .createdBy(allocation.getCreatedBy())
+            .updatedBy(allocation.getUpdatedBy())
+            .build();
+    }
+
+    private static PaymentResponse handWritten(Payment payment) {
+        boolean isExpired = payment.getExpiresAt() != null &&
+                           LocalDateTime.now().isAfter(payment.getExpiresAt()) &&
+                           payment.getStatus() == PaymentStatus.PENDING;
+
+        return PaymentResponse.builder()
+            .id(payment.getId())
+            .bookingId(payment.getBooking().getId())
+            .touristName(payment.getBooking().getTourist().getFullName())
+            .packageName(payment.getBooking().getTourPackage().getName())
+            .amount(payment.getAmount())
+            .status(payment.getStatus())
+            .method(payment.getMethod())
+            .txRef(payment.getTxRef())
+            .paidAt(payment.getPaidAt())
+            .expiresAt(payment.getExpiresAt())
+            .createdAt(payment.getCreatedAt())
+            .updatedAt(payment.getUpdatedAt())
+            .isExpired(isExpired)
+            .build();
+    }
+}
@@ -0,0 +1,80 @@
+package com.safari.safarims.service;
+
+import com.safari.safarims.benchmark.BenchmarkFixtures;
+import com.safari.safarims.email.EmailTemplate;
+import com.safari.safarims.email.EmailTemplateEngine;
+import com.safari.safarims.email.RenderedEmail;
+import com.safari.safarims.repository.OutboundEmailRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request-thread cost of building and recording an email with delivery disabled: template
+ * rendering plus the OutboundEmail row, without SMTP or a database round trip. The render*
+ * benchmarks isolate the template engine (subject, text and HTML parts); their
+ * {@code gc.alloc.rate.norm} is the allocation per email during a reminder or expiry burst.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EmailTemplateBenchmark {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("420.00");
+
+    private EmailTemplateEngine templateEngine;
+    private EmailService emailService;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.quietLogging();
+        templateEngine = new EmailTemplateEngine(List.of("en", "es", "fr", "de"), "en");
+        OutboundEmailRepository outboundEmails = BenchmarkFixtures.repository(OutboundEmailRepository.class, (name, args) -> null);
+        emailService = new EmailService(null, outboundEmails, templateEngine, null);
+        ReflectionTestUtils.setField(emailService, "fromEmail", "noreply@safari.com");
+        ReflectionTestUtils.setField(emailService, "emailEnabled", false);
+    }
+
+    @Benchmark
+    public RenderedEmail renderReminder() {
+        return templateEngine.render(EmailTemplate.PAYMENT_REMINDER, "en", "42", "420.00");
+    }
+
+    @Benchmark
+    public RenderedEmail renderConfirmationLocalized() {
+        return templateEngine.render(EmailTemplate.BOOKING_CONFIRMATION, "de",
+            "42", "BK-0A91Q1T080WXX", "River Edge Explorer", "2026-12-01", "06:00", "420.00");
+    }
+
+    @Benchmark
+    public void otp() {
+        emailService.sendOtp("tourist@safari.local", "482913", "Account Verification");
+    }
+
+    @Benchmark
+    public void bookingConfirmation() {
+        emailService.sendBookingConfirmation("tourist@safari.local", "en", 42L, "BK-0A91Q1T080WXX",
+            "River Edge Explorer", LocalDate.of(2026, 12, 1), LocalTime.of(6, 0), AMOUNT);
+    }
+
+    @Benchmark
+    public void paymentReminder() {
+        emailService.sendPaymentReminder("tourist@safari.local", "en", 42L, AMOUNT);
+    }
+
+    @Benchmark
+    public void paymentExpiry() {
+        emailService.sendPaymentExpiry("tourist@safari.local", "en", 42L);
+    }
+}
@@ -0,0 +1,243 @@
+package com.safari.safarims.service;
+
+import com.safari.safarims.common.enums.UserRole;
+import com.safari.safarims.email.EmailTemplate;
+import com.safari.safarims.email.EmailTemplateEngine;
+import com.safari.safarims.email.RenderedEmail;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives the coalescer against mocked senders: window and max-items flushes, digest merging, the
+ * caller-runs fallback of the delivery pool, and delivery of everything buffered around stop().
+ */
+class MessageCoalescerTest {
+
+    private static final Pattern COUNTED_TITLE = Pattern.compile("Payment due \\((\\d+)\\)");
+
+    private NotificationService notificationService;
+    private EmailService emailService;
+    private EmailTemplateEngine templateEngine;
+    private MessageCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        notificationService = mock(NotificationService.class);
+        emailService = mock(EmailService.class);
+        templateEngine = mock(EmailTemplateEngine.class);
+        coalescer = coalescer(60_000L, 50, 2, 100);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        coalescer.stop();
+    }
+
+    @Test
+    void loneItemGoesOutUnchangedWhenTheWindowCloses() throws InterruptedException {
+        coalescer.stop();
+        coalescer = coalescer(50L, 50, 2, 100);
+
+        coalescer.notifyUser(1L, "PAYMENT", "Payment due", "Booking #1");
+
+        verify(notificationService, timeout(2000)).notifyUser(1L, "PAYMENT", "Payment due", "Booking #1");
+    }
+
+    @Test
+    void fullBufferIsSentBeforeTheWindowCloses() {
+        ReflectionTestUtils.setField(coalescer, "maxItems", 3);
+        coalescer.notifyUser(1L, "PAYMENT", "Payment due", "Booking #1");
+        coalescer.notifyUser(1L, "PAYMENT", "Payment due", "Booking #2");
+        coalescer.notifyUser(1L, "PAYMENT", "Payment due", "Booking #3");
+
+        verify(notificationService, timeout(2000))
+            .notifyUser(1L, "PAYMENT", "Payment due (3)", "Booking #1\nBooking #2\nBooking #3");
+    }
+
+    @Test
+    void mixedTitlesArePrefixedAndLongDigestsEndWithACount() throws InterruptedException {
+        coalescer.notifyUser(1L, "BOOKING", "Booking confirmed", "Booking #1");
+        coalescer.notifyUser(1L, "BOOKING", "Booking cancelled", "Booking #2");
+        String line = "x".repeat(95);
+        for (int i = 0; i < 40; i++) {
+            coalescer.notifyUser(2L, "PAYMENT", "Payment due", line);
+        }
+        coalescer.stop();
+
+        verify(notificationService).notifyUser(1L, "BOOKING", "2 updates",
+            "Booking confirmed: Booking #1\nBooking cancelled: Booking #2");
+        ArgumentCaptor<String> body = ArgumentCaptor.forClass(String.class);
+        verify(notificationService).notifyUser(eq(2L), eq("PAYMENT"), eq("Payment due (40)"), body.capture());
+        assertThat(body.getValue()).hasSizeLessThanOrEqualTo(1000).endsWith("\n... and 30 more");
+        assertThat(body.getValue().split("\n")).hasSize(11);
+    }
+
+    @Test
+    void emailsGoOutAloneOrAsOneDigest() throws InterruptedException {
+        RenderedEmail part = new RenderedEmail("Reminder", "text", "<p>html</p>");
+        when(templateEngine.render(any(), anyString(), any(String[].class))).thenReturn(part);
+
+        coalescer.emailPaymentExpiry("solo@safari.local", "fr", 7L);
+        coalescer.emailPaymentReminder("many@safari.local", "en", 1L, new BigDecimal("100.00"));
+        coalescer.emailPaymentReminder("many@safari.local", "en", 2L, new BigDecimal("250.00"));
+        coalescer.stop();
+
+        verify(emailService).send("solo@safari.local", EmailTemplate.PAYMENT_EXPIRY, "fr", "7");
+        verify(emailService).sendDigest("many@safari.local", "en", List.of(part, part));
+        verify(templateEngine, times(2)).render(eq(EmailTemplate.PAYMENT_REMINDER), eq("en"), any(String[].class));
+    }
+
+    @Test
+    void fullDeliveryQueueMakesTheCallerDeliver() throws InterruptedException {
+        coalescer.stop();
+        coalescer = coalescer(60_000L, 1, 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch workerBusy = new CountDownLatch(1);
+        Queue<String> threads = new ConcurrentLinkedQueue<>();
+        doAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            if (Thread.currentThread().getName().startsWith("digest-deliver")) {
+                workerBusy.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            }
+            return null;
+        }).when(notificationService).notifyUser(anyLong(), anyString(), anyString(), anyString());
+
+        coalescer.notifyUser(1L, "PAYMENT", "Payment due", "Booking #1"); // occupies the only worker
+        assertThat(workerBusy.await(2, TimeUnit.SECONDS)).isTrue();
+        coalescer.notifyUser(2L, "PAYMENT", "Payment due", "Booking #2"); // fills the queue
+        coalescer.notifyUser(3L, "PAYMENT", "Payment due", "Booking #3"); // rejected, runs here
+
+        assertThat(threads).contains(Thread.currentThread().getName());
+        release.countDown();
+        verify(notificationService, timeout(2000).times(3)).notifyUser(anyLong(), anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void stopDeliversEverythingStillBuffered() throws InterruptedException {
+        coalescer.notifyUser(1L, "PAYMENT", "Payment due", "Booking #1");
+        coalescer.notifyUser(1L, "PAYMENT", "Payment due", "Booking #2");
+        coalescer.notifyRole(UserRole.ADMIN, "ESCALATION", "Booking stale", "Booking #3");
+        verify(notificationService, never()).notifyUser(anyLong(), anyString(), anyString(), anyString());
+
+        coalescer.stop();
+
+        verify(notificationService).notifyUser(1L, "PAYMENT", "Payment due (2)", "Booking #1\nBooking #2");
+        verify(notificationService).notifyRole(UserRole.ADMIN, "ESCALATION", "Booking stale", "Booking #3");
+    }
+
+    @Test
+    void itemsRacingFlushesAreNeitherLostNorDuplicated() throws Exception {
+        coalescer.stop();
+        coalescer = coalescer(1L, 1000, 2, 10_000);
+        AtomicInteger delivered = new AtomicInteger();
+        countDeliveredItems(delivered);
+
+        int adders = 8;
+        int perAdder = 2000;
+        runConcurrently(adders, () -> {
+            for (int i = 0; i < perAdder; i++) {
+                coalescer.notifyUser(1L, "PAYMENT", "Payment due", "Booking #" + i);
+            }
+        });
+        coalescer.stop();
+
+        assertThat(delivered.get()).isEqualTo(adders * perAdder);
+    }
+
+    @Test
+    void itemsAddedWhileStoppingAreStillDelivered() throws Exception {
+        AtomicInteger delivered = new AtomicInteger();
+        countDeliveredItems(delivered);
+
+        int adders = 8;
+        int perAdder = 2000;
+        CountDownLatch started = new CountDownLatch(adders);
+        ExecutorService threads = Executors.newFixedThreadPool(adders);
+        List<Future<?>> results = new ArrayList<>();
+        for (int a = 0; a < adders; a++) {
+            long userId = a;
+            results.add(threads.submit(() -> {
+                started.countDown();
+                for (int i = 0; i < perAdder; i++) {
+                    coalescer.notifyUser(userId * perAdder + i, "PAYMENT", "Payment due", "Booking #" + i);
+                }
+                return null;
+            }));
+        }
+        started.await();
+        coalescer.stop();
+        for (Future<?> result : results) {
+            result.get();
+        }
+        threads.shutdown();
+
+        assertThat(delivered.get()).isEqualTo(adders * perAdder);
+    }
+
+    private MessageCoalescer coalescer(long windowMs, int maxItems, int deliveryThreads, int deliveryQueue) {
+        MessageCoalescer created = new MessageCoalescer(notificationService, emailService, templateEngine,
+            new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(created, "windowMs", windowMs);
+        ReflectionTestUtils.setField(created, "maxItems", maxItems);
+        ReflectionTestUtils.setField(created, "deliveryThreads", deliveryThreads);
+        ReflectionTestUtils.setField(created, "deliveryQueue", deliveryQueue);
+        ReflectionTestUtils.setField(created, "shutdownTimeoutMs", 10_000L);
+        created.start();
+        return created;
+    }
+
+    // A digest of n "Payment due" items is titled "Payment due (n)"
+    private void countDeliveredItems(AtomicInteger delivered) {
+        doAnswer(invocation -> {
+            String title = invocation.getArgument(2);
+            Matcher counted = COUNTED_TITLE.matcher(title);
+            delivered.addAndGet(counted.matches() ? Integer.parseInt(counted.group(1)) : 1);
+            return null;
+        }).when(notificationService).notifyUser(anyLong(), anyString(), anyString(), anyString());
+    }
+
+    private static void runConcurrently(int threads, Runnable task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            results.add(executor.submit(task));
+        }
+        for (Future<?> result : results) {
+            result.get();
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+    }
+}
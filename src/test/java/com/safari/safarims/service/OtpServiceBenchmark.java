@@ -0,0 +1,76 @@
+package com.safari.safarims.service;
+
+import com.safari.safarims.benchmark.BenchmarkFixtures;
+import com.safari.safarims.email.EmailTemplateEngine;
+import com.safari.safarims.entity.Otp;
+import com.safari.safarims.repository.OtpRepository;
+import com.safari.safarims.repository.OutboundEmailRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OTP issue and verification. Both are dominated by the BCrypt work factor configured in AppConfig.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class OtpServiceBenchmark {
+
+    private static final String EMAIL = "tourist@safari.local";
+
+    private OtpService otpService;
+    private String otp;
+    private String otpHash;
+    private Otp stored;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkFixtures.quietLogging();
+        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+
+        OtpRepository otps = BenchmarkFixtures.repository(OtpRepository.class, (name, args) ->
+            name.equals("findByEmailAndTypeAndUsedAtIsNullAndExpiresAtAfter") ? Optional.of(stored) : null);
+        OutboundEmailRepository outboundEmails = BenchmarkFixtures.repository(OutboundEmailRepository.class, (name, args) -> null);
+        EmailService emailService = new EmailService(null, outboundEmails,
+            new EmailTemplateEngine(List.of("en"), "en"), null);
+        ReflectionTestUtils.setField(emailService, "fromEmail", "noreply@safari.com");
+        ReflectionTestUtils.setField(emailService, "emailEnabled", false);
+
+        otpService = new OtpService(otps, passwordEncoder, emailService);
+        otp = "482913";
+        otpHash = passwordEncoder.encode(otp);
+    }
+
+    @Setup(Level.Invocation)
+    public void freshOtp() {
+        stored = Otp.builder()
+            .email(EMAIL)
+            .otpHash(otpHash)
+            .type("SIGNUP")
+            .expiresAt(LocalDateTime.now().plusMinutes(10))
+            .build();
+    }
+
+    @Benchmark
+    public String generate() {
+        return otpService.generateAndSendSignupOtp(EMAIL);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return otpService.verifySignupOtp(EMAIL, otp);
+    }
+}